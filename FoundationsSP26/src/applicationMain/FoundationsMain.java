@@ -1,6 +1,7 @@
 package applicationMain;
 	
 import java.sql.SQLException;
+import database.AsyncDatabase;
 import database.Database;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -56,6 +57,8 @@ import javafx.scene.control.Alert.AlertType;
  * @version 3.00	2025-08-17 Rewrite of this application for the Fall offering of CSE 360 and
  * other ASU courses.
  * @version 3.02	2025-12-17 Enhancements in support of Spring 2026
+ * @version 3.03	2026-10-18 Added the shared AsyncDatabase so pages can load data off the FX thread
+ * @version 3.04	2026-10-18 "--server" runs the headless DiscussionServer instead of the GUI
  */
 
 public class FoundationsMain extends Application {
@@ -75,6 +78,10 @@ public class FoundationsMain extends Application {
 	// application so we do not need to keep passing the reference in parameters to the rest of the
 	// system for other methods that need it can access it.
 	public static Database database = new Database();
+
+	// Reads that might be slow go through here so the JavaFX application thread never waits on
+	// the database; see AsyncDatabase.
+	public static AsyncDatabase asyncDatabase = new AsyncDatabase(database);
     private Alert databaseInUse = new Alert(AlertType.INFORMATION);
 
 	public static int activeHomePage = 0;		// Which role's home page is currently active?
@@ -87,7 +94,7 @@ public class FoundationsMain extends Application {
 			// Connect to the database
 			database.connectToDatabase();
 			// TP3: Inject the active database into the Instructor Controller
-			guiRole2.ControllerRole2Home.setDatabase(database);
+			guiRole2.ControllerRole2Home.setDatabase(database, asyncDatabase);
 		} catch (SQLException e) {
 			// If the connection request fails, it usually means some other app is using it
 			databaseInUse.setTitle("*** ERROR ***");
@@ -111,17 +118,33 @@ public class FoundationsMain extends Application {
 		// With the JavaFX pages set up, this thread of the execution comes to an end.
 	}
 
+	/*******
+	 * <p> Method: stop() </p>
+	 * 
+	 * <p> Description: Called by JavaFX when the last window closes. Stops the background
+	 * database workers so no query is left running against a closing application.</p>
+	 */
+	@Override
+	public void stop() {
+		asyncDatabase.close();
+	}
+
 	/*******
 	 * <p> Title: FoundationsMain main method that starts up JavaFX</p>
 	 * 
-	 * <p> Description: This main method does not perform any special function for this application
-	 * beyond launching JavaFX.  Java and Eclipse require the application to be able to used the
-	 * command line parameters, if needed.  This application does not use them.  If they are
-	 * provided, the application will ignore them.</p>
+	 * <p> Description: This main method launches JavaFX, unless the first argument is
+	 * "--server".  In that case no window is opened: the remaining arguments go to
+	 * server.DiscussionServer, which serves the database to local clients over HTTP.  Any
+	 * other arguments are ignored.</p>
 	 * 
-	 * @param args   The array of command lines parameters.  These are not used.
+	 * @param args   The array of command lines parameters.  Only "--server" is used.
+	 * @throws java.io.IOException if the server's port cannot be bound
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws java.io.IOException {
+		if (args.length > 0 && args[0].equals("--server")) {
+			server.DiscussionServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		launch(args);	// The launch method loads JavaFX and invokes its initialization.  When it
 						// is done, it calls the start method shown above.
 	}
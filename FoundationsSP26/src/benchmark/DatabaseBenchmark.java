@@ -0,0 +1,310 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import database.Database;
+import entityClasses.DiscussionStatistics;
+import entityClasses.Post;
+import entityClasses.PostSummary;
+import guiStudentPosts.ModelStudentPosts;
+import prototype.RuleOfThreeVerifier;
+
+/**
+ * Title: DatabaseBenchmark Class
+ *
+ * Description: JMH benchmarks for the Database calls the discussion board makes most often.
+ * Each trial seeds an in-memory H2 database through {@code Database(String dbUrl)} with
+ * {@code users} students, {@code threads} top-level posts and {@code repliesPerThread}
+ * replies per post, then measures each call both as throughput and as sampled latency, so
+ * the results include the p50/p90/p99/p99.9 percentiles.
+ *
+ * Run it with {@code java benchmark.DatabaseBenchmark [JMH options]}, for example
+ * {@code -p threads=20000 -p users=2000} for a larger board. Results are printed and also
+ * written to {@code benchmark-results.json} for comparison between runs.
+ *
+ * @author Prince Dahiya
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    /** Where the results are written when run through {@link #main(String[])}. */
+    public static final String RESULTS_FILE = "benchmark-results.json";
+
+    private static final String DB_URL = "jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1";
+
+    // Words the seeded posts are built from; the search benchmark queries them too
+    private static final String[] WORDS = { "recursion", "iteration", "sorting", "hashing",
+            "pointer", "stack", "queue", "graph", "database", "index", "thread", "lock",
+            "compiler", "parser", "testing", "deadline", "exam", "lecture", "homework", "project" };
+
+    /** Number of student accounts. */
+    @Param({ "200" })
+    public int users;
+
+    /** Number of top-level posts. */
+    @Param({ "2000" })
+    public int threads;
+
+    /** Replies under each top-level post. */
+    @Param({ "4" })
+    public int repliesPerThread;
+
+    private Database db;
+    private ModelStudentPosts model;
+    private RuleOfThreeVerifier verifier;
+    private ArrayList<Post> topLevelPosts;
+    private int totalPosts;
+
+    /**
+     * Title: Cursor
+     * Description: Per-thread random choices, so concurrent benchmark threads do not all hit
+     * the same post or user.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        SplittableRandom random = new SplittableRandom(42);
+    }
+
+    /**
+     * Method: seed
+     * Description: Wipes the benchmark database and bulk-loads the users, posts, replies and
+     * some read watermarks with JDBC batches.
+     * @throws SQLException If seeding fails.
+     */
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        db = new Database(DB_URL);
+        db.connectToDatabase();
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+        db.connectToDatabase();   // recreate the empty schema
+
+        SplittableRandom random = new SplittableRandom(7);
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO userDB (userName, "
+                    + "password, firstName, middleName, lastName, preferredFirstName, emailAddress, "
+                    + "newRole1) VALUES (?, 'Pw1!pass', ?, '', 'Student', ?, ?, TRUE)")) {
+                for (int u = 0; u < users; u++) {
+                    pstmt.setString(1, student(u));
+                    pstmt.setString(2, "First" + u);
+                    pstmt.setString(3, "First" + u);
+                    pstmt.setString(4, student(u) + "@asu.edu");
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO postDB (id, title, "
+                    + "body, authorUsername, timestamp, postType, parentPostId, rootPostId) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                int id = 1;
+                for (int t = 0; t < threads; t++) {
+                    int root = id;
+                    addPost(pstmt, random, id++, student(t % users), t % 3 == 0 ? "STATEMENT" : "QUESTION", -1);
+                    for (int r = 0; r < repliesPerThread; r++)
+                        addPost(pstmt, random, id++, student(random.nextInt(users)), "STATEMENT", root);
+                    if (t % 500 == 499) pstmt.executeBatch();
+                }
+                pstmt.executeBatch();
+                totalPosts = id - 1;
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+        db.rebuildPostCounters();   // the batches bypassed createPost()
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            // Every third thread has been read in full by one student
+            stmt.execute("INSERT INTO readWatermarkDB (username, threadId, postRead, lastReadReplyId, "
+                    + "readReplyCount) SELECT 'student' || MOD(id, " + users + "), id, TRUE, id + "
+                    + repliesPerThread + ", " + repliesPerThread
+                    + " FROM postDB WHERE parentPostId = -1 AND MOD(id, 3) = 0");
+            stmt.execute("ANALYZE");
+        }
+
+        model = new ModelStudentPosts(db);
+        verifier = new RuleOfThreeVerifier(db);
+        topLevelPosts = db.getAllPosts();
+        db.searchPosts(WORDS[0]);   // build the search index outside the measurement
+    }
+
+    private static void addPost(PreparedStatement pstmt, SplittableRandom random, int id, String author,
+            String type, int parent) throws SQLException {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        StringBuilder body = new StringBuilder();
+        for (int w = 0; w < 30; w++) body.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        pstmt.setInt(1, id);
+        pstmt.setString(2, title);
+        pstmt.setString(3, body.toString().trim());
+        pstmt.setString(4, author);
+        pstmt.setString(5, String.format("2026-10-%02d %02d:%02d:00", 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60)));
+        pstmt.setString(6, type);
+        pstmt.setInt(7, parent);
+        pstmt.setInt(8, parent == -1 ? id : parent);
+        pstmt.addBatch();
+    }
+
+    private static String student(int n) {
+        return "student" + n;
+    }
+
+    /**
+     * Method: release
+     * Description: Closes the pool at the end of the trial.
+     */
+    @TearDown(Level.Trial)
+    public void release() {
+        db.closeConnection();
+    }
+
+    /** @return every top-level post, as the student board's unpaged list loads them */
+    @Benchmark
+    public ArrayList<Post> getAllPosts() {
+        return db.getAllPosts();
+    }
+
+    /** @return the same list as {@link #getAllPosts()} as summaries, without bodies */
+    @Benchmark
+    public ArrayList<PostSummary> getPostSummaries() {
+        return db.getPostSummaries();
+    }
+
+    /**
+     * @param cursor per-thread random choices
+     * @return ranked matches for a two-word query
+     */
+    @Benchmark
+    public ArrayList<Post> searchPosts(Cursor cursor) {
+        return db.searchPosts(WORDS[cursor.random.nextInt(WORDS.length)] + " "
+                + WORDS[cursor.random.nextInt(WORDS.length)]);
+    }
+
+    /**
+     * @param cursor per-thread random choices
+     * @return the matches of {@link #searchPosts(Cursor)} as summaries, without bodies
+     */
+    @Benchmark
+    public ArrayList<PostSummary> searchPostSummaries(Cursor cursor) {
+        return db.searchPostSummaries(WORDS[cursor.random.nextInt(WORDS.length)] + " "
+                + WORDS[cursor.random.nextInt(WORDS.length)]);
+    }
+
+    /**
+     * @param cursor per-thread random choices
+     * @return the replies under a random thread
+     */
+    @Benchmark
+    public ArrayList<Post> getRepliesForPost(Cursor cursor) {
+        return db.getRepliesForPost(randomThread(cursor).getId());
+    }
+
+    /**
+     * Marks a random post read for a random student; most calls insert a new receipt.
+     * @param cursor per-thread random choices
+     */
+    @Benchmark
+    public void markAsRead(Cursor cursor) {
+        db.markAsRead(1 + cursor.random.nextInt(totalPosts), student(cursor.random.nextInt(users)));
+    }
+
+    /**
+     * @param cursor per-thread random choices
+     * @return the list row for a random thread, badges included
+     */
+    @Benchmark
+    public String buildDisplayString(Cursor cursor) {
+        return model.buildDisplayString(randomThread(cursor), student(cursor.random.nextInt(users)));
+    }
+
+    /**
+     * @param cursor per-thread random choices
+     * @return whether a random student meets the Rule of 3
+     * @throws SQLException If the query fails.
+     */
+    @Benchmark
+    public boolean verifyStudentInteraction(Cursor cursor) throws SQLException {
+        return verifier.verifyStudentInteraction(student(cursor.random.nextInt(users)));
+    }
+
+    /** @return the busiest hour of the board */
+    @Benchmark
+    public String getPeakActivityTime() {
+        return db.getPeakActivityTime();
+    }
+
+    /**
+     * @return every student's distinct peer count from the grouped SQL join
+     * @throws SQLException If the query fails.
+     */
+    @Benchmark
+    public HashMap<String, Integer> getDistinctPeerCounts() throws SQLException {
+        return verifier.getDistinctPeerCounts();
+    }
+
+    /** @return every student's distinct peer count from the columnar snapshot */
+    @Benchmark
+    public HashMap<String, Integer> snapshotDistinctPeerCounts() {
+        return db.getAnalyticsSnapshot().getDistinctPeerCounts();
+    }
+
+    /** @return the dashboard statistics computed from the columnar snapshot */
+    @Benchmark
+    public DiscussionStatistics snapshotStatistics() {
+        return db.getAnalyticsSnapshot().getStatistics();
+    }
+
+    private Post randomThread(Cursor cursor) {
+        return topLevelPosts.get(cursor.random.nextInt(topLevelPosts.size()));
+    }
+
+    /**
+     * Method: main
+     * Description: Runs these benchmarks with any JMH command line options given (for example
+     * {@code -p threads=20000} or {@code -t 4}) and writes the results to {@link #RESULTS_FILE}.
+     * @param args JMH command line options.
+     * @throws Exception If JMH cannot parse the options or run the benchmarks.
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(DatabaseBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS_FILE)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,318 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import database.Database;
+import entityClasses.Post;
+import entityClasses.PostSummary;
+import guiStudentPosts.ModelStudentPosts;
+import server.LatencyHistogram;
+
+/**
+ * Title: DiscussionLoadDriver Class
+ *
+ * Description: A headless load generator for the discussion board. It seeds a database,
+ * then runs {@code students} simulated students and {@code staff} simulated staff members
+ * concurrently for {@code seconds} seconds. Each one loops: pause for a random think time,
+ * pick an operation from its role's mix, and run it through {@code ModelStudentPosts} (or
+ * {@code Database} for staff-only actions), the same way the GUI does.
+ *
+ * Thread popularity is skewed: the thread an operation touches is drawn from a Zipf
+ * distribution over threads ordered newest first, so a few hot threads take most of the
+ * reads and replies, as they do before a deadline. At the end it prints, per operation,
+ * the count, ops/sec, errors and p50/p99/p99.9/max latency.
+ *
+ * Usage: {@code java benchmark.DiscussionLoadDriver [key=value ...]} with these keys
+ * (defaults in brackets): {@code url} [in-memory H2], {@code students} [50], {@code staff}
+ * [5], {@code seconds} [30], {@code thinkMs} [100], {@code seedThreads} [1000],
+ * {@code repliesPerThread} [4], {@code skew} [1.1]. The pool size can be set through the
+ * URL, for example {@code url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;POOL_SIZE=16}.
+ *
+ * @author Prince Dahiya
+ */
+public class DiscussionLoadDriver {
+
+    /**
+     * Title: Op
+     * Description: The operations a simulated user can perform.
+     */
+    public enum Op { POST, REPLY, READ, SEARCH, EDIT, SOFT_DELETE, ENDORSE }
+
+    // Operation mixes, as relative weights in Op order. Students mostly read; staff read,
+    // search and endorse.
+    private static final int[] STUDENT_MIX = { 6, 14, 55, 15, 6, 4, 0 };
+    private static final int[] STAFF_MIX   = { 2,  8, 50, 20, 0, 0, 20 };
+
+    private static final String[] WORDS = { "recursion", "iteration", "sorting", "hashing",
+            "pointer", "stack", "queue", "graph", "database", "index", "thread", "lock",
+            "compiler", "parser", "testing", "deadline", "exam", "lecture", "homework", "project" };
+
+    private final Map<String, String> settings;
+    private final Database db;
+    private final ModelStudentPosts model;
+    private final double skew;
+
+    // Top-level post ids, oldest first. New threads are appended by the POST operation.
+    private final ArrayList<Integer> threadIds = new ArrayList<>();
+
+    private final EnumMap<Op, LatencyHistogram> latencies = new EnumMap<>(Op.class);
+    private final EnumMap<Op, LongAdder> errors = new EnumMap<>(Op.class);
+
+    /**
+     * Constructor for a driver with the given settings; see the class description for keys.
+     * @param settings The key=value settings; missing keys use their defaults.
+     */
+    public DiscussionLoadDriver(Map<String, String> settings) {
+        this.settings = settings;
+        this.db = new Database(setting("url", "jdbc:h2:mem:loaddriverdb;DB_CLOSE_DELAY=-1"));
+        this.model = new ModelStudentPosts(db);
+        this.skew = Double.parseDouble(setting("skew", "1.1"));
+        for (Op op : Op.values()) {
+            latencies.put(op, new LatencyHistogram());
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    private String setting(String key, String defaultValue) {
+        return settings.getOrDefault(key, defaultValue);
+    }
+
+    private int intSetting(String key, int defaultValue) {
+        return Integer.parseInt(setting(key, Integer.toString(defaultValue)));
+    }
+
+    /**
+     * Method: seed
+     * Description: Empties the database and creates the starting threads and replies.
+     * @throws SQLException If the database cannot be reset.
+     */
+    public void seed() throws SQLException {
+        db.connectToDatabase();
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+        db.connectToDatabase();
+
+        int seedThreads = intSetting("seedThreads", 1000);
+        int replies = intSetting("repliesPerThread", 4);
+        int students = Math.max(1, intSetting("students", 50));
+        SplittableRandom random = new SplittableRandom(1);
+        for (int t = 0; t < seedThreads; t++)
+            model.createPost(sentence(random, 3), sentence(random, 25), student(t % students), "QUESTION",
+                    Post.NO_PARENT);
+        for (Post p : db.getAllPosts()) {
+            threadIds.add(0, p.getId());   // getAllPosts() is newest first; keep oldest first
+            for (int r = 0; r < replies; r++)
+                model.createPost("Re: " + p.getTitle(), sentence(random, 15),
+                        student(random.nextInt(students)), "STATEMENT", p.getId());
+        }
+    }
+
+    /**
+     * Method: run
+     * Description: Runs the simulated users for the configured time and waits for them to stop.
+     * @return The wall-clock time the load ran for, in nanoseconds.
+     */
+    public long run() {
+        int students = intSetting("students", 50);
+        int staff = intSetting("staff", 5);
+        long thinkMs = Long.parseLong(setting("thinkMs", "100"));
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(Long.parseLong(setting("seconds", "30")));
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < students; s++) {
+                String name = student(s);
+                long seed = s;
+                users.submit(() -> simulate(name, false, STUDENT_MIX, thinkMs, end, seed));
+            }
+            for (int s = 0; s < staff; s++) {
+                String name = "staff" + s;
+                long seed = 1_000_000 + s;
+                users.submit(() -> simulate(name, true, STAFF_MIX, thinkMs, end, seed));
+            }
+        } // close() waits for every simulated user to finish
+        return System.nanoTime() - start;
+    }
+
+    /*
+     * One simulated user's session: think, pick an operation, time it, repeat until the end.
+     */
+    private void simulate(String username, boolean isStaff, int[] mix, long thinkMs, long end, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int totalWeight = 0;
+        for (int w : mix) totalWeight += w;
+
+        while (System.nanoTime() < end) {
+            try {
+                // Exponentially distributed think time with the configured mean
+                if (thinkMs > 0)
+                    Thread.sleep((long) (-thinkMs * Math.log(1 - random.nextDouble())));
+            } catch (InterruptedException e) {
+                return;
+            }
+            Op op = pick(mix, totalWeight, random);
+            long began = System.nanoTime();
+            try {
+                perform(op, username, isStaff, random);
+                latencies.get(op).record(System.nanoTime() - began);
+            } catch (RuntimeException e) {
+                errors.get(op).increment();
+            }
+        }
+    }
+
+    private static Op pick(int[] mix, int totalWeight, SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (int i = 0; i < mix.length; i++) {
+            roll -= mix[i];
+            if (roll < 0) return Op.values()[i];
+        }
+        return Op.READ;
+    }
+
+    /*
+     * Runs one operation the way the GUI would.
+     */
+    private void perform(Op op, String username, boolean isStaff, SplittableRandom random) {
+        switch (op) {
+            case POST -> {
+                model.createPost(sentence(random, 3), sentence(random, 25), username,
+                        isStaff ? "STATEMENT" : "QUESTION", Post.NO_PARENT);
+                // The newest thread starts out the most popular
+                Post newest = db.getPostsByAuthorPage(username, 0, 1).stream().findFirst().orElse(null);
+                if (newest != null) synchronized (threadIds) { threadIds.add(newest.getId()); }
+            }
+            case REPLY -> {
+                int threadId = popularThread(random);
+                model.createPost("Re: thread " + threadId, sentence(random, 15), username, "STATEMENT", threadId);
+            }
+            case READ -> {
+                Post post = db.getPostById(popularThread(random));
+                if (post != null) {
+                    model.getRepliesForPost(post.getId());
+                    model.markPostAndRepliesRead(post, username);
+                }
+            }
+            case SEARCH -> model.searchPosts(WORDS[random.nextInt(WORDS.length)]);
+            case EDIT -> {
+                ArrayList<PostSummary> mine = model.getMyPostsPage(username, 0);
+                if (!mine.isEmpty()) {
+                    PostSummary p = mine.get(random.nextInt(mine.size()));
+                    model.updatePost(p.getId(), p.getTitle(), sentence(random, 25), username);
+                }
+            }
+            case SOFT_DELETE -> {
+                ArrayList<PostSummary> mine = model.getMyPostsPage(username, 0);
+                if (!mine.isEmpty())
+                    model.deletePost(mine.get(mine.size() - 1).getId(), username);   // the oldest
+            }
+            case ENDORSE -> db.updateInstructorEndorsement(popularThread(random), random.nextBoolean());
+        }
+    }
+
+    /*
+     * Draws a thread id with Zipf-like popularity: rank 0 (the newest thread) is the most
+     * likely. Uses the inverse CDF of a continuous power law, which needs no table and so
+     * keeps working as threads are added.
+     */
+    private int popularThread(SplittableRandom random) {
+        synchronized (threadIds) {
+            int n = threadIds.size();
+            if (n == 0) return -1;
+            double u = random.nextDouble();
+            int rank;
+            if (Math.abs(skew - 1.0) < 1e-9) {
+                rank = (int) Math.floor(Math.pow(n + 1, u)) - 1;
+            } else {
+                double a = 1 - skew;
+                rank = (int) Math.floor(Math.pow(u * (Math.pow(n + 1, a) - 1) + 1, 1 / a)) - 1;
+            }
+            rank = Math.min(Math.max(rank, 0), n - 1);
+            return threadIds.get(n - 1 - rank);
+        }
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) text.append(' ');
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String student(int n) {
+        return "student" + n;
+    }
+
+    /**
+     * Method: report
+     * Description: Formats the per-operation results.
+     * @param elapsedNanos How long the load ran.
+     * @return A table with one row per operation plus a total row.
+     */
+    public String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder out = new StringBuilder(String.format("%-12s %9s %10s %7s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/sec", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        long total = 0;
+        for (Op op : Op.values()) {
+            LatencyHistogram h = latencies.get(op);
+            long count = h.count();
+            total += count;
+            if (count == 0 && errors.get(op).sum() == 0) continue;
+            out.append(String.format("%-12s %9d %10.1f %7d %10.3f %10.3f %10.3f %10.3f%n", op, count,
+                    count / seconds, errors.get(op).sum(), millis(h.percentile(0.50)),
+                    millis(h.percentile(0.99)), millis(h.percentile(0.999)), millis(h.max())));
+        }
+        out.append(String.format("%-12s %9d %10.1f%n", "TOTAL", total, total / seconds));
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Method: close
+     * Description: Releases the database pool.
+     */
+    public void close() {
+        db.closeConnection();
+    }
+
+    /**
+     * Method: main
+     * Description: Seeds, runs and reports. Arguments are key=value settings.
+     * @param args The settings; see the class description.
+     * @throws Exception If the settings are malformed or seeding fails.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            settings.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        DiscussionLoadDriver driver = new DiscussionLoadDriver(settings);
+        System.out.println("Seeding...");
+        driver.seed();
+        System.out.println("Running " + settings + "...");
+        long elapsed = driver.run();
+        System.out.print(driver.report(elapsed));
+        driver.close();
+    }
+}
@@ -0,0 +1,288 @@
+package database;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import entityClasses.ActivityHistogram;
+import entityClasses.DiscussionStatistics;
+import entityClasses.Post;
+import entityClasses.PostBadge;
+import entityClasses.ThreadNode;
+import entityClasses.User;
+
+/*******
+ * <p> Title: AsyncDatabase Class. </p>
+ *
+ * <p> Description: Runs {@link Database} reads and writes off the caller's thread. Each
+ * method returns a CompletableFuture that completes on a worker thread, so the JavaFX
+ * controllers can ask for data, show a loading state, and render the result once it arrives (typically by passing
+ * {@code Platform::runLater} as the executor of a {@code thenAcceptAsync} or
+ * {@code whenCompleteAsync} stage) instead of freezing the window during a slow query. </p>
+ *
+ * <p> Work runs on virtual threads: a query spends nearly all of its time blocked on JDBC, and
+ * the connection pool already bounds how many run against H2 at once, so there is no point in
+ * sizing a platform thread pool as well. </p>
+ *
+ * <p> Writes go through {@link #submit(Query)} or {@link #supply(Supplier)} as well. A post
+ * write can wait on the Database's post lock, which is held for as long as the search index
+ * takes to build, and deleting a post runs several statements, so the controllers never
+ * write on the FX thread either. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Added getActivityHistogram()
+ * @version 1.02    2026-10-18    Added getStatisticsSnapshot()
+ * @version 1.03    2026-10-18    Added getThreadedPostsByAuthor()
+ * @version 1.04    2026-10-18    Added getThreadTrees()
+ * @version 1.05    2026-10-18    Added getAnalyticsSnapshot()
+ * @version 1.06    2026-10-18    Added refreshAnalyticsSnapshot() and getSnapshotUnresolvedQuestions()
+ * @version 1.07    2026-10-18    getThreadTrees() takes whether to expand the trees
+ * @version 1.08    2026-10-18    Documented that writes run here too
+ */
+public class AsyncDatabase implements AutoCloseable {
+
+	/**
+	 * <p> Title: Query </p>
+	 * <p> Description: A unit of work to run against the wrapped Database. </p>
+	 *
+	 * @param <T> the type of the result
+	 */
+	@FunctionalInterface
+	public interface Query<T> {
+		/**
+		 * Runs the work.
+		 * @param database the wrapped Database
+		 * @return the result handed to the future
+		 * @throws SQLException if the query fails; the future completes exceptionally
+		 */
+		T run(Database database) throws SQLException;
+	}
+
+	private final Database database;
+	private final ExecutorService executor;
+
+	/**
+	 * Wraps a database, running its work on a fresh virtual thread each.
+	 *
+	 * @param database the database to read from
+	 */
+	public AsyncDatabase(Database database) {
+		this(database, Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	/**
+	 * Wraps a database, running its work on the given executor.
+	 *
+	 * @param database the database to read from
+	 * @param executor where the work runs; shut down by {@link #close()}
+	 */
+	public AsyncDatabase(Database database, ExecutorService executor) {
+		this.database = database;
+		this.executor = executor;
+	}
+
+	/**********
+	 * <p> Method: submit(Query) </p>
+	 *
+	 * <p> Description: Runs any work against the wrapped Database on the executor. Use it to
+	 * group several reads that belong together (for example a page of posts and its badges)
+	 * into one round trip to the worker. A thrown SQLException completes the future
+	 * exceptionally, wrapped in a CompletionException. </p>
+	 *
+	 * @param <T> the type of the result
+	 * @param query the work to run
+	 * @return a future for the result
+	 */
+	public <T> CompletableFuture<T> submit(Query<T> query) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return query.run(database);
+			} catch (SQLException e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	/**********
+	 * <p> Method: supply(Supplier) </p>
+	 *
+	 * <p> Description: Runs work that reaches the database some other way, such as through a
+	 * page's Model, on the same executor. </p>
+	 *
+	 * @param <T> the type of the result
+	 * @param work the work to run
+	 * @return a future for the result
+	 */
+	public <T> CompletableFuture<T> supply(Supplier<T> work) {
+		return CompletableFuture.supplyAsync(work, executor);
+	}
+
+	/** @return a future for {@link Database#getAllPosts()} */
+	public CompletableFuture<ArrayList<Post>> getAllPosts() {
+		return submit(Database::getAllPosts);
+	}
+
+	/**
+	 * @param lastSeenId id of the last post already shown, or 0 for the first page
+	 * @param pageSize the number of posts per page
+	 * @return a future for {@link Database#getPostsPage(int, int)}
+	 */
+	public CompletableFuture<ArrayList<Post>> getPostsPage(int lastSeenId, int pageSize) {
+		return submit(db -> db.getPostsPage(lastSeenId, pageSize));
+	}
+
+	/**
+	 * @param username the author
+	 * @param lastSeenId id of the last post already shown, or 0 for the first page
+	 * @param pageSize the number of posts per page
+	 * @return a future for {@link Database#getPostsByAuthorPage(String, int, int)}
+	 */
+	public CompletableFuture<ArrayList<Post>> getPostsByAuthorPage(String username, int lastSeenId,
+			int pageSize) {
+		return submit(db -> db.getPostsByAuthorPage(username, lastSeenId, pageSize));
+	}
+
+	/**
+	 * @param parentPostId the post whose replies are wanted
+	 * @return a future for {@link Database#getRepliesForPost(int)}
+	 */
+	public CompletableFuture<ArrayList<Post>> getRepliesForPost(int parentPostId) {
+		return submit(db -> db.getRepliesForPost(parentPostId));
+	}
+
+	/**
+	 * @param id the post id
+	 * @return a future for {@link Database#getPostById(int)}
+	 */
+	public CompletableFuture<Post> getPostById(int id) {
+		return submit(db -> db.getPostById(id));
+	}
+
+	/**
+	 * @param query the search text
+	 * @return a future for {@link Database#searchPosts(String)}
+	 */
+	public CompletableFuture<ArrayList<Post>> searchPosts(String query) {
+		return submit(db -> db.searchPosts(query));
+	}
+
+	/**
+	 * @param postIds the posts to badge
+	 * @param username the reader
+	 * @return a future for {@link Database#getPostBadges(List, String)}
+	 */
+	public CompletableFuture<HashMap<Integer, PostBadge>> getPostBadges(List<Integer> postIds,
+			String username) {
+		return submit(db -> db.getPostBadges(postIds, username));
+	}
+
+	/** @return a future for {@link Database#getContextualThreadedPosts()} */
+	public CompletableFuture<ArrayList<Post>> getContextualThreadedPosts() {
+		return submit(Database::getContextualThreadedPosts);
+	}
+
+	/**
+	 * @param lastThreadId id of the last thread already shown, or 0 for the first page
+	 * @param threadCount the number of threads per page
+	 * @return a future for {@link Database#getContextualThreadedPostsPage(int, int)}
+	 */
+	public CompletableFuture<ArrayList<Post>> getContextualThreadedPostsPage(int lastThreadId,
+			int threadCount) {
+		return submit(db -> db.getContextualThreadedPostsPage(lastThreadId, threadCount));
+	}
+
+	/**
+	 * @param fragment the text to look for in the username
+	 * @param prefixOnly match only at the start of the username
+	 * @return a future for {@link Database#getThreadedPostsByAuthor(String, boolean)}
+	 */
+	public CompletableFuture<ArrayList<Post>> getThreadedPostsByAuthor(String fragment, boolean prefixOnly) {
+		return submit(db -> db.getThreadedPostsByAuthor(fragment, prefixOnly));
+	}
+
+	/**
+	 * @param lastThreadId id of the last thread already shown, or 0 for the first page
+	 * @param threadCount the number of threads per page
+	 * @param expand true to read every thread's replies now
+	 * @return a future for {@link Database#getThreadTrees(int, int, boolean)}
+	 */
+	public CompletableFuture<ArrayList<ThreadNode>> getThreadTrees(int lastThreadId, int threadCount, boolean expand) {
+		return submit(db -> db.getThreadTrees(lastThreadId, threadCount, expand));
+	}
+
+	/** @return a future for {@link Database#getAnalyticsSnapshot()} */
+	public CompletableFuture<PostSnapshot> getAnalyticsSnapshot() {
+		return submit(Database::getAnalyticsSnapshot);
+	}
+
+	/** @return a future for {@link Database#refreshAnalyticsSnapshot()} */
+	public CompletableFuture<PostSnapshot> refreshAnalyticsSnapshot() {
+		return submit(Database::refreshAnalyticsSnapshot);
+	}
+
+	/** @return a future for {@link Database#getSnapshotUnresolvedQuestions()} */
+	public CompletableFuture<ArrayList<Post>> getSnapshotUnresolvedQuestions() {
+		return submit(Database::getSnapshotUnresolvedQuestions);
+	}
+
+	/** @return a future for {@link Database#getUnresolvedQuestions()} */
+	public CompletableFuture<ArrayList<Post>> getUnresolvedQuestions() {
+		return submit(Database::getUnresolvedQuestions);
+	}
+
+	/** @return a future for {@link Database#getDiscussionStatistics()} */
+	public CompletableFuture<int[]> getDiscussionStatistics() {
+		return submit(Database::getDiscussionStatistics);
+	}
+
+	/** @return a future for {@link Database#getPeakActivityTime()} */
+	public CompletableFuture<String> getPeakActivityTime() {
+		return submit(Database::getPeakActivityTime);
+	}
+
+	/** @return a future for {@link Database#getStatisticsSnapshot()}, which seeds on first use */
+	public CompletableFuture<DiscussionStatistics> getStatisticsSnapshot() {
+		return submit(Database::getStatisticsSnapshot);
+	}
+
+	/**
+	 * @param from the first moment to count, or null
+	 * @param to the moment to stop counting at, or null
+	 * @return a future for {@link Database#getActivityHistogram(LocalDateTime, LocalDateTime)}
+	 */
+	public CompletableFuture<ActivityHistogram> getActivityHistogram(LocalDateTime from, LocalDateTime to) {
+		return submit(db -> db.getActivityHistogram(from, to));
+	}
+
+	/**
+	 * @param username the user to look up
+	 * @return a future for {@link Database#findUserByUsername(String)}
+	 */
+	public CompletableFuture<User> findUserByUsername(String username) {
+		return submit(db -> db.findUserByUsername(username));
+	}
+
+	/** @return a future for {@link Database#getAllUsers()} */
+	public CompletableFuture<ArrayList<User>> getAllUsers() {
+		return submit(Database::getAllUsers);
+	}
+
+	/**********
+	 * <p> Method: close() </p>
+	 *
+	 * <p> Description: Stops accepting work. Reads already running are allowed to finish. </p>
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,131 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*******
+ * <p> Title: AuthorIndex Class </p>
+ *
+ * <p> Description: An in-memory n-gram index over the usernames that have posted, for the
+ * staff author search. Every run of one to three letters in a lower-cased username is an
+ * n-gram mapped to the usernames containing it. A fragment of up to three letters is
+ * answered by one lookup. A longer fragment intersects the posting lists of its trigrams and
+ * checks the few names left. Prefix matches read a range of the sorted names. Neither kind
+ * of search looks at posts. </p>
+ *
+ * <p> Names are only ever added. When an author's last post is deleted the name stays, and
+ * the Database's post query simply finds nothing for it. The index is safe to search from
+ * several threads while another thread adds to it. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ */
+class AuthorIndex {
+
+	/** Longest n-gram indexed; longer fragments are split into grams of this length. */
+	private static final int GRAM_LENGTH = 3;
+
+	// n-gram -> lower-cased usernames containing it
+	private final HashMap<String, HashSet<String>> grams = new HashMap<>();
+	// lower-cased username -> the usernames as stored, which differ only in case
+	private final TreeMap<String, TreeSet<String>> names = new TreeMap<>();
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/*******
+	 * <p> Method: add(String) </p>
+	 *
+	 * @param username An author to index; names already indexed and null are ignored
+	 */
+	void add(String username) {
+		if (username == null) return;
+		String key = username.toLowerCase();
+		lock.writeLock().lock();
+		try {
+			TreeSet<String> spellings = names.get(key);
+			if (spellings != null) {
+				spellings.add(username);
+				return;
+			}
+			spellings = new TreeSet<>();
+			spellings.add(username);
+			names.put(key, spellings);
+			for (int length = 1; length <= GRAM_LENGTH; length++)
+				for (int start = 0; start + length <= key.length(); start++)
+					grams.computeIfAbsent(key.substring(start, start + length), _ -> new HashSet<>()).add(key);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*******
+	 * <p> Method: size() </p>
+	 *
+	 * @return The number of distinct (case-insensitive) usernames indexed
+	 */
+	int size() {
+		lock.readLock().lock();
+		try {
+			return names.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*******
+	 * <p> Method: find(String, boolean) </p>
+	 *
+	 * <p> Description: Returns the usernames that contain the fragment, ignoring case, or
+	 * that start with it when prefixOnly is set. </p>
+	 *
+	 * @param fragment   The text to look for; must not be empty
+	 * @param prefixOnly Match only at the start of the username
+	 * @return The matching usernames as stored, in alphabetical order
+	 */
+	List<String> find(String fragment, boolean prefixOnly) {
+		String key = fragment.toLowerCase();
+		ArrayList<String> result = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			if (prefixOnly) {
+				for (TreeSet<String> spellings : names.subMap(key, key + Character.MAX_VALUE).values())
+					result.addAll(spellings);
+				return result;
+			}
+			TreeSet<String> matches = new TreeSet<>();
+			for (String name : candidates(key))
+				if (name.contains(key)) matches.add(name);
+			for (String name : matches) result.addAll(names.get(name));
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * The names holding every n-gram of the key: a superset of the names containing it.
+	 */
+	private Set<String> candidates(String key) {
+		if (key.length() <= GRAM_LENGTH) return grams.getOrDefault(key, new HashSet<>());
+
+		// Start from the rarest trigram and keep the names found under every other one
+		ArrayList<HashSet<String>> lists = new ArrayList<>();
+		for (int start = 0; start + GRAM_LENGTH <= key.length(); start++) {
+			HashSet<String> list = grams.get(key.substring(start, start + GRAM_LENGTH));
+			if (list == null) return new HashSet<>();
+			lists.add(list);
+		}
+		lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+		HashSet<String> result = new HashSet<>(lists.get(0));
+		for (int i = 1; i < lists.size() && !result.isEmpty(); i++)
+			result.retainAll(lists.get(i));
+		return result;
+	}
+}
@@ -0,0 +1,251 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*******
+ * <p> Title: ConnectionPool Class </p>
+ *
+ * <p> Description: A small, bounded pool of JDBC connections used by {@link Database}.
+ * Every Database operation borrows a connection, uses it, and closes it, which hands it back
+ * to the pool instead of closing the real connection. This lets background loaders, report
+ * exports and the UI query H2 at the same time without sharing one Statement. </p>
+ *
+ * <p> Connections are per thread: if a thread that already holds a connection borrows again
+ * (for example a Database method that calls another Database method), it gets the same
+ * physical connection back. That keeps nested calls inside one transaction and means a
+ * pool of size 1 can never deadlock against itself. </p>
+ *
+ * <p> Connections are opened lazily, up to the maximum size. A borrower that finds the pool
+ * exhausted waits up to {@link #BORROW_TIMEOUT_SECONDS} seconds and then gets an
+ * SQLException rather than hanging forever. </p>
+ *
+ * <p> Each physical connection keeps its own {@link StatementCache}, so
+ * {@code prepareStatement(String)} on a borrowed handle reuses an already parsed statement
+ * whenever that SQL has run on the connection before. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Added a per-connection prepared statement cache
+ */
+class ConnectionPool {
+
+	/** How long a borrower waits for a free connection before giving up. */
+	static final int BORROW_TIMEOUT_SECONDS = 30;
+
+	private final String url;
+	private final String user;
+	private final String password;
+	private final int maxSize;
+
+	private final Semaphore permits;					// One permit per connection in use
+	private final ArrayDeque<Physical> idle = new ArrayDeque<>();	// Open but not borrowed
+	private final ArrayList<Physical> all = new ArrayList<>();		// Every connection opened
+	private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+	private volatile boolean closed = false;
+
+	// Prepared statement cache counters, shared by every connection in the pool
+	private final AtomicLong statementCacheHits = new AtomicLong();
+	private final AtomicLong statementCacheMisses = new AtomicLong();
+
+	/*
+	 * A real H2 connection and the statements cached on it.
+	 */
+	private static class Physical {
+		final Connection connection;
+		final StatementCache statements;
+		Physical(Connection connection, StatementCache statements) {
+			this.connection = connection;
+			this.statements = statements;
+		}
+	}
+
+	/*
+	 * The physical connection a thread is holding and how many handles it has open on it.
+	 */
+	private static class Lease {
+		final Physical physical;
+		int depth = 0;
+		Lease(Physical physical) { this.physical = physical; }
+	}
+
+	/*******
+	 * <p> Method: ConnectionPool(String, String, String, int) </p>
+	 *
+	 * @param url      The JDBC URL for every pooled connection
+	 * @param user     The database user
+	 * @param password The database password
+	 * @param maxSize  The most connections that may be open at once (at least 1)
+	 */
+	ConnectionPool(String url, String user, String password, int maxSize) {
+		this.url = url;
+		this.user = user;
+		this.password = password;
+		this.maxSize = Math.max(1, maxSize);
+		this.permits = new Semaphore(this.maxSize, true);
+	}
+
+	/*******
+	 * <p> Method: borrow() </p>
+	 *
+	 * <p> Description: Returns a connection handle for the calling thread. Closing the
+	 * handle returns the connection to the pool. Always use it in try-with-resources. </p>
+	 *
+	 * @return A connection handle
+	 * @throws SQLException if the pool is closed, exhausted for too long, or H2 refuses
+	 * 		a new connection (for example because another process holds the file lock)
+	 */
+	Connection borrow() throws SQLException {
+		if (closed) throw new SQLException("The connection pool has been closed.");
+
+		Lease lease = currentLease.get();
+		if (lease == null) {
+			try {
+				if (!permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+					throw new SQLException("Timed out waiting for a database connection.");
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted while waiting for a database connection.");
+			}
+			try {
+				lease = new Lease(takeIdleOrOpen());
+			} catch (SQLException e) {
+				permits.release();
+				throw e;
+			}
+			currentLease.set(lease);
+		}
+		lease.depth++;
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new Handle(lease));
+	}
+
+	/*******
+	 * <p> Method: getMaxSize() </p>
+	 *
+	 * @return The most connections this pool will open
+	 */
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	/*******
+	 * <p> Method: getStatementCacheHits() </p>
+	 *
+	 * @return How many prepareStatement() calls were answered from a statement cache
+	 */
+	long getStatementCacheHits() {
+		return statementCacheHits.get();
+	}
+
+	/*******
+	 * <p> Method: getStatementCacheMisses() </p>
+	 *
+	 * @return How many prepareStatement() calls had to be parsed by H2
+	 */
+	long getStatementCacheMisses() {
+		return statementCacheMisses.get();
+	}
+
+	/*******
+	 * <p> Method: close() </p>
+	 *
+	 * <p> Description: Closes every physical connection. Handles still borrowed fail on
+	 * their next use. </p>
+	 */
+	synchronized void close() {
+		closed = true;
+		for (Physical p : all) {
+			try {
+				p.connection.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		all.clear();
+		idle.clear();
+	}
+
+	private synchronized Physical takeIdleOrOpen() throws SQLException {
+		Physical p = idle.poll();
+		if (p != null && !p.connection.isClosed()) return p;
+		if (p != null) all.remove(p);
+		Connection c = DriverManager.getConnection(url, user, password);
+		p = new Physical(c, new StatementCache(c, StatementCache.DEFAULT_CAPACITY,
+				statementCacheHits, statementCacheMisses));
+		all.add(p);
+		return p;
+	}
+
+	private synchronized void giveBack(Physical physical) {
+		if (closed) return;
+		Connection c = physical.connection;
+		try {
+			// Never hand the next borrower a half-finished transaction
+			if (!c.getAutoCommit()) {
+				c.rollback();
+				c.setAutoCommit(true);
+			}
+			idle.push(physical);
+		} catch (SQLException e) {
+			all.remove(physical);
+			try { c.close(); } catch (SQLException ignored) {}
+		}
+	}
+
+	/*
+	 * The proxy behind each borrowed handle. close() releases this handle; everything else
+	 * goes straight to the physical connection.
+	 */
+	private class Handle implements InvocationHandler {
+		private final Lease lease;
+		private boolean released = false;
+
+		Handle(Lease lease) { this.lease = lease; }
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (!released) {
+						released = true;
+						if (--lease.depth == 0) {
+							currentLease.remove();
+							giveBack(lease.physical);
+							permits.release();
+						}
+					}
+					return null;
+				case "isClosed":
+					return released || lease.physical.connection.isClosed();
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "PooledConnection[" + lease.physical.connection + "]";
+				default:
+					if (released) throw new SQLException("Connection handle has been closed.");
+					// Only the plain prepareStatement(String) form is cached
+					if (method.getName().equals("prepareStatement") && args.length == 1)
+						return lease.physical.statements.prepare((String) args[0]);
+					try {
+						return method.invoke(lease.physical.connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+			}
+		}
+	}
+}
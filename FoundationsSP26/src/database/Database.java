@@ -2,15 +2,28 @@ package database;
 
 import java.sql.*;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
+import entityClasses.ActivityHistogram;
+import entityClasses.DiscussionStatistics;
 import entityClasses.User;
 import entityClasses.Post;
+import entityClasses.PostBadge;
+import entityClasses.PostSummary;
+import entityClasses.ThreadNode;
 
 /*******
  * <p> Title: Database Class.  </p>
@@ -41,6 +54,28 @@ import entityClasses.Post;
  * @version 3.00    2026-04-22    Added TP3 functionality for Staff Epics (Rule of 3 verification, 
  * 						Peak Activity parsing, Discussion stats, Instructor endorsements, 
  * 						and Unresolved questions).
+ * @version 3.01    2026-10-18    Added getPostBadges() to compute list badges in one query
+ * @version 3.02    2026-10-18    Replaced the shared Connection/Statement with a bounded pool
+ * @version 3.03    2026-10-18    Prepared statements are cached per pooled connection
+ * @version 3.04    2026-10-18    Added versioned schema migrations and secondary indexes
+ * @version 3.05    2026-10-18    searchPosts() uses a ranked in-memory inverted index
+ * @version 3.06    2026-10-18    Added keyset-paged variants of the post list queries
+ * @version 3.07    2026-10-18    Added findUserByUsername() for a single-query login
+ * @version 3.08    2026-10-18    Posts and reply lists are served from an invalidated LRU cache
+ * @version 3.09    2026-10-18    postDB keeps denormalized replyCount and lastActivityAt columns
+ * @version 3.10    2026-10-18    Read tracking uses per-thread watermarks instead of readStatusDB
+ * @version 3.11    2026-10-18    Added markThreadRead() to mark a whole thread read in one transaction
+ * @version 3.12    2026-10-18    Post timestamps are native TIMESTAMPs; added getActivityHistogram()
+ * @version 3.13    2026-10-18    Dashboard statistics are maintained incrementally by the post writes
+ * @version 3.14    2026-10-18    Added an n-gram author index for the staff author search
+ * @version 3.15    2026-10-18    Stored thread root pointer; threaded lists read by thread; added getThreadTrees()
+ * @version 3.16    2026-10-18    Added the periodically refreshed columnar PostSnapshot for staff reporting
+ * @version 3.17    2026-10-18    Added PostSummary list queries that leave out bodies and staff comments
+ * @version 3.18    2026-10-18    Added getSnapshotUnresolvedQuestions() for the staff board
+ * @version 3.19    2026-10-18    getThreadTrees() can read a page's threads already expanded
+ * @version 3.20    2026-10-18    Schema migrations are re-runnable and recorded atomically per version;
+ *                                malformed legacy timestamps are repaired before the TIMESTAMP change
+ * @version 3.21    2026-10-18    Every query closes its ResultSet with try-with-resources
  */
 
 /*
@@ -58,9 +93,39 @@ public class Database {
 	static final String USER = "sa"; 
 	static final String PASS = ""; 
 
+	// Connection pool settings. The pool size can be set by appending ";POOL_SIZE=n" to the
+	// URL given to Database(String); the setting is stripped before the URL reaches H2.
+	static final int DEFAULT_POOL_SIZE = 8;
+	static final String POOL_SIZE_SETTING = "POOL_SIZE";
+
 	//  Shared variables used within this class
-	private Connection connection = null;		// Singleton to access the database 
-	private Statement statement = null;			// The H2 Statement is used to construct queries
+	private ConnectionPool pool = null;			// Every operation borrows a connection from here
+	private int poolSize = DEFAULT_POOL_SIZE;
+
+	// Full-text index for searchPosts(), built on the first search and kept current by the
+	// post write methods. The writes hold postWriteLock, and so does the build, so a write
+	// cannot slip in mid-build.
+	static final int MAX_SEARCH_RESULTS = 500;
+	private volatile PostSearchIndex searchIndex = null;
+	private final Object postWriteLock = new Object();
+
+	// Username n-grams for findAuthors(), built and kept current the same way.
+	private volatile AuthorIndex authorIndex = null;
+
+	// Staff dashboard counters, seeded on the first getStatisticsSnapshot() and then kept
+	// current by the same write methods under postWriteLock; see StatisticsAggregator.
+	private volatile StatisticsAggregator statistics = null;
+
+	// Columnar copy of postDB for staff reporting, taken again once it is older than
+	// ANALYTICS_MAX_AGE_MILLIS; see PostSnapshot.
+	static final long ANALYTICS_MAX_AGE_MILLIS = 60_000;
+	private volatile PostSnapshot analyticsSnapshot = null;
+	private volatile long analyticsTakenNanos = 0;
+	private final Object analyticsLock = new Object();
+
+	// Read-through cache for getPostById() and getRepliesForPost(). Every post write below
+	// drops exactly the entries it affects; see PostCache.
+	private final PostCache postCache = new PostCache();
 	
 	// These are the easily accessible attributes of the currently logged-in user
 	// This is only useful for single user applications
@@ -93,10 +158,24 @@ public class Database {
     * TestStudentPosts.java to connect to a separate test database so tests never
     * touch live data. The standard constructor still uses the default URL. </p>
     *
+    * <p> The URL may end with ";POOL_SIZE=n" to bound the connection pool at n
+    * connections, e.g. "jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;POOL_SIZE=4". Without it the
+    * pool holds up to DEFAULT_POOL_SIZE connections. </p>
+    *
     * @param dbUrl The JDBC URL for the database to connect to
     */
 	public Database(String dbUrl) {
-	    this.DB_URL_OVERRIDE = dbUrl;
+	    StringBuilder h2Url = new StringBuilder();
+	    for (String part : dbUrl.split(";")) {
+	        String[] setting = part.split("=", 2);
+	        if (setting.length == 2 && setting[0].trim().equalsIgnoreCase(POOL_SIZE_SETTING)) {
+	            poolSize = Integer.parseInt(setting[1].trim());
+	        } else {
+	            if (h2Url.length() > 0) h2Url.append(';');
+	            h2Url.append(part);
+	        }
+	    }
+	    this.DB_URL_OVERRIDE = h2Url.toString();
 	}
 	
 	
@@ -104,7 +183,8 @@ public class Database {
  * <p> Method: connectToDatabase </p>
  * 
  * <p> Description: Used to establish the in-memory instance of the H2 database from secondary
- *		storage.</p>
+ *		storage.  The first call sets up the connection pool; calling it again (as the tests do
+ *		after dropping tables) reuses the pool and just recreates any missing tables.</p>
  *
  * @throws SQLException when the DriverManager is unable to establish a connection
  * 
@@ -112,13 +192,17 @@ public class Database {
 	public void connectToDatabase() throws SQLException {
 		try {
 			Class.forName(JDBC_DRIVER); // Load the JDBC driver
-			connection = DriverManager.getConnection(
-				    DB_URL_OVERRIDE != null ? DB_URL_OVERRIDE : DB_URL, USER, PASS);
-			statement = connection.createStatement(); 
+			if (pool == null)
+				pool = new ConnectionPool(
+					DB_URL_OVERRIDE != null ? DB_URL_OVERRIDE : DB_URL, USER, PASS, poolSize);
 			// You can use this command to clear the database and restart from fresh.
 			//statement.execute("DROP ALL OBJECTS");
 
-			createTables();  // Create the necessary tables if they don't exist
+			// Borrowing here opens the first connection, so a locked database file is
+			// reported now rather than on the first query
+			try (Connection conn = pool.borrow(); Statement statement = conn.createStatement()) {
+				createTables(statement);  // Create the necessary tables if they don't exist
+			}
 		} catch (ClassNotFoundException e) {
 			System.err.println("JDBC Driver not found: " + e.getMessage());
 		}
@@ -130,8 +214,9 @@ public class Database {
  * 
  * <p> Description: Used to create new instances of the two database tables used by this class.</p>
  * 
+ * @param statement a Statement on the borrowed connection used to run the DDL
  */
-	private void createTables() throws SQLException {
+	private void createTables(Statement statement) throws SQLException {
 		// Create the user database
 		String userTable = "CREATE TABLE IF NOT EXISTS userDB ("
 				+ "id INT AUTO_INCREMENT PRIMARY KEY, "
@@ -154,8 +239,8 @@ public class Database {
 	    		+ "emailAddress VARCHAR(255), "
 	            + "role VARCHAR(10))";
 	    statement.execute(invitationCodesTable);
-	    createPostsTable();
-	    createReadStatusTable();
+	    createPostsTable(statement);
+	    migrateSchema(statement);
 	}
 
 
@@ -169,7 +254,7 @@ public class Database {
  */
 	public boolean isDatabaseEmpty() {
 		String query = "SELECT COUNT(*) AS count FROM userDB";
-		try {
+		try (Connection conn = pool.borrow(); Statement statement = conn.createStatement()) {
 			ResultSet resultSet = statement.executeQuery(query);
 			if (resultSet.next()) {
 				return resultSet.getInt("count") == 0;
@@ -191,7 +276,7 @@ public class Database {
  */
 	public int getNumberOfUsers() {
 		String query = "SELECT COUNT(*) AS count FROM userDB";
-		try {
+		try (Connection conn = pool.borrow(); Statement statement = conn.createStatement()) {
 			ResultSet resultSet = statement.executeQuery(query);
 			if (resultSet.next()) {
 				return resultSet.getInt("count");
@@ -216,7 +301,8 @@ public class Database {
 		String insertUser = "INSERT INTO userDB (userName, password, firstName, middleName, "
 				+ "lastName, preferredFirstName, emailAddress, adminRole, newRole1, newRole2, isOTP) "
 				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(insertUser)) {
 			currentUsername = user.getUserName();
 			pstmt.setString(1, currentUsername);
 			
@@ -266,10 +352,12 @@ public class Database {
 		List<String> userList = new ArrayList<String>();
 		userList.add("<Select a User>");
 		String query = "SELECT userName FROM userDB";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				userList.add(rs.getString("userName"));
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					userList.add(rs.getString("userName"));
+				}
 			}
 		} catch (SQLException e) {
 	        return null;
@@ -293,11 +381,13 @@ public class Database {
 		// Validates an admin user's login credentials so the user can login in as an Admin.
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "adminRole = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
-			ResultSet rs = pstmt.executeQuery();
-			return rs.next();	// If a row is returned, rs.next() will return true		
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next();	// If a row is returned, rs.next() will return true		
+			}
 		} catch  (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -320,11 +410,13 @@ public class Database {
 		// Validates a student user's login credentials.
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "newRole1 = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
-			ResultSet rs = pstmt.executeQuery();
-			return rs.next();
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next();
+			}
 		} catch  (SQLException e) {
 		       e.printStackTrace();
 		}
@@ -346,11 +438,13 @@ public class Database {
 	public boolean loginRole2(User user) {
 		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
 				+ "newRole2 = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
-			ResultSet rs = pstmt.executeQuery();
-			return rs.next();
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next();
+			}
 		} catch  (SQLException e) {
 		       e.printStackTrace();
 		}
@@ -371,14 +465,16 @@ public class Database {
 	// Checks if a user already exists in the database based on their userName.
 	public boolean doesUserExist(String userName) {
 	    String query = "SELECT COUNT(*) FROM userDB WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        
 	        pstmt.setString(1, userName);
-	        ResultSet rs = pstmt.executeQuery();
+	        try (ResultSet rs = pstmt.executeQuery()) {
 	        
-	        if (rs.next()) {
-	            // If the count is greater than 0, the user exists
-	            return rs.getInt(1) > 0;
+	            if (rs.next()) {
+	                // If the count is greater than 0, the user exists
+	                return rs.getInt(1) > 0;
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -427,7 +523,8 @@ public class Database {
 	    String code = UUID.randomUUID().toString().substring(0, 6); // Generate a random 6-character code
 	    String query = "INSERT INTO InvitationCodes (code, emailaddress, role) VALUES (?, ?, ?)";
 
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 	        pstmt.setString(2, emailAddress);
 	        pstmt.setString(3, role);
@@ -450,7 +547,7 @@ public class Database {
 	// Number of invitations in the database
 	public int getNumberOfInvitations() {
 		String query = "SELECT COUNT(*) AS count FROM InvitationCodes";
-		try {
+		try (Connection conn = pool.borrow(); Statement statement = conn.createStatement()) {
 			ResultSet resultSet = statement.executeQuery(query);
 			if (resultSet.next()) {
 				return resultSet.getInt("count");
@@ -475,13 +572,15 @@ public class Database {
 	// Check to see if an email address is already in the database
 	public boolean emailaddressHasBeenUsed(String emailAddress) {
 	    String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE emailAddress = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, emailAddress);
-	        ResultSet rs = pstmt.executeQuery();
-	 //     System.out.println(rs);
-	        if (rs.next()) {
-	            // Mark the code as used
-	        	return rs.getInt("count")>0;
+	        try (ResultSet rs = pstmt.executeQuery()) {
+    	 //     System.out.println(rs);
+	            if (rs.next()) {
+	                // Mark the code as used
+	            	return rs.getInt("count")>0;
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -503,11 +602,13 @@ public class Database {
 	// Obtain the roles associated with an invitation code.
 	public String getRoleGivenAnInvitationCode(String code) {
 	    String query = "SELECT * FROM InvitationCodes WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
-	        ResultSet rs = pstmt.executeQuery();
-	        if (rs.next()) {
-	            return rs.getString("role");
+	        try (ResultSet rs = pstmt.executeQuery()) {
+	            if (rs.next()) {
+	                return rs.getString("role");
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -529,11 +630,13 @@ public class Database {
 	// For a given invitation code, return the associated email address of an empty string
 	public String getEmailAddressUsingCode (String code ) {
 	    String query = "SELECT emailAddress FROM InvitationCodes WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
-	        ResultSet rs = pstmt.executeQuery();
-	        if (rs.next()) {
-	            return rs.getString("emailAddress");
+	        try (ResultSet rs = pstmt.executeQuery()) {
+	            if (rs.next()) {
+	                return rs.getString("emailAddress");
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -553,21 +656,23 @@ public class Database {
 	// Remove an invitation using an email address once the user account has been setup
 	public void removeInvitationAfterUse(String code) {
 	    String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
-	        ResultSet rs = pstmt.executeQuery();
-	        if (rs.next()) {
-	        	int counter = rs.getInt(1);
-	            // Only do the remove if the code is still in the invitation table
-	        	if (counter > 0) {
-        			query = "DELETE FROM InvitationCodes WHERE code = ?";
-	        		try (PreparedStatement pstmt2 = connection.prepareStatement(query)) {
-	        			pstmt2.setString(1, code);
-	        			pstmt2.executeUpdate();
-	        		}catch (SQLException e) {
-	        	        e.printStackTrace();
-	        	    }
-	        	}
+	        try (ResultSet rs = pstmt.executeQuery()) {
+	            if (rs.next()) {
+	            	int counter = rs.getInt(1);
+	                // Only do the remove if the code is still in the invitation table
+	            	if (counter > 0) {
+            			query = "DELETE FROM InvitationCodes WHERE code = ?";
+	            		try (PreparedStatement pstmt2 = conn.prepareStatement(query)) {
+	            			pstmt2.setString(1, code);
+	            			pstmt2.executeUpdate();
+	            		}catch (SQLException e) {
+	            	        e.printStackTrace();
+	            	    }
+	            	}
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -589,14 +694,16 @@ public class Database {
 	// Get the First Name
 	public String getFirstName(String username) {
 		String query = "SELECT firstName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
+	        try (ResultSet rs = pstmt.executeQuery()) {
 	        
-	        if (rs.next()) {
-	            return rs.getString("firstName"); // Return the first name if user exists
-	        }
+	            if (rs.next()) {
+	                return rs.getString("firstName"); // Return the first name if user exists
+	            }
 			
+	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -618,7 +725,8 @@ public class Database {
 	// update the first name
 	public void updateFirstName(String username, String firstName) {
 	    String query = "UPDATE userDB SET firstName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, firstName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
@@ -642,12 +750,14 @@ public class Database {
 	// get the middle name
 	public String getMiddleName(String username) {
 		String query = "SELECT MiddleName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
+	        try (ResultSet rs = pstmt.executeQuery()) {
 	        
-	        if (rs.next()) {
-	            return rs.getString("middleName"); // Return the middle name if user exists
+	            if (rs.next()) {
+	                return rs.getString("middleName"); // Return the middle name if user exists
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -670,7 +780,8 @@ public class Database {
 	// update the middle name
 	public void updateMiddleName(String username, String middleName) {
 	    String query = "UPDATE userDB SET middleName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, middleName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
@@ -694,12 +805,14 @@ public class Database {
 	// get he last name
 	public String getLastName(String username) {
 		String query = "SELECT LastName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
+	        try (ResultSet rs = pstmt.executeQuery()) {
 	        
-	        if (rs.next()) {
-	            return rs.getString("lastName"); // Return last name role if user exists
+	            if (rs.next()) {
+	                return rs.getString("lastName"); // Return last name role if user exists
+	            }
 	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
@@ -722,7 +835,8 @@ public class Database {
 	// update the last name
 	public void updateLastName(String username, String lastName) {
 	    String query = "UPDATE userDB SET lastName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, lastName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
@@ -746,14 +860,16 @@ public class Database {
 	// get the preferred first name
 	public String getPreferredFirstName(String username) {
 		String query = "SELECT preferredFirstName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
+	        try (ResultSet rs = pstmt.executeQuery()) {
 	        
-	        if (rs.next()) {
-	            return rs.getString("firstName"); // Return the preferred first name if user exists
-	        }
+	            if (rs.next()) {
+	                return rs.getString("firstName"); // Return the preferred first name if user exists
+	            }
 			
+	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -775,7 +891,8 @@ public class Database {
 	// update the preferred first name of the user
 	public void updatePreferredFirstName(String username, String preferredFirstName) {
 	    String query = "UPDATE userDB SET preferredFirstName = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, preferredFirstName);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
@@ -799,14 +916,16 @@ public class Database {
 	// get the email address
 	public String getEmailAddress(String username) {
 		String query = "SELECT emailAddress FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();
+	        try (ResultSet rs = pstmt.executeQuery()) {
 	        
-	        if (rs.next()) {
-	            return rs.getString("emailAddress"); // Return the email address if user exists
-	        }
+	            if (rs.next()) {
+	                return rs.getString("emailAddress"); // Return the email address if user exists
+	            }
 			
+	        }
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -828,7 +947,8 @@ public class Database {
 	// update the email address
 	public void updateEmailAddress(String username, String emailAddress) {
 	    String query = "UPDATE userDB SET emailAddress = ? WHERE username = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = pool.borrow();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, emailAddress);
 	        pstmt.setString(2, username);
 	        pstmt.executeUpdate();
@@ -852,21 +972,23 @@ public class Database {
 	// get the attributes for a specified user
 	public boolean getUserAccountDetails(String username) {
 		String query = "SELECT * FROM userDB WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
-	        ResultSet rs = pstmt.executeQuery();			
-			rs.next();
-	    	currentUsername = rs.getString(2);
-	    	currentPassword = rs.getString(3);
-	    	currentFirstName = rs.getString(4);
-	    	currentMiddleName = rs.getString(5);
-	    	currentLastName = rs.getString(6);
-	    	currentPreferredFirstName = rs.getString(7);
-	    	currentEmailAddress = rs.getString(8);
-	    	currentAdminRole = rs.getBoolean(9);
-	    	currentNewRole1 = rs.getBoolean(10);
-	    	currentNewRole2 = rs.getBoolean(11);
-			return true;
+	        try (ResultSet rs = pstmt.executeQuery()) {
+    			rs.next();
+    	    	currentUsername = rs.getString(2);
+    	    	currentPassword = rs.getString(3);
+    	    	currentFirstName = rs.getString(4);
+    	    	currentMiddleName = rs.getString(5);
+    	    	currentLastName = rs.getString(6);
+    	    	currentPreferredFirstName = rs.getString(7);
+    	    	currentEmailAddress = rs.getString(8);
+    	    	currentAdminRole = rs.getBoolean(9);
+    	    	currentNewRole1 = rs.getBoolean(10);
+    	    	currentNewRole2 = rs.getBoolean(11);
+    			return true;
+	        }
 	    } catch (SQLException e) {
 			return false;
 	    }
@@ -892,7 +1014,8 @@ public class Database {
 	public boolean updateUserRole(String username, String role, String value) {
 		if (role.compareTo("Admin") == 0) {
 			String query = "UPDATE userDB SET adminRole = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+			try (Connection conn = pool.borrow();
+			     PreparedStatement pstmt = conn.prepareStatement(query)) {
 				pstmt.setString(1, value);
 				pstmt.setString(2, username);
 				pstmt.executeUpdate();
@@ -907,7 +1030,8 @@ public class Database {
 		}
 		if (role.compareTo("Role1") == 0) {
 			String query = "UPDATE userDB SET newRole1 = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+			try (Connection conn = pool.borrow();
+			     PreparedStatement pstmt = conn.prepareStatement(query)) {
 				pstmt.setString(1, value);
 				pstmt.setString(2, username);
 				pstmt.executeUpdate();
@@ -922,7 +1046,8 @@ public class Database {
 		}
 		if (role.compareTo("Role2") == 0) {
 			String query = "UPDATE userDB SET newRole2 = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+			try (Connection conn = pool.borrow();
+			     PreparedStatement pstmt = conn.prepareStatement(query)) {
 				pstmt.setString(1, value);
 				pstmt.setString(2, username);
 				pstmt.executeUpdate();
@@ -1061,6 +1186,7 @@ public class Database {
 	// Dumps the database.
 	public void dump() throws SQLException {
 		String query = "SELECT * FROM userDB";
+		try (Connection conn = pool.borrow(); Statement statement = conn.createStatement()) {
 		ResultSet resultSet = statement.executeQuery(query);
 		ResultSetMetaData meta = resultSet.getMetaData();
 		while (resultSet.next()) {
@@ -1072,6 +1198,7 @@ public class Database {
 		System.out.println();
 		}
 		resultSet.close();
+		}
 	}
 
 	
@@ -1086,30 +1213,65 @@ public class Database {
 	public java.util.ArrayList<User> getAllUsers() {
 		java.util.ArrayList<User> list = new java.util.ArrayList<>();
 		String query = "SELECT * FROM userDB";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				// Create User object from DB row
-				User u = new User(
-					rs.getString("userName"),
-					rs.getString("password"),
-					rs.getString("firstName"),
-					rs.getString("middleName"),
-					rs.getString("lastName"),
-					rs.getString("preferredFirstName"),
-					rs.getString("emailAddress"),
-					rs.getBoolean("adminRole"),
-					rs.getBoolean("newRole1"), // Role1 (Student)
-					rs.getBoolean("newRole2"),  // Role2 (Staff)
-					rs.getBoolean("isOTP")
-				);
-				list.add(u);
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					list.add(readUser(rs));
+				}
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
 		return list;
 	}
+
+
+	/*******
+	 * <p> Method: User findUserByUsername(String username) </p>
+	 * 
+	 * <p> Description: Fetch one user, with every attribute and role, by username. The
+	 * userName column is UNIQUE, so this is a single lookup on its index rather than a scan of
+	 * getAllUsers(). Unlike getUserAccountDetails() it does not change the "current user"
+	 * fields, so it is safe to call from any thread. </p>
+	 * 
+	 * @param username is the username of the user
+	 * 
+	 * @return the User, or null if there is no such user or the query fails
+	 */
+	public User findUserByUsername(String username) {
+		String query = "SELECT * FROM userDB WHERE userName = ?";
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
+			pstmt.setString(1, username);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				if (rs.next()) return readUser(rs);
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+
+	/*
+	 * Builds a User from the current row of a "SELECT * FROM userDB" result.
+	 */
+	private static User readUser(ResultSet rs) throws SQLException {
+		return new User(
+			rs.getString("userName"),
+			rs.getString("password"),
+			rs.getString("firstName"),
+			rs.getString("middleName"),
+			rs.getString("lastName"),
+			rs.getString("preferredFirstName"),
+			rs.getString("emailAddress"),
+			rs.getBoolean("adminRole"),
+			rs.getBoolean("newRole1"), // Role1 (Student)
+			rs.getBoolean("newRole2"),  // Role2 (Staff)
+			rs.getBoolean("isOTP")
+		);
+	}
 	
 	
 	/*******
@@ -1121,7 +1283,8 @@ public class Database {
 	 */
 	public void deleteUser(String username) {
 		String query = "DELETE FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
 			pstmt.executeUpdate();
 		} catch (SQLException e) {
@@ -1140,7 +1303,8 @@ public class Database {
 	 */
 	public void resetPassword(String username, String tempPassword) {
 		String query = "UPDATE userDB SET password = ?, isOTP = TRUE WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, tempPassword);
 			pstmt.setString(2, username);
 			pstmt.executeUpdate();
@@ -1157,7 +1321,8 @@ public class Database {
 	public void updatePassword(String username, String newPassword) {
 		// CRITICAL: We also set isOTP = FALSE because the user has now fixed it.
 		String query = "UPDATE userDB SET password = ?, isOTP = FALSE WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = pool.borrow();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, newPassword);
 			pstmt.setString(2, username);
 			pstmt.executeUpdate();
@@ -1171,21 +1336,19 @@ public class Database {
 	/*******
 	 * <p> Method: void closeConnection()</p>
 	 * 
-	 * <p> Description: Closes the database statement and connection.</p>
+	 * <p> Description: Closes every pooled connection. A later connectToDatabase() call
+	 * starts a fresh pool.</p>
 	 * 
 	 */
-	// Closes the database statement and connection.
+	// Closes the database connection pool.
 	public void closeConnection() {
-		try{ 
-			if(statement!=null) statement.close(); 
-		} catch(SQLException se2) { 
-			se2.printStackTrace();
-		} 
-		try { 
-			if(connection!=null) connection.close(); 
-		} catch(SQLException se){ 
-			se.printStackTrace(); 
-		} 
+		if (pool != null) pool.close();
+		pool = null;
+		searchIndex = null;
+		authorIndex = null;
+		statistics = null;
+		analyticsSnapshot = null;
+		postCache.clear();
 	}
 	
 	// ==================================================================================
@@ -1204,16 +1367,17 @@ public class Database {
      * a previous run without those columns. Safe to run repeatedly — IF NOT EXISTS / IF
      * COLUMN EXISTS guards prevent errors. </p>
      *
+     * @param statement A Statement on the borrowed connection used to run the DDL
      * @throws SQLException if table creation fails
      */
-    private void createPostsTable() throws SQLException {
+    private void createPostsTable(Statement statement) throws SQLException {
         // Create the table if it's brand new
         String postTable = "CREATE TABLE IF NOT EXISTS postDB ("
                 + "id INT AUTO_INCREMENT PRIMARY KEY, "
                 + "title VARCHAR(200) NOT NULL, "
                 + "body VARCHAR(4000) NOT NULL, "
                 + "authorUsername VARCHAR(255) NOT NULL, "
-                + "timestamp VARCHAR(30) NOT NULL, "
+                + "timestamp VARCHAR(30) NOT NULL, "         // TIMESTAMP from schema version 4
                 + "postType VARCHAR(20) NOT NULL DEFAULT 'QUESTION', "
                 + "thread VARCHAR(100) DEFAULT 'General', "
                 + "parentPostId INT DEFAULT -1, "           // -1 = top-level thread
@@ -1234,14 +1398,14 @@ public class Database {
 
     /*******
      * <p> Method: createReadStatusTable </p>
-     * <p> Description: Creates the readStatusDB table that tracks which posts each user
-     * has read. A post is "unread" for a user if no row exists for (username, postId).
-     * When a student clicks on a post, we insert a row to mark it read.
-     * Called from createTables() at startup. </p>
+     * <p> Description: Creates the legacy readStatusDB table, which kept one row for every
+     * post each user had read. Migration 3 converts those rows into read watermarks and
+     * drops the table, so migrateSchema() only creates it for a database older than that. </p>
      *
+     * @param statement A Statement on the borrowed connection used to run the DDL
      * @throws SQLException if table creation fails
      */
-    private void createReadStatusTable() throws SQLException {
+    private void createReadStatusTable(Statement statement) throws SQLException {
         // Composite primary key prevents duplicate read entries for the same user+post
         String readTable = "CREATE TABLE IF NOT EXISTS readStatusDB ("
                 + "username VARCHAR(255) NOT NULL, "
@@ -1251,6 +1415,271 @@ public class Database {
     }
 
 
+    // Reply count and latest activity of post p, recomputed from its replies r. Used by the
+    // counter repair job and by the write paths that add or remove a reply.
+    private static final String COUNTED_REPLIES =
+            "(SELECT COUNT(*) FROM postDB r WHERE r.parentPostId = p.id)";
+    private static final String LATEST_ACTIVITY = "GREATEST(p.timestamp, COALESCE("
+            + "(SELECT MAX(r.timestamp) FROM postDB r WHERE r.parentPostId = p.id), p.timestamp))";
+    private static final String REBUILD_POST_COUNTERS = "UPDATE postDB p SET replyCount = "
+            + COUNTED_REPLIES + ", lastActivityAt = " + LATEST_ACTIVITY + " WHERE replyCount <> "
+            + COUNTED_REPLIES + " OR lastActivityAt IS DISTINCT FROM " + LATEST_ACTIVITY;
+
+
+    /*
+     * Schema migrations, applied in order. Entry i brings the post tables from version i to
+     * version i + 1. Only ever append to this list - a database that has already run a step
+     * records it in schemaVersion and never runs it again. H2 commits every DDL statement on
+     * its own, so a version that fails part way cannot be rolled back as a whole; each step
+     * must therefore be safe to run again on a database where it already ran.
+     */
+    private static final MigrationStep[][] SCHEMA_MIGRATIONS = {
+        // Version 1: secondary indexes for the hot lookups, which all full-scanned postDB.
+        // (parentPostId, id) serves the top-level list, getRepliesForPost() and the reply
+        // counts; (authorUsername, parentPostId) serves getPostsByAuthor() and the
+        // RuleOfThreeVerifier self-join; (postType, isDeleted) serves the unresolved and
+        // statistics queries. readStatusDB is keyed (username, postId), which covers a check
+        // for one user and post; (postId, username) covers lookups that only know the post.
+        {
+            sql("CREATE INDEX IF NOT EXISTS idx_post_parent ON postDB (parentPostId, id)"),
+            sql("CREATE INDEX IF NOT EXISTS idx_post_author ON postDB (authorUsername, parentPostId)"),
+            sql("CREATE INDEX IF NOT EXISTS idx_post_type ON postDB (postType, isDeleted)"),
+            sql("CREATE INDEX IF NOT EXISTS idx_read_post ON readStatusDB (postId, username)")
+        },
+        // Version 2: denormalized reply counters. replyCount is the number of rows whose
+        // parentPostId is this post (soft-deleted replies included, as they stay listed) and
+        // lastActivityAt is the newest timestamp among the post and its replies. The write
+        // paths keep both up to date; existing rows are backfilled here.
+        {
+            sql("ALTER TABLE postDB ADD COLUMN IF NOT EXISTS replyCount INT DEFAULT 0 NOT NULL"),
+            sql("ALTER TABLE postDB ADD COLUMN IF NOT EXISTS lastActivityAt VARCHAR(30)"),
+            sql(REBUILD_POST_COUNTERS)
+        },
+        // Version 3: read watermarks replace the row-per-post readStatusDB. For each user and
+        // thread, readWatermarkDB records whether the thread post itself was read, the reply
+        // id up to which every reply has been read, and how many replies are read in total.
+        // readExceptionDB holds the few replies read out of order above the watermark. The
+        // conversion takes the longest fully read run of replies as the watermark and keeps
+        // the rest as exceptions.
+        {
+            sql("CREATE TABLE IF NOT EXISTS readWatermarkDB ("
+                    + "username VARCHAR(255) NOT NULL, "
+                    + "threadId INT NOT NULL, "
+                    + "postRead BOOL DEFAULT FALSE NOT NULL, "
+                    + "lastReadReplyId INT DEFAULT 0 NOT NULL, "
+                    + "readReplyCount INT DEFAULT 0 NOT NULL, "
+                    + "PRIMARY KEY (username, threadId))"),
+            sql("CREATE TABLE IF NOT EXISTS readExceptionDB ("
+                    + "username VARCHAR(255) NOT NULL, "
+                    + "postId INT NOT NULL, "
+                    + "threadId INT NOT NULL, "
+                    + "PRIMARY KEY (username, postId))"),
+            sql("CREATE INDEX IF NOT EXISTS idx_read_watermark_thread ON readWatermarkDB (threadId)"),
+            sql("CREATE INDEX IF NOT EXISTS idx_read_exception_thread ON readExceptionDB (username, threadId, postId)"),
+            sql("CREATE INDEX IF NOT EXISTS idx_read_exception_post ON readExceptionDB (postId)"),
+            sql("MERGE INTO readWatermarkDB (username, threadId, postRead) "
+                    + "KEY (username, threadId) "
+                    + "SELECT s.username, s.postId, TRUE FROM readStatusDB s "
+                    + "JOIN postDB p ON p.id = s.postId WHERE p.parentPostId = -1"),
+            sql("MERGE INTO readWatermarkDB (username, threadId, lastReadReplyId, readReplyCount) "
+                    + "KEY (username, threadId) "
+                    + "SELECT u.username, u.threadId, COALESCE((SELECT MAX(r.id) FROM postDB r "
+                    + "WHERE r.parentPostId = u.threadId AND r.id < COALESCE((SELECT MIN(x.id) "
+                    + "FROM postDB x WHERE x.parentPostId = u.threadId AND NOT EXISTS (SELECT 1 "
+                    + "FROM readStatusDB s WHERE s.username = u.username AND s.postId = x.id)), "
+                    + Integer.MAX_VALUE + ")), 0), u.readCount "
+                    + "FROM (SELECT s.username, p.parentPostId AS threadId, COUNT(*) AS readCount "
+                    + "FROM readStatusDB s JOIN postDB p ON p.id = s.postId "
+                    + "WHERE p.parentPostId <> -1 GROUP BY s.username, p.parentPostId) u"),
+            sql("MERGE INTO readExceptionDB (username, postId, threadId) "
+                    + "KEY (username, postId) "
+                    + "SELECT s.username, s.postId, p.parentPostId FROM readStatusDB s "
+                    + "JOIN postDB p ON p.id = s.postId "
+                    + "JOIN readWatermarkDB w ON w.username = s.username AND w.threadId = p.parentPostId "
+                    + "WHERE p.parentPostId <> -1 AND s.postId > w.lastReadReplyId"),
+            sql("DROP TABLE IF EXISTS readStatusDB")
+        },
+        // Version 4: timestamp and lastActivityAt become native TIMESTAMPs, so the dashboard
+        // can group and range-filter in SQL. Post still carries the "yyyy-MM-dd HH:mm:ss"
+        // text, which H2 converts on the way in and out. (isDeleted, timestamp) covers the
+        // activity histogram query. Legacy rows whose text does not parse are repaired first,
+        // as a single one would make the ALTER fail.
+        {
+            Database::repairLegacyTimestamps,
+            sql(REBUILD_POST_COUNTERS),
+            sql("ALTER TABLE postDB ALTER COLUMN timestamp SET DATA TYPE TIMESTAMP(0)"),
+            sql("ALTER TABLE postDB ALTER COLUMN lastActivityAt SET DATA TYPE TIMESTAMP(0)"),
+            sql("CREATE INDEX IF NOT EXISTS idx_post_activity ON postDB (isDeleted, timestamp)")
+        },
+        // Version 5: a stored thread pointer. rootPostId is the id of the top-level post a
+        // post's thread starts from - its own id for a top-level post - followed up through
+        // nested replies. Replies whose parent was hard-deleted keep the parent's id, as the
+        // threaded lists did before. (rootPostId, id) lists a thread, or a run of threads,
+        // in board order straight from the index, with no sort.
+        {
+            sql("ALTER TABLE postDB ADD COLUMN IF NOT EXISTS rootPostId INT"),
+            sql("UPDATE postDB SET rootPostId = CASE WHEN parentPostId = -1 THEN id ELSE parentPostId END"),
+            sql("MERGE INTO postDB p USING (WITH RECURSIVE chain(id, rootId) AS ("
+                    + "SELECT id, rootPostId FROM postDB "
+                    + "WHERE parentPostId = -1 OR parentPostId NOT IN (SELECT id FROM postDB) "
+                    + "UNION ALL SELECT c.id, chain.rootId FROM postDB c JOIN chain ON c.parentPostId = chain.id) "
+                    + "SELECT id, rootId FROM chain) r ON p.id = r.id "
+                    + "WHEN MATCHED AND p.rootPostId <> r.rootId THEN UPDATE SET rootPostId = r.rootId"),
+            sql("ALTER TABLE postDB ALTER COLUMN rootPostId SET NOT NULL"),
+            sql("CREATE INDEX IF NOT EXISTS idx_post_root ON postDB (rootPostId, id)")
+        }
+    };
+
+    // The schema version whose migration converted readStatusDB
+    private static final int READ_WATERMARK_VERSION = 3;
+
+    // One step of a schema migration, run on the migrating connection
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Statement statement) throws SQLException;
+    }
+
+    // A migration step that runs one SQL statement
+    private static MigrationStep sql(String step) {
+        return statement -> statement.execute(step);
+    }
+
+    // Timestamp layouts found in legacy rows, tried in order before a row is given up on
+    private static final DateTimeFormatter[] LEGACY_TIMESTAMP_FORMATS = {
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME
+    };
+
+
+    /*******
+     * <p> Method: repairLegacyTimestamps </p>
+     * <p> Description: Rewrites every post timestamp into the "yyyy-MM-dd HH:mm:ss" form
+     * that the TIMESTAMP(0) conversion accepts. Rows written in another common layout are
+     * converted; a row whose text cannot be read at all takes the timestamp of the post
+     * before it in id order (or after it, for the first posts), so it keeps its place in
+     * the board. Only rows that change are written, so running it again does nothing. </p>
+     *
+     * @param statement A Statement on the migrating connection
+     * @throws SQLException if the posts cannot be read or updated
+     */
+    private static void repairLegacyTimestamps(Statement statement) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        List<String> stored = new ArrayList<>();
+        List<LocalDateTime> parsed = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery("SELECT id, timestamp FROM postDB ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+                stored.add(rs.getString(2));
+                parsed.add(parseLegacyTimestamp(rs.getString(2)));
+            }
+        }
+        LocalDateTime fallback = null;
+        for (LocalDateTime time : parsed)
+            if (time != null) { fallback = time; break; }
+        if (fallback == null) fallback = LocalDateTime.now();
+
+        DateTimeFormatter canonical = LEGACY_TIMESTAMP_FORMATS[0];
+        try (PreparedStatement update = statement.getConnection()
+                .prepareStatement("UPDATE postDB SET timestamp = ? WHERE id = ?")) {
+            int pending = 0;
+            for (int i = 0; i < ids.size(); i++) {
+                LocalDateTime time = parsed.get(i);
+                if (time == null) time = fallback;
+                fallback = time;
+                String text = canonical.format(time);
+                if (text.equals(stored.get(i))) continue;
+                update.setString(1, text);
+                update.setInt(2, ids.get(i));
+                update.addBatch();
+                pending++;
+            }
+            if (pending > 0) update.executeBatch();
+        }
+    }
+
+
+    // Parses one legacy timestamp, or returns null if it is in no known layout
+    private static LocalDateTime parseLegacyTimestamp(String text) {
+        if (text == null) return null;
+        String trimmed = text.trim();
+        for (DateTimeFormatter format : LEGACY_TIMESTAMP_FORMATS) {
+            try {
+                return LocalDateTime.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // try the next layout
+            }
+        }
+        try {
+            return LocalDate.parse(trimmed).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+
+    /*******
+     * <p> Method: migrateSchema </p>
+     * <p> Description: Brings the post tables up to the latest schema version. The current
+     * version is kept in a one-column schemaVersion table; every migration newer than it is
+     * run in order. Each version runs as one transaction that ends with its schemaVersion
+     * row, so a version is only recorded together with the data changes that complete it,
+     * and a failed version is rolled back and run again from the start on the next
+     * connect. Called from createTables() after the tables exist, so a brand-new database
+     * runs every step and an up-to-date one runs none. </p>
+     *
+     * @param statement A Statement on the borrowed connection used to run the DDL
+     * @throws SQLException if a migration step fails
+     */
+    private void migrateSchema(Statement statement) throws SQLException {
+        statement.execute("CREATE TABLE IF NOT EXISTS schemaVersion (version INT NOT NULL)");
+        int current = 0;
+        try (ResultSet rs = statement.executeQuery("SELECT MAX(version) FROM schemaVersion")) {
+            if (rs.next()) current = rs.getInt(1);
+        }
+        // The legacy read table only has to exist until migration 3 has converted it
+        if (current < READ_WATERMARK_VERSION) createReadStatusTable(statement);
+        Connection conn = statement.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (int version = current + 1; version <= SCHEMA_MIGRATIONS.length; version++) {
+                try {
+                    for (MigrationStep step : SCHEMA_MIGRATIONS[version - 1])
+                        step.apply(statement);
+                    statement.execute("INSERT INTO schemaVersion (version) SELECT " + version
+                            + " WHERE NOT EXISTS (SELECT 1 FROM schemaVersion WHERE version = " + version + ")");
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+
+    /*******
+     * <p> Method: getSchemaVersion() </p>
+     * <p> Description: Returns the schema version the post tables have been migrated to. </p>
+     *
+     * @return The latest applied migration, or 0 if none have run
+     */
+    public int getSchemaVersion() {
+        String query = "SELECT MAX(version) FROM schemaVersion";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) return rs.getInt(1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+
     /*******
      * <p> Method: createPost(Post) </p>
      * <p> Description: Inserts a new post into postDB. The Create part of CRUD.
@@ -1261,11 +1690,16 @@ public class Database {
      * @throws SQLException if the insert fails
      */
     public void createPost(Post post) throws SQLException {
+        // A reply takes its parent's root; a top-level post gets -1 here and its own id below
         String insertPost = "INSERT INTO postDB "
                 + "(title, body, authorUsername, timestamp, postType, thread, parentPostId, "
-                + "isResolved, isDeleted, isInstructorEndorsed, staffComment) "
-                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(insertPost)) {
+                + "isResolved, isDeleted, isInstructorEndorsed, staffComment, lastActivityAt, rootPostId) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+                + "(SELECT COALESCE(MAX(rootPostId), ?) FROM postDB WHERE id = ?))";
+        String setRoot = "UPDATE postDB SET rootPostId = id WHERE id = ?";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(insertPost, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement rootStmt = conn.prepareStatement(setRoot)) {
             pstmt.setString(1, post.getTitle());
             pstmt.setString(2, post.getBody());
             pstmt.setString(3, post.getAuthorUsername());
@@ -1277,11 +1711,108 @@ public class Database {
             pstmt.setBoolean(9, post.isDeleted());
             pstmt.setBoolean(10, post.isInstructorEndorsed());
             pstmt.setString(11, post.getStaffComment());
+            pstmt.setString(12, post.getTimestamp());
+            pstmt.setInt(13, post.getParentPostId());
+            pstmt.setInt(14, post.getParentPostId());
+            // A reply and its parent's counters are written in one transaction
+            conn.setAutoCommit(false);
+            try {
+                synchronized (postWriteLock) {
+                    StatisticsAggregator stats = statistics;
+                    boolean isReply = post.getParentPostId() != Post.NO_PARENT;
+                    StatisticsAggregator.Facts parentBefore =
+                            isReply ? trackedFacts(conn, stats, post.getParentPostId()) : null;
+                    pstmt.executeUpdate();
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    int newId = keys.next() ? keys.getInt(1) : -1;
+                    if (isReply) {
+                        adjustReplyCounters(conn, post.getParentPostId(), 1);
+                    } else {
+                        rootStmt.setInt(1, newId);
+                        rootStmt.executeUpdate();
+                    }
+                    StatisticsAggregator.Facts created = trackedFacts(conn, stats, newId);
+                    StatisticsAggregator.Facts parentAfter =
+                            isReply ? trackedFacts(conn, stats, post.getParentPostId()) : null;
+                    conn.commit();
+                    if (searchIndex != null && !isReply && !post.isDeleted() && newId != -1)
+                        searchIndex.add(newId, post.getTitle(), post.getBody());
+                    if (authorIndex != null) authorIndex.add(post.getAuthorUsername());
+                    if (stats != null) {
+                        stats.replace(null, created);
+                        stats.replace(parentBefore, parentAfter);
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            if (post.getParentPostId() != Post.NO_PARENT) postCache.invalidateReplies(post.getParentPostId());
+        }
+    }
+
+
+    /*******
+     * <p> Method: adjustReplyCounters(Connection, int, int) </p>
+     * <p> Description: Adds delta to a post's replyCount and recomputes its lastActivityAt
+     * from the replies it has now. Runs on the caller's connection so it joins the
+     * transaction that inserted or deleted the reply. </p>
+     *
+     * @param conn         The connection holding the open transaction
+     * @param parentPostId The post that gained or lost a reply
+     * @param delta        +1 for a new reply, -1 for a removed one
+     * @throws SQLException if the update fails
+     */
+    private void adjustReplyCounters(Connection conn, int parentPostId, int delta) throws SQLException {
+        String query = "UPDATE postDB p SET replyCount = replyCount + ?, lastActivityAt = "
+                + LATEST_ACTIVITY + " WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, delta);
+            pstmt.setInt(2, parentPostId);
             pstmt.executeUpdate();
         }
     }
 
 
+    /*******
+     * <p> Method: trackedFacts(Connection, StatisticsAggregator, int) </p>
+     * <p> Description: Reads what a post contributes to the dashboard statistics, but only
+     * if they are being tracked; before the first snapshot the writes skip this read. </p>
+     *
+     * @param conn   The connection the write is using
+     * @param stats  The statistics the caller saw under postWriteLock, or null
+     * @param postId The post to read
+     * @return The post's facts, or null if untracked or there is no such post
+     * @throws SQLException if the query fails
+     */
+    private static StatisticsAggregator.Facts trackedFacts(Connection conn, StatisticsAggregator stats,
+            int postId) throws SQLException {
+        return stats == null ? null : StatisticsAggregator.readFacts(conn, postId);
+    }
+
+
+    /*******
+     * <p> Method: rebuildPostCounters() </p>
+     * <p> Description: Repair job for the denormalized replyCount and lastActivityAt
+     * columns. Recomputes both for every post from the replies actually stored and fixes
+     * the rows that disagree, for example after rows were bulk-loaded or edited with raw
+     * SQL. Safe to run at any time; the schema migration runs it once to backfill. </p>
+     *
+     * @return The number of posts whose counters were corrected, or -1 on failure
+     */
+    public int rebuildPostCounters() {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(REBUILD_POST_COUNTERS)) {
+            return pstmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+
     /*******
      * <p> Method: getAllPosts() </p>
      * <p> Description: Returns all non-deleted top-level posts (parentPostId = -1),
@@ -1296,11 +1827,13 @@ public class Database {
         ArrayList<Post> list = new ArrayList<>();
         // FIX: Show the post if it is NOT deleted, OR if it has replies
         String query = "SELECT * FROM postDB WHERE parentPostId = -1 "
-                + "AND (isDeleted = FALSE OR id IN (SELECT parentPostId FROM postDB)) "
+                + "AND (isDeleted = FALSE OR replyCount > 0) "
                 + "ORDER BY id DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) list.add(postFromResultSet(rs));
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) list.add(postFromResultSet(rs));
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1324,12 +1857,131 @@ public class Database {
         // FIX: Show the post if it is NOT deleted, OR if it has replies
         String query = "SELECT * FROM postDB WHERE authorUsername = ? "
                 + "AND parentPostId = -1 "
-                + "AND (isDeleted = FALSE OR id IN (SELECT parentPostId FROM postDB)) "
+                + "AND (isDeleted = FALSE OR replyCount > 0) "
                 + "ORDER BY id DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) list.add(postFromResultSet(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) list.add(postFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+
+    /*******
+     * <p> Method: getPostsPage(int, int) </p>
+     * <p> Description: One page of {@link #getAllPosts()}: the same posts in the same
+     * newest-first order, but only the pageSize posts older than lastSeenId. Pass 0 for the
+     * first page, then the id of the last post returned to get the next one. Because the
+     * cursor is an id rather than an offset, every page is an index range read and posts
+     * added while the user scrolls never shift or repeat the pages that follow. </p>
+     *
+     * @param lastSeenId The id of the last post already shown, or 0 for the first page
+     * @param pageSize   The most posts to return
+     * @return The next page of top-level posts, newest first; fewer than pageSize means
+     *         there are no more
+     */
+    public ArrayList<Post> getPostsPage(int lastSeenId, int pageSize) {
+        return readTopLevelPage("*", this::postFromResultSet, null, lastSeenId, pageSize);
+    }
+
+
+    /*******
+     * <p> Method: getPostsByAuthorPage(String, int, int) </p>
+     * <p> Description: One page of {@link #getPostsByAuthor(String)}, paged the same way
+     * as {@link #getPostsPage(int, int)}. </p>
+     *
+     * @param username   The author's username to filter by
+     * @param lastSeenId The id of the last post already shown, or 0 for the first page
+     * @param pageSize   The most posts to return
+     * @return The next page of the author's top-level posts, newest first
+     */
+    public ArrayList<Post> getPostsByAuthorPage(String username, int lastSeenId, int pageSize) {
+        return readTopLevelPage("*", this::postFromResultSet, username, lastSeenId, pageSize);
+    }
+
+
+    /*******
+     * <p> Method: getPostSummariesPage(int, int) </p>
+     * <p> Description: {@link #getPostsPage(int, int)} for list views: the same page of
+     * posts, without their bodies and staff comments. </p>
+     *
+     * @param lastSeenId The id of the last post already shown, or 0 for the first page
+     * @param pageSize   The most posts to return
+     * @return The next page of top-level post summaries, newest first
+     */
+    public ArrayList<PostSummary> getPostSummariesPage(int lastSeenId, int pageSize) {
+        return readTopLevelPage(SUMMARY_COLUMNS, this::summaryFromResultSet, null, lastSeenId, pageSize);
+    }
+
+
+    /*******
+     * <p> Method: getPostSummariesByAuthorPage(String, int, int) </p>
+     * <p> Description: {@link #getPostsByAuthorPage(String, int, int)} for list views. </p>
+     *
+     * @param username   The author's username to filter by
+     * @param lastSeenId The id of the last post already shown, or 0 for the first page
+     * @param pageSize   The most posts to return
+     * @return The next page of the author's top-level post summaries, newest first
+     */
+    public ArrayList<PostSummary> getPostSummariesByAuthorPage(String username, int lastSeenId, int pageSize) {
+        return readTopLevelPage(SUMMARY_COLUMNS, this::summaryFromResultSet, username, lastSeenId, pageSize);
+    }
+
+
+    /*******
+     * <p> Method: getPostSummaries() </p>
+     *
+     * @return The summaries of {@link #getAllPosts()}, newest first
+     */
+    public ArrayList<PostSummary> getPostSummaries() {
+        return getPostSummariesPage(0, Integer.MAX_VALUE);
+    }
+
+
+    /*******
+     * <p> Method: getPostSummariesByAuthor(String) </p>
+     *
+     * @param username The author's username to filter by
+     * @return The summaries of {@link #getPostsByAuthor(String)}, newest first
+     */
+    public ArrayList<PostSummary> getPostSummariesByAuthor(String username) {
+        return getPostSummariesByAuthorPage(username, 0, Integer.MAX_VALUE);
+    }
+
+
+    /*******
+     * <p> Method: readTopLevelPage(String, RowReader, String, int, int) </p>
+     * <p> Description: The keyset page query behind the paged post lists. </p>
+     *
+     * @param columns    The columns to read
+     * @param reader     Builds one result from a row
+     * @param username   Only posts by this author, or null for everyone's
+     * @param lastSeenId The id of the last post already shown, or 0 for the first page
+     * @param pageSize   The most posts to return
+     * @return The page, newest first, never null
+     */
+    private <T> ArrayList<T> readTopLevelPage(String columns, RowReader<T> reader, String username,
+            int lastSeenId, int pageSize) {
+        ArrayList<T> list = new ArrayList<>();
+        String query = "SELECT " + columns + " FROM postDB p WHERE "
+                + (username != null ? "authorUsername = ? AND " : "")
+                + "parentPostId = -1 AND id < ? "
+                + "AND (isDeleted = FALSE OR replyCount > 0) "
+                + "ORDER BY id DESC LIMIT ?";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            int param = 1;
+            if (username != null) pstmt.setString(param++, username);
+            pstmt.setInt(param++, lastSeenId > 0 ? lastSeenId : Integer.MAX_VALUE);
+            pstmt.setInt(param, pageSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) list.add(reader.read(rs));
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1347,12 +1999,19 @@ public class Database {
      * @return ArrayList of reply Posts, oldest first, never null
      */
     public ArrayList<Post> getRepliesForPost(int parentPostId) {
+        ArrayList<Post> cached = postCache.getReplies(parentPostId);
+        if (cached != null) return cached;
+
+        long epoch = postCache.epoch();
         ArrayList<Post> replies = new ArrayList<>();
         String query = "SELECT * FROM postDB WHERE parentPostId = ? ORDER BY id ASC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, parentPostId);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) replies.add(postFromResultSet(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) replies.add(postFromResultSet(rs));
+                postCache.putReplies(parentPostId, replies, epoch);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1370,11 +2029,21 @@ public class Database {
      * @return The Post if found, or null
      */
     public Post getPostById(int id) {
+        Post cached = postCache.getPost(id);
+        if (cached != null) return cached;
+
+        long epoch = postCache.epoch();
         String query = "SELECT * FROM postDB WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return postFromResultSet(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    Post post = postFromResultSet(rs);
+                    postCache.putPost(post, epoch);
+                    return post;
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1394,11 +2063,16 @@ public class Database {
      */
     public void updatePost(int id, String newTitle, String newBody) {
         String query = "UPDATE postDB SET title = ?, body = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, newTitle);
             pstmt.setString(2, newBody);
             pstmt.setInt(3, id);
-            pstmt.executeUpdate();
+            synchronized (postWriteLock) {
+                pstmt.executeUpdate();
+                if (searchIndex != null) searchIndex.update(id, newTitle, newBody);
+            }
+            postCache.invalidatePost(id);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1418,9 +2092,17 @@ public class Database {
     public void softDeletePost(int id) {
         // Soft delete — mark as deleted but keep the record so replies stay visible
         String query = "UPDATE postDB SET isDeleted = TRUE WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+            synchronized (postWriteLock) {
+                StatisticsAggregator stats = statistics;
+                StatisticsAggregator.Facts before = trackedFacts(conn, stats, id);
+                pstmt.executeUpdate();
+                if (searchIndex != null) searchIndex.remove(id);
+                if (stats != null) stats.replace(before, trackedFacts(conn, stats, id));
+            }
+            postCache.invalidatePost(id);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1432,15 +2114,100 @@ public class Database {
      * student posts (Staff Epic 6 Moderation Override). </p>
      */
     public void deletePost(int postId) {
+        String findParent = "SELECT parentPostId FROM postDB WHERE id = ?";
         String query = "DELETE FROM postDB WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setInt(1, postId);
-            pstmt.executeUpdate();
+        try (Connection conn = pool.borrow();
+             PreparedStatement parentStmt = conn.prepareStatement(findParent);
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            // Removing a reply and decrementing its parent's counters is one transaction
+            conn.setAutoCommit(false);
+            try {
+                parentStmt.setInt(1, postId);
+                int parentPostId;
+                try (ResultSet rs = parentStmt.executeQuery()) {
+                    parentPostId = rs.next() ? rs.getInt(1) : Post.NO_PARENT;
+                }
+                pstmt.setInt(1, postId);
+                synchronized (postWriteLock) {
+                    StatisticsAggregator stats = statistics;
+                    boolean isReply = parentPostId != Post.NO_PARENT;
+                    StatisticsAggregator.Facts removedPost = trackedFacts(conn, stats, postId);
+                    StatisticsAggregator.Facts parentBefore = isReply ? trackedFacts(conn, stats, parentPostId) : null;
+                    int removed = pstmt.executeUpdate();
+                    if (removed > 0 && isReply) {
+                        adjustReplyCounters(conn, parentPostId, -1);
+                        forgetReadReply(conn, postId, parentPostId);
+                    }
+                    if (removed > 0) forgetReadThread(conn, postId);
+                    StatisticsAggregator.Facts parentAfter = isReply ? trackedFacts(conn, stats, parentPostId) : null;
+                    conn.commit();
+                    if (searchIndex != null) searchIndex.remove(postId);
+                    if (stats != null) {
+                        stats.replace(removedPost, null);
+                        stats.replace(parentBefore, parentAfter);
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            postCache.invalidatePost(postId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    /*******
+     * <p> Method: forgetReadReply(Connection, int, int) </p>
+     * <p> Description: Takes a hard-deleted reply out of everyone's read counts for its
+     * thread, so the unread count (replyCount less readReplyCount) stays right. Runs inside
+     * deletePost()'s transaction. </p>
+     *
+     * @param conn         The connection holding the open transaction
+     * @param replyId      The reply being deleted
+     * @param parentPostId The thread it belonged to
+     * @throws SQLException if an update fails
+     */
+    private void forgetReadReply(Connection conn, int replyId, int parentPostId) throws SQLException {
+        String uncount = "UPDATE readWatermarkDB SET readReplyCount = readReplyCount - 1 "
+                + "WHERE threadId = ? AND (lastReadReplyId >= ? OR username IN "
+                + "(SELECT username FROM readExceptionDB WHERE postId = ?))";
+        String dropExceptions = "DELETE FROM readExceptionDB WHERE postId = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(uncount)) {
+            pstmt.setInt(1, parentPostId);
+            pstmt.setInt(2, replyId);
+            pstmt.setInt(3, replyId);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(dropExceptions)) {
+            pstmt.setInt(1, replyId);
+            pstmt.executeUpdate();
+        }
+    }
+
+
+    /*******
+     * <p> Method: forgetReadThread(Connection, int) </p>
+     * <p> Description: Drops every user's read watermark and exceptions for a post that has
+     * been hard-deleted. Runs inside deletePost()'s transaction. </p>
+     *
+     * @param conn   The connection holding the open transaction
+     * @param postId The post being deleted
+     * @throws SQLException if a delete fails
+     */
+    private void forgetReadThread(Connection conn, int postId) throws SQLException {
+        for (String query : new String[] { "DELETE FROM readWatermarkDB WHERE threadId = ?",
+                "DELETE FROM readExceptionDB WHERE threadId = ?" }) {
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setInt(1, postId);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+
     /*******
      * <p> Method: markPostResolved(int, boolean) </p>
      * <p> Description: Toggles the isResolved flag on a QUESTION post. The Controller
@@ -1451,10 +2218,12 @@ public class Database {
      */
     public void markPostResolved(int id, boolean resolved) {
         String query = "UPDATE postDB SET isResolved = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setBoolean(1, resolved);
             pstmt.setInt(2, id);
             pstmt.executeUpdate();
+            postCache.invalidatePost(id);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1463,25 +2232,83 @@ public class Database {
 
     /*******
      * <p> Method: searchPosts(String) </p>
-     * <p> Description: Returns non-deleted top-level posts where title or body contains
-     * the keyword (case-insensitive). Uses LOWER() on both sides since H2 LIKE is
-     * case-sensitive by default. </p>
+     * <p> Description: Returns non-deleted top-level posts matching the query, best match
+     * first. Matching is case-insensitive and word based: every word must appear, OR (in
+     * capitals) accepts either side, "quoted words" must appear together, and a word also
+     * matches longer words starting with it. See {@link PostSearchIndex} for the ranking.
+     * A blank query returns every searchable post, newest first. At most
+     * {@value #MAX_SEARCH_RESULTS} posts are returned. </p>
+     *
+     * <p> The index is built from postDB on the first search and then kept current by
+     * createPost(), updatePost(), softDeletePost() and deletePost(). </p>
      *
-     * @param keyword The search term
-     * @return ArrayList of matching Posts, newest first, never null
+     * @param keyword The search query
+     * @return ArrayList of matching Posts in rank order, never null
      */
     public ArrayList<Post> searchPosts(String keyword) {
-        ArrayList<Post> results = new ArrayList<>();
-        // LOWER() on both sides for case-insensitive match in H2
-        String query = "SELECT * FROM postDB WHERE parentPostId = -1 AND isDeleted = FALSE "
-                + "AND (LOWER(title) LIKE LOWER(?) OR LOWER(body) LIKE LOWER(?)) "
-                + "ORDER BY id DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            String pattern = "%" + keyword + "%";
-            pstmt.setString(1, pattern);
-            pstmt.setString(2, pattern);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) results.add(postFromResultSet(rs));
+        return searchTopLevel(keyword, "*", this::postFromResultSet, Post::getId);
+    }
+
+
+    /*******
+     * <p> Method: searchPostSummaries(String) </p>
+     * <p> Description: {@link #searchPosts(String)} for list views: the same matches in the
+     * same order, without their bodies and staff comments. </p>
+     *
+     * @param keyword The search query
+     * @return ArrayList of matching post summaries in rank order, never null
+     */
+    public ArrayList<PostSummary> searchPostSummaries(String keyword) {
+        return searchTopLevel(keyword, SUMMARY_COLUMNS, this::summaryFromResultSet, PostSummary::getId);
+    }
+
+
+    /*******
+     * <p> Method: searchTopLevel(String, String, RowReader, ToIntFunction) </p>
+     * <p> Description: Ranks the matches in the search index, then reads the chosen columns
+     * of those posts and returns them in rank order. </p>
+     *
+     * @param keyword The search query
+     * @param columns The columns to read
+     * @param reader  Builds one result from a row
+     * @param idOf    Gives the post id of a result
+     * @return The matches in rank order, never null
+     */
+    private <T> ArrayList<T> searchTopLevel(String keyword, String columns, RowReader<T> reader,
+            ToIntFunction<T> idOf) {
+        ArrayList<T> results = new ArrayList<>();
+        if (keyword == null || keyword.isBlank()) {
+            String query = "SELECT " + columns + " FROM postDB WHERE parentPostId = -1 AND isDeleted = FALSE "
+                    + "ORDER BY id DESC LIMIT " + MAX_SEARCH_RESULTS;
+            try (Connection conn = pool.borrow();
+                 PreparedStatement pstmt = conn.prepareStatement(query)) {
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) results.add(reader.read(rs));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            return results;
+        }
+
+        // Re-check parentPostId/isDeleted in case another Database instance changed a post
+        String query = "SELECT " + columns + " FROM postDB WHERE id = ANY(?) AND parentPostId = -1 AND isDeleted = FALSE";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            List<Integer> ranked = getSearchIndex(conn).search(keyword, MAX_SEARCH_RESULTS);
+            if (ranked.isEmpty()) return results;
+            pstmt.setArray(1, conn.createArrayOf("INTEGER", ranked.toArray()));
+            HashMap<Integer, T> byId = new HashMap<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    T row = reader.read(rs);
+                    byId.put(idOf.applyAsInt(row), row);
+                }
+                for (Integer id : ranked) {
+                    T row = byId.get(id);
+                    if (row != null) results.add(row);
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1489,43 +2316,249 @@ public class Database {
     }
 
 
+    /*******
+     * <p> Method: getSearchIndex(Connection) </p>
+     * <p> Description: Returns the full-text index, building it from every searchable post
+     * the first time it is needed. </p>
+     *
+     * @param conn The caller's borrowed connection
+     * @return The current search index
+     * @throws SQLException if the posts cannot be read
+     */
+    private PostSearchIndex getSearchIndex(Connection conn) throws SQLException {
+        PostSearchIndex index = searchIndex;
+        if (index != null) return index;
+        synchronized (postWriteLock) {
+            if (searchIndex == null) {
+                PostSearchIndex built = new PostSearchIndex();
+                String query = "SELECT id, title, body FROM postDB WHERE parentPostId = -1 AND isDeleted = FALSE";
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) built.add(rs.getInt("id"), rs.getString("title"), rs.getString("body"));
+                }
+                searchIndex = built;
+            }
+            return searchIndex;
+        }
+    }
+
+
     /*******
      * <p> Method: markAsRead(int, String) </p>
-     * <p> Description: Records that a specific user has read a specific post. Uses a
-     * MERGE (H2's upsert) so calling it multiple times is safe — no duplicate rows. </p>
+     * <p> Description: Records that a specific user has read a specific post. A thread
+     * post sets the postRead flag of the user's watermark row for that thread; a reply
+     * is handled by markReplyRead(). Calling it multiple times is safe. </p>
      *
      * @param postId   The ID of the post that was read
      * @param username The username of the student who read it
      */
     public void markAsRead(int postId, String username) {
-        // MERGE is H2's upsert — inserts the row if it doesn't exist, ignores if it does
-        String query = "MERGE INTO readStatusDB (username, postId) VALUES (?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, username);
-            pstmt.setInt(2, postId);
-            pstmt.executeUpdate();
+        // MERGE is H2's upsert; the source row is empty unless postId is a thread post
+        String query = "MERGE INTO readWatermarkDB w "
+                + "USING (SELECT id FROM postDB WHERE id = ? AND parentPostId = -1) s "
+                + "ON w.username = ? AND w.threadId = s.id "
+                + "WHEN MATCHED THEN UPDATE SET postRead = TRUE "
+                + "WHEN NOT MATCHED THEN INSERT (username, threadId, postRead) VALUES (?, s.id, TRUE)";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, postId);
+            pstmt.setString(2, username);
+            pstmt.setString(3, username);
+            if (pstmt.executeUpdate() == 0) markReplyRead(conn, postId, username);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    /*******
+     * <p> Method: markThreadRead(int, String) </p>
+     * <p> Description: Marks a post and every reply it currently has as read for the user,
+     * in one transaction whatever the number of replies. One MERGE moves the user's
+     * watermark for the thread to its newest reply and sets the read count to the reply
+     * count; the exceptions below it are then deleted in one statement. If the post is
+     * itself a reply, it is also marked read in its own thread. </p>
+     *
+     * @param postId   The ID of the post being viewed
+     * @param username The username of the student viewing it
+     */
+    public void markThreadRead(int postId, String username) {
+        Post post = getPostById(postId);
+        if (post == null) return;
+        String markThread = "MERGE INTO readWatermarkDB w USING (SELECT p.id, p.replyCount, "
+                + "COALESCE((SELECT MAX(r.id) FROM postDB r WHERE r.parentPostId = p.id), 0) AS newestReply "
+                + "FROM postDB p WHERE p.id = ?) s "
+                + "ON w.username = ? AND w.threadId = s.id "
+                + "WHEN MATCHED THEN UPDATE SET postRead = TRUE, lastReadReplyId = s.newestReply, "
+                + "readReplyCount = s.replyCount "
+                + "WHEN NOT MATCHED THEN INSERT (username, threadId, postRead, lastReadReplyId, readReplyCount) "
+                + "VALUES (?, s.id, TRUE, s.newestReply, s.replyCount)";
+        String dropExceptions = "DELETE FROM readExceptionDB e WHERE username = ? AND threadId = ? "
+                + "AND postId <= (SELECT lastReadReplyId FROM readWatermarkDB w "
+                + "WHERE w.username = e.username AND w.threadId = e.threadId)";
+        try (Connection conn = pool.borrow()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(markThread)) {
+                    pstmt.setInt(1, postId);
+                    pstmt.setString(2, username);
+                    pstmt.setString(3, username);
+                    pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(dropExceptions)) {
+                    pstmt.setString(1, username);
+                    pstmt.setInt(2, postId);
+                    pstmt.executeUpdate();
+                }
+                if (post.getParentPostId() != Post.NO_PARENT) recordReplyRead(conn, postId, username);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
 
+    /*******
+     * <p> Method: markReplyRead(Connection, int, String) </p>
+     * <p> Description: Marks one reply read, in a single transaction. </p>
+     *
+     * @param conn     The borrowed connection
+     * @param replyId  The ID of the reply that was read
+     * @param username The username of the student who read it
+     * @throws SQLException if a query fails
+     */
+    private void markReplyRead(Connection conn, int replyId, String username) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            recordReplyRead(conn, replyId, username);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+
+    /*******
+     * <p> Method: recordReplyRead(Connection, int, String) </p>
+     * <p> Description: The body of markReplyRead(). A reply at or below the user's
+     * watermark for its thread is already read. Otherwise it is added to the exception set
+     * and counted, and the watermark then moves up over every reply that is now read
+     * without a gap, taking those exceptions with it. Reading replies in order therefore
+     * never leaves more than one exception row behind. </p>
+     *
+     * @param conn     The connection holding the open transaction
+     * @param replyId  The ID of the reply that was read
+     * @param username The username of the student who read it
+     * @throws SQLException if a query fails
+     */
+    private void recordReplyRead(Connection conn, int replyId, String username) throws SQLException {
+        String findParent = "SELECT parentPostId FROM postDB WHERE id = ?";
+        String ensureRow = "MERGE INTO readWatermarkDB w USING (VALUES (?, ?)) s (username, threadId) "
+                + "ON w.username = s.username AND w.threadId = s.threadId "
+                + "WHEN NOT MATCHED THEN INSERT (username, threadId) VALUES (s.username, s.threadId)";
+        String readWatermark = "SELECT lastReadReplyId FROM readWatermarkDB "
+                + "WHERE username = ? AND threadId = ? FOR UPDATE";
+        String addException = "INSERT INTO readExceptionDB (username, postId, threadId) SELECT ?, ?, ? "
+                + "WHERE NOT EXISTS (SELECT 1 FROM readExceptionDB WHERE username = ? AND postId = ?)";
+        // The newest reply before the first reply above the watermark that is still unread
+        String findWatermark = "SELECT MAX(r.id) FROM postDB r WHERE r.parentPostId = ? AND r.id < "
+                + "COALESCE((SELECT MIN(u.id) FROM postDB u WHERE u.parentPostId = ? AND u.id > ? "
+                + "AND NOT EXISTS (SELECT 1 FROM readExceptionDB e WHERE e.username = ? AND e.postId = u.id)), "
+                + Integer.MAX_VALUE + ")";
+        String advance = "UPDATE readWatermarkDB SET readReplyCount = readReplyCount + 1, "
+                + "lastReadReplyId = GREATEST(lastReadReplyId, ?) WHERE username = ? AND threadId = ?";
+        String dropExceptions = "DELETE FROM readExceptionDB WHERE username = ? AND threadId = ? AND postId <= ?";
+
+        int threadId;
+        try (PreparedStatement pstmt = conn.prepareStatement(findParent)) {
+            pstmt.setInt(1, replyId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                threadId = rs.next() ? rs.getInt(1) : Post.NO_PARENT;
+            }
+        }
+        if (threadId == Post.NO_PARENT) return;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(ensureRow)) {
+            pstmt.setString(1, username);
+            pstmt.setInt(2, threadId);
+            pstmt.executeUpdate();
+        }
+        int watermark;
+        try (PreparedStatement pstmt = conn.prepareStatement(readWatermark)) {
+            pstmt.setString(1, username);
+            pstmt.setInt(2, threadId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                watermark = rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+        if (replyId <= watermark) return;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(addException)) {
+            pstmt.setString(1, username);
+            pstmt.setInt(2, replyId);
+            pstmt.setInt(3, threadId);
+            pstmt.setString(4, username);
+            pstmt.setInt(5, replyId);
+            if (pstmt.executeUpdate() == 0) return;   // already read out of order
+        }
+
+        int newWatermark;
+        try (PreparedStatement pstmt = conn.prepareStatement(findWatermark)) {
+            pstmt.setInt(1, threadId);
+            pstmt.setInt(2, threadId);
+            pstmt.setInt(3, watermark);
+            pstmt.setString(4, username);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                newWatermark = rs.next() ? Math.max(rs.getInt(1), watermark) : watermark;
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(advance)) {
+            pstmt.setInt(1, newWatermark);
+            pstmt.setString(2, username);
+            pstmt.setInt(3, threadId);
+            pstmt.executeUpdate();
+        }
+        if (newWatermark > watermark) {
+            try (PreparedStatement pstmt = conn.prepareStatement(dropExceptions)) {
+                pstmt.setString(1, username);
+                pstmt.setInt(2, threadId);
+                pstmt.setInt(3, newWatermark);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+
     /*******
      * <p> Method: isPostRead(int, String) </p>
      * <p> Description: Returns true if the given user has read the given post.
-     * Used by buildDisplayString() in the Model to show the "NEW" badge. </p>
+     * Used by buildDisplayString() in the Model to show the "NEW" badge. A constant number
+     * of primary-key lookups whatever the size of the thread. </p>
      *
      * @param postId   The post ID to check
      * @param username The username to check for
      * @return True if the user has read this post, false if unread
      */
     public boolean isPostRead(int postId, String username) {
-        String query = "SELECT COUNT(*) FROM readStatusDB WHERE postId = ? AND username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setInt(1, postId);
+        String query = "SELECT " + READ_FLAG + " FROM postDB p " + READ_JOINS + "WHERE p.id = ?";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, username);
             pstmt.setString(2, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getInt(1) > 0;
+            pstmt.setString(3, username);
+            pstmt.setInt(4, postId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return rs.getBoolean(1);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1536,17 +2569,20 @@ public class Database {
     /*******
      * <p> Method: getReplyCount(int) </p>
      * <p> Description: Returns the total number of replies for a given post.
-     * Shown in the list view so students can see at a glance how active a thread is. </p>
+     * Shown in the list view so students can see at a glance how active a thread is.
+     * Reads the stored replyCount column instead of counting the replies. </p>
      *
      * @param postId The parent post ID
      * @return Total reply count, or 0 if none
      */
     public int getReplyCount(int postId) {
-        String query = "SELECT COUNT(*) FROM postDB WHERE parentPostId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        String query = "SELECT replyCount FROM postDB WHERE id = ?";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, postId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getInt(1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1554,25 +2590,36 @@ public class Database {
     }
 
 
+    // Whether the bound username has read post p: a thread post by the flag on its own
+    // watermark row t, a reply by its thread's watermark r or an exception row e
+    private static final String READ_FLAG = "CASE WHEN p.parentPostId = -1 THEN COALESCE(t.postRead, FALSE) "
+            + "ELSE COALESCE(r.lastReadReplyId >= p.id, FALSE) OR e.postId IS NOT NULL END";
+    private static final String READ_JOINS = "LEFT JOIN readWatermarkDB t ON t.username = ? AND t.threadId = p.id "
+            + "LEFT JOIN readWatermarkDB r ON r.username = ? AND r.threadId = p.parentPostId "
+            + "LEFT JOIN readExceptionDB e ON e.username = ? AND e.postId = p.id ";
+
+
     /*******
      * <p> Method: getUnreadReplyCount(int, String) </p>
      * <p> Description: Returns how many replies to a post the given user hasn't read yet.
      * Used to show "(2 new)" in the list view so students know which threads have new
-     * activity since they last checked. </p>
+     * activity since they last checked. The stored replyCount less the readReplyCount of
+     * the user's watermark, so no replies are visited. </p>
      *
      * @param postId   The parent post ID
      * @param username The username to check unread status for
      * @return Number of unread replies, or 0 if all read
      */
     public int getUnreadReplyCount(int postId, String username) {
-        // Count replies that have no corresponding read entry for this user
-        String query = "SELECT COUNT(*) FROM postDB WHERE parentPostId = ? "
-                + "AND id NOT IN (SELECT postId FROM readStatusDB WHERE username = ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setInt(1, postId);
-            pstmt.setString(2, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getInt(1);
+        String query = "SELECT p.replyCount - COALESCE(w.readReplyCount, 0) FROM postDB p "
+                + "LEFT JOIN readWatermarkDB w ON w.username = ? AND w.threadId = p.id WHERE p.id = ?";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, username);
+            pstmt.setInt(2, postId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1580,6 +2627,48 @@ public class Database {
     }
 
 
+    /*******
+     * <p> Method: getPostBadges(List, String) </p>
+     * <p> Description: Computes the read flag, reply count, and unread reply count for a
+     * whole list of posts in one aggregated query. This replaces calling isPostRead(),
+     * getReplyCount() and getUnreadReplyCount() once per row, which cost three round trips
+     * for every post shown in the list view. </p>
+     *
+     * <p> The post IDs are bound as a single SQL array so the query text never changes
+     * with the list length. Posts that no longer exist are simply absent from the map. </p>
+     *
+     * @param postIds  The IDs of the posts being displayed
+     * @param username The username to compute read/unread state for
+     * @return Map from post ID to its badges, never null
+     */
+    public HashMap<Integer, PostBadge> getPostBadges(List<Integer> postIds, String username) {
+        HashMap<Integer, PostBadge> badges = new HashMap<>();
+        if (postIds == null || postIds.isEmpty()) return badges;
+
+        // t is the user's watermark for the post's own thread; counts come from stored columns
+        String query = "SELECT p.id, " + READ_FLAG + " AS isRead, p.replyCount, "
+                + "p.replyCount - COALESCE(t.readReplyCount, 0) AS unreadCount "
+                + "FROM postDB p " + READ_JOINS
+                + "WHERE p.id = ANY(?)";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, username);
+            pstmt.setString(2, username);
+            pstmt.setString(3, username);
+            pstmt.setArray(4, conn.createArrayOf("INTEGER", postIds.toArray()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    badges.put(rs.getInt("id"), new PostBadge(rs.getBoolean("isRead"),
+                            rs.getInt("replyCount"), rs.getInt("unreadCount")));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return badges;
+    }
+
+
     /*******
      * <p> Method: getPostCountForUser(String) </p>
      * <p> Description: Returns total post count for a user. Not used in the TP2 student
@@ -1590,10 +2679,12 @@ public class Database {
      */
     public int getPostCountForUser(String username) {
         String query = "SELECT COUNT(*) FROM postDB WHERE authorUsername = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getInt(1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1612,7 +2703,7 @@ public class Database {
      * @throws SQLException if any column read fails
      */
     private Post postFromResultSet(ResultSet rs) throws SQLException {
-        return new Post(
+        Post post = new Post(
             rs.getInt("id"),
             rs.getString("title"),
             rs.getString("body"),
@@ -1626,20 +2717,66 @@ public class Database {
             rs.getBoolean("isInstructorEndorsed"),
             rs.getString("staffComment")
         );
+        post.setRootPostId(rs.getInt("rootPostId"));
+        return post;
+    }
+
+    /** The columns {@link #summaryFromResultSet(ResultSet)} reads: all but body and staffComment. */
+    private static final String SUMMARY_COLUMNS = "id, title, authorUsername, timestamp, postType, thread, "
+            + "parentPostId, rootPostId, isResolved, isDeleted, isInstructorEndorsed";
+
+    /*******
+     * <p> Method: summaryFromResultSet(ResultSet) </p>
+     * <p> Description: Builds a PostSummary from a row holding {@link #SUMMARY_COLUMNS}. </p>
+     *
+     * @param rs A ResultSet positioned on the row to read
+     * @return The summary of the post
+     * @throws SQLException if any column read fails
+     */
+    private PostSummary summaryFromResultSet(ResultSet rs) throws SQLException {
+        return new PostSummary(
+            rs.getInt("id"),
+            rs.getString("title"),
+            rs.getString("authorUsername"),
+            rs.getString("timestamp"),
+            rs.getString("postType"),
+            rs.getString("thread"),
+            rs.getInt("parentPostId"),
+            rs.getInt("rootPostId"),
+            rs.getBoolean("isResolved"),
+            rs.getBoolean("isDeleted"),
+            rs.getBoolean("isInstructorEndorsed")
+        );
+    }
+
+    /** Reads one result from the current row of a ResultSet. */
+    private interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
     }
     
     /*******
      * <p> Method: dropAllPostTables() </p>
-     * <p> Description: Drops the postDB and readStatusDB tables so the test suite
-     * can start from a completely clean state on every run. Only used by the test class —
+     * <p> Description: Drops the postDB and read-tracking tables so the test suite
+     * can start from a completely clean state on every run. The schema version goes too,
+     * so the next connectToDatabase() recreates the indexes. Only used by the test class —
      * never call this in production code. </p>
      *
      * @throws SQLException if the drop fails
      */
     public void dropAllPostTables() throws SQLException {
         // Drop tables so the test suite always starts from a clean slate
-        statement.execute("DROP TABLE IF EXISTS postDB");
-        statement.execute("DROP TABLE IF EXISTS readStatusDB");
+        try (Connection conn = pool.borrow(); Statement statement = conn.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS postDB");
+            statement.execute("DROP TABLE IF EXISTS readStatusDB");
+            statement.execute("DROP TABLE IF EXISTS readWatermarkDB");
+            statement.execute("DROP TABLE IF EXISTS readExceptionDB");
+            statement.execute("DROP TABLE IF EXISTS schemaVersion");
+        }
+        searchIndex = null;
+        authorIndex = null;
+        statistics = null;
+        analyticsSnapshot = null;
+        postCache.clear();
     }
     
     // ==================================================================================
@@ -1648,14 +2785,60 @@ public class Database {
 
     /*******
      * <p> Method: getConnection() </p>
-     * <p> Description: Exposes the active JDBC connection to special verification
+     * <p> Description: Lends a pooled JDBC connection to special verification
      * classes (like RuleOfThreeVerifier) so they can execute complex grading queries
-     * without bloating the main Database.java file. </p>
+     * without bloating the main Database.java file. The caller must close it (use
+     * try-with-resources) to hand it back to the pool. </p>
      *
-     * @return The active database Connection object
+     * @return A borrowed database Connection object
+     * @throws SQLException if no connection can be borrowed
      */
-    public Connection getConnection() {
-        return this.connection;
+    public Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    /*******
+     * <p> Method: getStatementCacheHits() </p>
+     * <p> Description: Number of prepareStatement() calls answered from the per-connection
+     * statement cache since the pool was created. Together with the miss count this shows
+     * how much SQL parsing the cache is saving. </p>
+     *
+     * @return Statement cache hits, or 0 if not connected
+     */
+    public long getStatementCacheHits() {
+        return pool == null ? 0 : pool.getStatementCacheHits();
+    }
+
+    /*******
+     * <p> Method: getStatementCacheMisses() </p>
+     * <p> Description: Number of prepareStatement() calls that had to be parsed by H2. </p>
+     *
+     * @return Statement cache misses, or 0 if not connected
+     */
+    public long getStatementCacheMisses() {
+        return pool == null ? 0 : pool.getStatementCacheMisses();
+    }
+
+    /*******
+     * <p> Method: getPostCacheHits() </p>
+     * <p> Description: Number of getPostById() and getRepliesForPost() calls answered from
+     * the post cache since this Database was created. </p>
+     *
+     * @return Post cache hits
+     */
+    public long getPostCacheHits() {
+        return postCache.getHits();
+    }
+
+    /*******
+     * <p> Method: getPostCacheMisses() </p>
+     * <p> Description: Number of getPostById() and getRepliesForPost() calls that had to
+     * query postDB. </p>
+     *
+     * @return Post cache misses
+     */
+    public long getPostCacheMisses() {
+        return postCache.getMisses();
     }
 
     /*******
@@ -1668,10 +2851,12 @@ public class Database {
      */
     public void updateStaffComment(int postId, String comment) {
         String query = "UPDATE postDB SET staffComment = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, comment);
             pstmt.setInt(2, postId);
             pstmt.executeUpdate();
+            postCache.invalidatePost(postId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1687,10 +2872,17 @@ public class Database {
      */
     public void updateInstructorEndorsement(int postId, boolean endorsed) {
         String query = "UPDATE postDB SET isInstructorEndorsed = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setBoolean(1, endorsed);
             pstmt.setInt(2, postId);
-            pstmt.executeUpdate();
+            synchronized (postWriteLock) {
+                StatisticsAggregator stats = statistics;
+                StatisticsAggregator.Facts before = trackedFacts(conn, stats, postId);
+                pstmt.executeUpdate();
+                if (stats != null) stats.replace(before, trackedFacts(conn, stats, postId));
+            }
+            postCache.invalidatePost(postId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -1699,18 +2891,22 @@ public class Database {
     /*******
      * <p> Method: getContextualThreadedPosts() </p>
      * <p> Description: Returns all posts ordered so that parent posts are 
-     * immediately followed by their chronological replies (Staff Epic 2). </p>
+     * immediately followed by their chronological replies (Staff Epic 2). Nested replies
+     * stay in the thread of their top-level post. For large boards use
+     * {@link #getContextualThreadedPostsPage(int, int)} or {@link #getThreadTrees(int, int)}. </p>
      *
      * @return ArrayList of Post objects in threaded order
      */
     public ArrayList<Post> getContextualThreadedPosts() {
         ArrayList<Post> list = new ArrayList<>();
-        // SQL trick: Group by parent ID (if top-level, use its own ID), then order chronologically
-        String query = "SELECT * FROM postDB ORDER BY CASE WHEN parentPostId = -1 THEN id ELSE parentPostId END ASC, id ASC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                list.add(postFromResultSet(rs));
+        // Threads in order, each in post order: exactly the order of idx_post_root
+        String query = "SELECT * FROM postDB ORDER BY rootPostId ASC, id ASC";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(postFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -1718,6 +2914,239 @@ public class Database {
         return list;
     }
     
+    /*******
+     * <p> Method: getContextualThreadedPostsPage(int, int) </p>
+     * <p> Description: One page of {@link #getContextualThreadedPosts()}. Pages hold whole
+     * threads, so a reply is never separated from its parent: the page is the next
+     * threadCount threads after lastThreadId, each parent followed by its replies in
+     * order. A thread is identified by its top-level post id, stored on every post as
+     * rootPostId; replies whose parent was removed by a moderator still form a thread under
+     * the old parent id, as in the full list. Pass 0 for the first page, then the
+     * {@link Post#getRootPostId()} of the last post returned. Both queries are range reads
+     * on idx_post_root, so a page costs the same however large the board is. </p>
+     *
+     * @param lastThreadId The thread id of the last post already shown, or 0 for the first page
+     * @param threadCount  The most threads to return
+     * @return The posts of the next threads in threaded order
+     */
+    public ArrayList<Post> getContextualThreadedPostsPage(int lastThreadId, int threadCount) {
+        ArrayList<Post> list = new ArrayList<>();
+        String postQuery = "SELECT * FROM postDB WHERE rootPostId > ? AND rootPostId <= ? "
+                + "ORDER BY rootPostId ASC, id ASC";
+        try (Connection conn = pool.borrow();
+             PreparedStatement posts = conn.prepareStatement(postQuery)) {
+            ArrayList<Integer> ids = nextThreadIds(conn, lastThreadId, threadCount);
+            if (ids.isEmpty()) return list;
+
+            posts.setInt(1, lastThreadId);
+            posts.setInt(2, ids.get(ids.size() - 1));
+            try (ResultSet rs = posts.executeQuery()) {
+                while (rs.next()) list.add(postFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /*******
+     * <p> Method: nextThreadIds(Connection, int, int) </p>
+     * <p> Description: The ids of the next threadCount threads after lastThreadId, in
+     * order. Read from idx_post_root, which H2 walks in order and stops once it has
+     * enough distinct values. </p>
+     *
+     * @throws SQLException if the query fails
+     */
+    private ArrayList<Integer> nextThreadIds(Connection conn, int lastThreadId, int threadCount)
+            throws SQLException {
+        String query = "SELECT DISTINCT rootPostId FROM postDB WHERE rootPostId > ? "
+                + "ORDER BY rootPostId LIMIT ?";
+        ArrayList<Integer> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, lastThreadId);
+            pstmt.setInt(2, threadCount);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+
+    /*******
+     * <p> Method: getThreadTrees(int, int) </p>
+     * <p> Description: The next threadCount threads after lastThreadId as reply trees, for
+     * views that show the hierarchy rather than a flat list. Only each thread's top-level
+     * post is read here; a thread's replies are read the first time its node is expanded
+     * (see {@link ThreadNode}), with one range read on idx_post_root. Paged like
+     * {@link #getContextualThreadedPostsPage(int, int)}: pass 0 for the first page, then
+     * the thread id of the last tree returned. </p>
+     *
+     * @param lastThreadId The id of the last thread already shown, or 0 for the first page
+     * @param threadCount  The most threads to return
+     * @return The top node of each thread in thread order; never null
+     */
+    public ArrayList<ThreadNode> getThreadTrees(int lastThreadId, int threadCount) {
+        ArrayList<ThreadNode> trees = new ArrayList<>();
+        String query = "SELECT * FROM postDB WHERE id = ANY(?)";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            ArrayList<Integer> ids = nextThreadIds(conn, lastThreadId, threadCount);
+            if (ids.isEmpty()) return trees;
+            pstmt.setArray(1, conn.createArrayOf("INTEGER", ids.toArray()));
+            HashMap<Integer, Post> roots = new HashMap<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Post p = postFromResultSet(rs);
+                    roots.put(p.getId(), p);
+                }
+                // A thread whose top-level post was hard-deleted still has a node, with no post
+                for (Integer id : ids) trees.add(new ThreadNode(id, roots.get(id), this::getThreadPosts));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return trees;
+    }
+
+
+    /*******
+     * <p> Method: getThreadTrees(int, int, boolean) </p>
+     * <p> Description: As {@link #getThreadTrees(int, int)}, for a view that will expand
+     * every thread it is given, such as the staff board. With expand set, the posts of all
+     * the page's threads are read at once (see
+     * {@link #getContextualThreadedPostsPage(int, int)}) and each tree is built from its
+     * share of them, so expanding the trees runs no further queries. </p>
+     *
+     * @param lastThreadId The id of the last thread already shown, or 0 for the first page
+     * @param threadCount  The most threads to return
+     * @param expand       True to read the replies now rather than on first expansion
+     * @return The top node of each thread in thread order; never null
+     */
+    public ArrayList<ThreadNode> getThreadTrees(int lastThreadId, int threadCount, boolean expand) {
+        if (!expand) return getThreadTrees(lastThreadId, threadCount);
+        ArrayList<ThreadNode> trees = new ArrayList<>();
+        ArrayList<Post> posts = getContextualThreadedPostsPage(lastThreadId, threadCount);
+        // The page holds each thread's posts together, oldest first
+        int start = 0;
+        while (start < posts.size()) {
+            int threadId = posts.get(start).getRootPostId();
+            int end = start + 1;
+            while (end < posts.size() && posts.get(end).getRootPostId() == threadId) end++;
+            List<Post> thread = posts.subList(start, end);
+            Post first = thread.get(0).getId() == threadId ? thread.get(0) : null;
+            trees.add(ThreadNode.expanded(threadId, first, thread));
+            start = end;
+        }
+        return trees;
+    }
+
+
+    /*******
+     * <p> Method: getThreadPosts(int) </p>
+     * <p> Description: Every post of one thread - the top-level post and all replies at
+     * any depth - oldest first. </p>
+     *
+     * @param threadId The id of the thread's top-level post
+     * @return The thread's posts in id order; empty if there is no such thread
+     */
+    public ArrayList<Post> getThreadPosts(int threadId) {
+        ArrayList<Post> list = new ArrayList<>();
+        String query = "SELECT * FROM postDB WHERE rootPostId = ? ORDER BY id ASC";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, threadId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) list.add(postFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+
+    /*******
+     * <p> Method: findAuthors(String, boolean) </p>
+     * <p> Description: Returns the usernames that have posted and contain the fragment,
+     * ignoring case, or start with it when prefixOnly is set. Answered from an n-gram
+     * index of usernames (see {@link AuthorIndex}) that is built from postDB on the first
+     * search and then kept current by createPost(). An author whose posts have all been
+     * hard-deleted may still be returned. </p>
+     *
+     * @param fragment   The text to look for
+     * @param prefixOnly Match only at the start of the username
+     * @return Matching usernames in alphabetical order; empty for a blank fragment
+     */
+    public ArrayList<String> findAuthors(String fragment, boolean prefixOnly) {
+        ArrayList<String> authors = new ArrayList<>();
+        if (fragment == null || fragment.isEmpty()) return authors;
+        try (Connection conn = pool.borrow()) {
+            authors.addAll(getAuthorIndex(conn).find(fragment, prefixOnly));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return authors;
+    }
+
+
+    /*******
+     * <p> Method: getThreadedPostsByAuthor(String, boolean) </p>
+     * <p> Description: The staff author search (Staff Epic 5): the posts, replies included,
+     * of every author found by {@link #findAuthors(String, boolean)}, in the same threaded
+     * order as {@link #getContextualThreadedPosts()}. Only the matching authors' rows are
+     * read, through idx_post_author. </p>
+     *
+     * @param fragment   The text to look for in the username
+     * @param prefixOnly Match only at the start of the username
+     * @return The matching authors' posts in threaded order; empty if no author matches
+     */
+    public ArrayList<Post> getThreadedPostsByAuthor(String fragment, boolean prefixOnly) {
+        ArrayList<Post> list = new ArrayList<>();
+        ArrayList<String> authors = findAuthors(fragment, prefixOnly);
+        if (authors.isEmpty()) return list;
+        String query = "SELECT * FROM postDB WHERE authorUsername = ANY(?) "
+                + "ORDER BY rootPostId ASC, id ASC";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setArray(1, conn.createArrayOf("VARCHAR", authors.toArray()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) list.add(postFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+
+    /*******
+     * <p> Method: getAuthorIndex(Connection) </p>
+     * <p> Description: Returns the author index, building it from the distinct authors in
+     * postDB the first time it is needed. </p>
+     *
+     * @param conn The caller's borrowed connection
+     * @return The current author index
+     * @throws SQLException if the authors cannot be read
+     */
+    private AuthorIndex getAuthorIndex(Connection conn) throws SQLException {
+        AuthorIndex index = authorIndex;
+        if (index != null) return index;
+        synchronized (postWriteLock) {
+            if (authorIndex == null) {
+                AuthorIndex built = new AuthorIndex();
+                // Read from idx_post_author rather than the post rows
+                String query = "SELECT DISTINCT authorUsername FROM postDB";
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) built.add(rs.getString(1));
+                }
+                authorIndex = built;
+            }
+            return authorIndex;
+        }
+    }
+
     /*******
      * <p> Method: getDiscussionStatistics() </p>
      * <p> Description: Returns the total count of active Questions and Statements 
@@ -1728,15 +3157,17 @@ public class Database {
     public int[] getDiscussionStatistics() {
         int[] stats = new int[]{0, 0};
         String query = "SELECT postType, COUNT(*) as count FROM postDB WHERE isDeleted = FALSE GROUP BY postType";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                String type = rs.getString("postType");
-                int count = rs.getInt("count");
-                if ("QUESTION".equalsIgnoreCase(type)) {
-                    stats[0] = count;
-                } else if ("STATEMENT".equalsIgnoreCase(type)) {
-                    stats[1] = count;
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String type = rs.getString("postType");
+                    int count = rs.getInt("count");
+                    if ("QUESTION".equalsIgnoreCase(type)) {
+                        stats[0] = count;
+                    } else if ("STATEMENT".equalsIgnoreCase(type)) {
+                        stats[1] = count;
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -1745,19 +3176,94 @@ public class Database {
         return stats;
     }
     
+    /*******
+     * <p> Method: getStatisticsSnapshot() </p>
+     * <p> Description: Returns the staff dashboard numbers (Epic 4 and 8): question and
+     * statement counts, unresolved and endorsed counts, and the activity histogram. The
+     * first call seeds the counters with one grouped query; after that the post write
+     * methods keep them current and a snapshot is a copy of a few counters. </p>
+     *
+     * @return The current statistics, all zero if they could not be seeded
+     */
+    public DiscussionStatistics getStatisticsSnapshot() {
+        StatisticsAggregator stats = statistics;
+        if (stats == null) {
+            synchronized (postWriteLock) {
+                if (statistics == null) {
+                    try (Connection conn = pool.borrow()) {
+                        statistics = StatisticsAggregator.seed(conn);
+                    } catch (SQLException e) {
+                        e.printStackTrace();
+                        return new DiscussionStatistics(0, 0, 0, 0, new ActivityHistogram());
+                    }
+                }
+                stats = statistics;
+            }
+        }
+        return stats.snapshot();
+    }
+
+    /*******
+     * <p> Method: getAnalyticsSnapshot() </p>
+     * <p> Description: Returns the columnar copy of postDB that staff reports run against
+     * (see {@link PostSnapshot}). The copy is taken on the first call and taken again once
+     * it is more than {@value #ANALYTICS_MAX_AGE_MILLIS} ms old, so reports see posts at
+     * most that late while the live table is read once per period instead of per report. </p>
+     *
+     * @return A recent snapshot; never null
+     */
+    public PostSnapshot getAnalyticsSnapshot() {
+        PostSnapshot snapshot = analyticsSnapshot;
+        if (isAnalyticsFresh(snapshot)) return snapshot;
+        synchronized (analyticsLock) {
+            // Another caller may have refreshed it while this one waited
+            snapshot = analyticsSnapshot;
+            return isAnalyticsFresh(snapshot) ? snapshot : refreshAnalyticsSnapshot();
+        }
+    }
+
+    private boolean isAnalyticsFresh(PostSnapshot snapshot) {
+        return snapshot != null
+                && System.nanoTime() - analyticsTakenNanos < TimeUnit.MILLISECONDS.toNanos(ANALYTICS_MAX_AGE_MILLIS);
+    }
+
+    /*******
+     * <p> Method: refreshAnalyticsSnapshot() </p>
+     * <p> Description: Takes a new snapshot now, for a report that must include the latest
+     * posts. </p>
+     *
+     * @return The new snapshot, or the previous one (an empty one if none) if postDB could
+     *         not be read
+     */
+    public PostSnapshot refreshAnalyticsSnapshot() {
+        synchronized (analyticsLock) {
+            long started = System.nanoTime();
+            try (Connection conn = pool.borrow()) {
+                analyticsSnapshot = PostSnapshot.load(conn);
+                analyticsTakenNanos = started;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                if (analyticsSnapshot == null) return PostSnapshot.empty();
+            }
+            return analyticsSnapshot;
+        }
+    }
+
     /*******
      * <p> Method: getUnresolvedQuestions() </p>
      * <p> Description: Returns all active QUESTION posts that have 0 replies (Epic 8). </p>
      */
     public ArrayList<Post> getUnresolvedQuestions() {
         ArrayList<Post> list = new ArrayList<>();
-        // Select questions that are not deleted and whose ID does not appear as a parentPostId in any other post
+        // Select questions that are not deleted and have no replies
         String query = "SELECT * FROM postDB WHERE parentPostId = -1 AND postType = 'QUESTION' AND isDeleted = FALSE "
-                     + "AND id NOT IN (SELECT parentPostId FROM postDB WHERE parentPostId != -1) ORDER BY id DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                list.add(postFromResultSet(rs));
+                     + "AND replyCount = 0 ORDER BY id DESC";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(postFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -1766,47 +3272,88 @@ public class Database {
     }
     
     /*******
-     * <p> Method: getPeakActivityTime() </p>
-     * <p> Description: Scans all post timestamps to determine the most frequent 
-     * hour of activity for the Discussion Dashboard (Epic 4). </p>
+     * <p> Method: getSnapshotUnresolvedQuestions() </p>
+     * <p> Description: The unresolved list for the staff board, taken from the analytics
+     * snapshot (see {@link #getAnalyticsSnapshot()}) instead of a scan of postDB. The
+     * snapshot picks the posts and they are then read by primary key in one query, since
+     * the board shows their bodies. A post that was answered or deleted after the snapshot
+     * was taken is left out; a question asked since then appears once the snapshot is
+     * next taken. </p>
+     *
+     * @return The unresolved questions, newest first; empty if none or on error
      */
-    public String getPeakActivityTime() {
-        java.util.HashMap<Integer, Integer> hourCounts = new java.util.HashMap<>();
-        String query = "SELECT timestamp FROM postDB WHERE isDeleted = FALSE";
-        try (java.sql.PreparedStatement pstmt = connection.prepareStatement(query)) {
-            java.sql.ResultSet rs = pstmt.executeQuery();
-            java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            
-            while (rs.next()) {
-                String ts = rs.getString("timestamp");
-                if (ts != null && !ts.trim().isEmpty()) {
-                    try {
-                        java.time.LocalDateTime dateTime = java.time.LocalDateTime.parse(ts, formatter);
-                        int hour = dateTime.getHour();
-                        hourCounts.put(hour, hourCounts.getOrDefault(hour, 0) + 1);
-                    } catch (java.time.format.DateTimeParseException e) {
-                        // Safely ignore any malformed legacy timestamps
-                    }
+    public ArrayList<Post> getSnapshotUnresolvedQuestions() {
+        ArrayList<Post> list = new ArrayList<>();
+        int[] ids = getAnalyticsSnapshot().getUnresolvedQuestionIds();
+        if (ids.length == 0) return list;
+        String query = "SELECT * FROM postDB WHERE id = ANY(?) AND isDeleted = FALSE AND replyCount = 0 "
+                     + "ORDER BY id DESC";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setArray(1, conn.createArrayOf("INTEGER", Arrays.stream(ids).boxed().toArray()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(postFromResultSet(rs));
                 }
             }
-        } catch (java.sql.SQLException e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
+        return list;
+    }
 
-        if (hourCounts.isEmpty()) return "N/A";
+    /*******
+     * <p> Method: getActivityHistogram() </p>
+     * <p> Description: Counts the non-deleted posts by hour of day and day of week over the
+     * whole board. See getActivityHistogram(LocalDateTime, LocalDateTime). </p>
+     *
+     * @return The histogram, empty if there are no posts
+     */
+    public ActivityHistogram getActivityHistogram() {
+        return getActivityHistogram(null, null);
+    }
 
-        int peakHour = 0;
-        int maxCount = 0;
-        for (java.util.Map.Entry<Integer, Integer> entry : hourCounts.entrySet()) {
-            if (entry.getValue() > maxCount) {
-                maxCount = entry.getValue();
-                peakHour = entry.getKey();
+    /*******
+     * <p> Method: getActivityHistogram(LocalDateTime, LocalDateTime) </p>
+     * <p> Description: Counts the non-deleted posts made in a date range by hour of day and
+     * day of week. H2 does the grouping over the (isDeleted, timestamp) index and returns
+     * at most 24 x 7 rows, so no timestamps are parsed in Java (Epic 4). </p>
+     *
+     * @param from The first moment to count, or null for no lower bound
+     * @param to   The moment to stop counting at (exclusive), or null for no upper bound
+     * @return The histogram, empty if there are no posts in the range
+     */
+    public ActivityHistogram getActivityHistogram(LocalDateTime from, LocalDateTime to) {
+        ActivityHistogram histogram = new ActivityHistogram();
+        String query = "SELECT EXTRACT(HOUR FROM timestamp) AS hourOfDay, "
+                + "ISO_DAY_OF_WEEK(timestamp) AS dayOfWeek, COUNT(*) AS posts "
+                + "FROM postDB WHERE isDeleted = FALSE"
+                + (from != null ? " AND timestamp >= ?" : "")
+                + (to != null ? " AND timestamp < ?" : "")
+                + " GROUP BY hourOfDay, dayOfWeek";
+        try (Connection conn = pool.borrow();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            int index = 1;
+            if (from != null) pstmt.setObject(index++, from);
+            if (to != null) pstmt.setObject(index, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next())
+                    histogram.add(rs.getInt("hourOfDay"), DayOfWeek.of(rs.getInt("dayOfWeek")), rs.getInt("posts"));
             }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
+        return histogram;
+    }
 
-        // Format to readable 12-hour AM/PM string
-        String amPm = (peakHour >= 12) ? "PM" : "AM";
-        int displayHour = (peakHour % 12 == 0) ? 12 : (peakHour % 12);
-        return displayHour + ":00 " + amPm;
+    /*******
+     * <p> Method: getPeakActivityTime() </p>
+     * <p> Description: Finds the most frequent hour of activity for the Discussion
+     * Dashboard (Epic 4) from getActivityHistogram(). </p>
+     *
+     * @return The busiest hour as a 12-hour time such as "2:00 PM", or "N/A" if there are no posts
+     */
+    public String getPeakActivityTime() {
+        return getActivityHistogram().getPeakHourLabel();
     }
 }
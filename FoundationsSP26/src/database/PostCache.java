@@ -0,0 +1,173 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import entityClasses.Post;
+
+/*******
+ * <p> Title: PostCache Class </p>
+ *
+ * <p> Description: A bounded, least-recently-used cache in front of getPostById() and
+ * getRepliesForPost(). The Model looks a post up before every edit, delete and resolve, and
+ * the reply list is re-read on every selection, so most of those reads are for the same
+ * handful of hot threads. </p>
+ *
+ * <p> Entries are dropped by the Database write methods as they happen: a change to a post
+ * drops that post and, if it is a reply, the cached reply list of its parent; a new reply
+ * drops its parent's list. To know a reply's parent without a query, the cache remembers
+ * the parent of every reply held in a cached list. </p>
+ *
+ * <p> Every invalidation bumps an epoch. A reader notes the epoch before querying and its
+ * result is only stored if no invalidation happened meanwhile, so a read that raced a write
+ * can never put the old row back. Post is mutable, so callers always get copies. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Copies keep rootPostId
+ */
+class PostCache {
+
+	/** Posts kept before the least recently used one is evicted. */
+	static final int DEFAULT_POST_CAPACITY = 2048;
+
+	/** Reply lists kept before the least recently used one is evicted. */
+	static final int DEFAULT_REPLY_CAPACITY = 512;
+
+	private final LinkedHashMap<Integer, Post> posts;
+	private final LinkedHashMap<Integer, List<Post>> replies;
+	private final HashMap<Integer, Integer> replyParents = new HashMap<>();	// reply id -> parent id
+	private long epoch = 0;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	PostCache() {
+		this(DEFAULT_POST_CAPACITY, DEFAULT_REPLY_CAPACITY);
+	}
+
+	PostCache(int postCapacity, int replyCapacity) {
+		posts = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Post> eldest) {
+				return size() > postCapacity;
+			}
+		};
+		replies = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, List<Post>> eldest) {
+				if (size() <= replyCapacity) return false;
+				forgetParents(eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * @return the epoch to hand back to {@link #putPost} or {@link #putReplies}
+	 */
+	synchronized long epoch() {
+		return epoch;
+	}
+
+	/**
+	 * @return a copy of the cached post, or null on a miss
+	 */
+	synchronized Post getPost(int id) {
+		Post post = posts.get(id);
+		count(post != null);
+		return post == null ? null : copy(post);
+	}
+
+	/**
+	 * Stores a post read from the database, unless something was invalidated since the
+	 * reader took {@code seenEpoch}.
+	 */
+	synchronized void putPost(Post post, long seenEpoch) {
+		if (post != null && seenEpoch == epoch) posts.put(post.getId(), copy(post));
+	}
+
+	/**
+	 * @return copies of the cached replies, or null on a miss
+	 */
+	synchronized ArrayList<Post> getReplies(int parentPostId) {
+		List<Post> list = replies.get(parentPostId);
+		count(list != null);
+		return list == null ? null : copyAll(list);
+	}
+
+	/**
+	 * Stores a reply list read from the database, unless something was invalidated since
+	 * the reader took {@code seenEpoch}.
+	 */
+	synchronized void putReplies(int parentPostId, List<Post> list, long seenEpoch) {
+		if (seenEpoch != epoch) return;
+		List<Post> previous = replies.put(parentPostId, copyAll(list));
+		if (previous != null) forgetParents(previous);
+		for (Post reply : list) replyParents.put(reply.getId(), parentPostId);
+	}
+
+	/**
+	 * Drops a post that has changed, and the cached reply list it appears in, if any.
+	 */
+	synchronized void invalidatePost(int id) {
+		epoch++;
+		posts.remove(id);
+		Integer parent = replyParents.get(id);
+		if (parent != null) dropReplies(parent);
+	}
+
+	/**
+	 * Drops the cached reply list of a post that has gained or lost a reply.
+	 */
+	synchronized void invalidateReplies(int parentPostId) {
+		epoch++;
+		dropReplies(parentPostId);
+	}
+
+	/**
+	 * Empties the cache, for example when the tables are dropped.
+	 */
+	synchronized void clear() {
+		epoch++;
+		posts.clear();
+		replies.clear();
+		replyParents.clear();
+	}
+
+	long getHits() {
+		return hits.get();
+	}
+
+	long getMisses() {
+		return misses.get();
+	}
+
+	private void dropReplies(int parentPostId) {
+		List<Post> list = replies.remove(parentPostId);
+		if (list != null) forgetParents(list);
+	}
+
+	private void forgetParents(List<Post> list) {
+		for (Post reply : list) replyParents.remove(reply.getId());
+	}
+
+	private void count(boolean hit) {
+		(hit ? hits : misses).incrementAndGet();
+	}
+
+	private static ArrayList<Post> copyAll(List<Post> list) {
+		ArrayList<Post> copies = new ArrayList<>(list.size());
+		for (Post post : list) copies.add(copy(post));
+		return copies;
+	}
+
+	private static Post copy(Post p) {
+		return new Post(p);
+	}
+}
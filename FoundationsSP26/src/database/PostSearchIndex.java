@@ -0,0 +1,372 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*******
+ * <p> Title: PostSearchIndex Class </p>
+ *
+ * <p> Description: An in-memory inverted index over the title and body of every searchable
+ * post (top-level and not deleted). {@link Database#searchPosts(String)} used to run
+ * {@code LOWER(body) LIKE '%kw%'}, which reads every body on every search; this index maps
+ * each word to the posts containing it, so a search only touches the posts that can match
+ * and ranks them with BM25. </p>
+ *
+ * <p> Query syntax: </p>
+ * <ul>
+ *   <li> Words separated by spaces must all appear (AND). </li>
+ *   <li> {@code OR} in capitals between two words or phrases accepts either one. </li>
+ *   <li> {@code "double quotes"} match the words as an exact, adjacent phrase. </li>
+ *   <li> A single word of three or more letters also matches longer words that start
+ *        with it, so "arraylist" finds "ArrayLists" the way the old substring search did.
+ *        Those prefix matches score lower than exact ones. </li>
+ * </ul>
+ *
+ * <p> The index is kept current by the Database write methods and is safe to search from
+ * several threads while another thread updates it. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Phrase postings are a typed List rather than a raw array
+ */
+class PostSearchIndex {
+
+	// BM25 tuning, the usual defaults
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+
+	/** Weight given to a word that only matched as a prefix of the query word. */
+	private static final double PREFIX_WEIGHT = 0.5;
+
+	/** Shortest query word that is also expanded as a prefix. */
+	private static final int MIN_PREFIX_LENGTH = 3;
+
+	// word -> (post id -> positions of the word in that post, ascending)
+	private final TreeMap<String, HashMap<Integer, int[]>> postings = new TreeMap<>();
+	// post id -> the distinct words it contains, so a post can be removed again
+	private final HashMap<Integer, String[]> postWords = new HashMap<>();
+	// post id -> number of words in the post
+	private final HashMap<Integer, Integer> postLengths = new HashMap<>();
+	private long totalLength = 0;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/*******
+	 * <p> Method: add(int, String, String) </p>
+	 *
+	 * <p> Description: Indexes a post, replacing whatever was indexed for it before. </p>
+	 *
+	 * @param id    The post id
+	 * @param title The post title
+	 * @param body  The post body
+	 */
+	void add(int id, String title, String body) {
+		List<String> titleWords = tokenize(title);
+		List<String> bodyWords = tokenize(body);
+
+		// Positions per word. The body starts one past the title so a phrase cannot span both.
+		HashMap<String, ArrayList<Integer>> positions = new HashMap<>();
+		int pos = 0;
+		for (String w : titleWords) positions.computeIfAbsent(w, _ -> new ArrayList<>()).add(pos++);
+		pos++;
+		for (String w : bodyWords) positions.computeIfAbsent(w, _ -> new ArrayList<>()).add(pos++);
+
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+			for (Map.Entry<String, ArrayList<Integer>> e : positions.entrySet()) {
+				ArrayList<Integer> list = e.getValue();
+				int[] p = new int[list.size()];
+				for (int i = 0; i < p.length; i++) p[i] = list.get(i);
+				postings.computeIfAbsent(e.getKey(), _ -> new HashMap<>()).put(id, p);
+			}
+			int length = titleWords.size() + bodyWords.size();
+			postWords.put(id, positions.keySet().toArray(new String[0]));
+			postLengths.put(id, length);
+			totalLength += length;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*******
+	 * <p> Method: update(int, String, String) </p>
+	 *
+	 * <p> Description: Re-indexes a post after an edit. Posts that are not in the index
+	 * (replies and deleted posts) stay out of it. </p>
+	 *
+	 * @param id    The post id
+	 * @param title The new title
+	 * @param body  The new body
+	 */
+	void update(int id, String title, String body) {
+		lock.readLock().lock();
+		try {
+			if (!postLengths.containsKey(id)) return;
+		} finally {
+			lock.readLock().unlock();
+		}
+		add(id, title, body);
+	}
+
+	/*******
+	 * <p> Method: remove(int) </p>
+	 *
+	 * @param id The post to drop from the index; unknown ids are ignored
+	 */
+	void remove(int id) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void removeLocked(int id) {
+		String[] words = postWords.remove(id);
+		if (words == null) return;
+		for (String w : words) {
+			HashMap<Integer, int[]> posts = postings.get(w);
+			posts.remove(id);
+			if (posts.isEmpty()) postings.remove(w);
+		}
+		totalLength -= postLengths.remove(id);
+	}
+
+	/*******
+	 * <p> Method: size() </p>
+	 *
+	 * @return The number of posts in the index
+	 */
+	int size() {
+		lock.readLock().lock();
+		try {
+			return postLengths.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*******
+	 * <p> Method: search(String, int) </p>
+	 *
+	 * <p> Description: Runs a query and returns the ids of the best matching posts, best
+	 * first. Equal scores are ordered newest (highest id) first. </p>
+	 *
+	 * @param query The query text, in the syntax described on the class
+	 * @param limit The most ids to return
+	 * @return Matching post ids in rank order; empty if nothing matches or the query has no words
+	 */
+	List<Integer> search(String query, int limit) {
+		List<List<String[]>> clauses = parse(query);
+		if (clauses.isEmpty()) return new ArrayList<>();
+
+		lock.readLock().lock();
+		try {
+			HashMap<Integer, Double> result = null;
+			for (List<String[]> clause : clauses) {
+				HashMap<Integer, Double> matches = new HashMap<>();
+				for (String[] alternative : clause)
+					scoreAlternative(alternative, matches);
+				if (result == null) {
+					result = matches;
+				} else {
+					// AND: keep posts matched by every clause, adding up their scores
+					HashMap<Integer, Double> both = new HashMap<>();
+					HashMap<Integer, Double> small = result.size() <= matches.size() ? result : matches;
+					HashMap<Integer, Double> large = small == result ? matches : result;
+					for (Map.Entry<Integer, Double> e : small.entrySet()) {
+						Double other = large.get(e.getKey());
+						if (other != null) both.put(e.getKey(), e.getValue() + other);
+					}
+					result = both;
+				}
+				if (result.isEmpty()) break;
+			}
+			return topIds(result, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * Adds the BM25 score of every post matching one word or phrase into the given map.
+	 */
+	private void scoreAlternative(String[] words, HashMap<Integer, Double> scores) {
+		if (words.length == 1) {
+			String word = words[0];
+			HashMap<Integer, int[]> exact = postings.get(word);
+			if (exact != null) addTermScores(exact, 1.0, scores);
+			if (word.length() >= MIN_PREFIX_LENGTH) {
+				SortedMap<String, HashMap<Integer, int[]>> longer =
+						postings.subMap(word + Character.MIN_VALUE, word + Character.MAX_VALUE);
+				for (HashMap<Integer, int[]> posts : longer.values())
+					addTermScores(posts, PREFIX_WEIGHT, scores);
+			}
+			return;
+		}
+
+		// Phrase: every word must be present, then check the positions line up
+		List<HashMap<Integer, int[]>> lists = phrasePostings(words);
+		if (lists == null) return;
+		HashMap<Integer, int[]> rarest = lists.get(0);
+		for (HashMap<Integer, int[]> list : lists)
+			if (list.size() < rarest.size()) rarest = list;
+		for (Integer id : rarest.keySet()) {
+			if (!containsPhrase(lists, id)) continue;
+			double score = 0;
+			for (HashMap<Integer, int[]> list : lists)
+				score += bm25(list.get(id).length, postLengths.get(id), list.size());
+			scores.merge(id, score, Double::sum);
+		}
+	}
+
+	private List<HashMap<Integer, int[]>> phrasePostings(String[] words) {
+		List<HashMap<Integer, int[]>> lists = new ArrayList<>(words.length);
+		for (String word : words) {
+			HashMap<Integer, int[]> list = postings.get(word);
+			if (list == null) return null;
+			lists.add(list);
+		}
+		return lists;
+	}
+
+	private static boolean containsPhrase(List<HashMap<Integer, int[]>> lists, int id) {
+		int[][] positions = new int[lists.size()][];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = lists.get(i).get(id);
+			if (positions[i] == null) return false;
+		}
+		for (int start : positions[0]) {
+			boolean all = true;
+			for (int i = 1; i < positions.length && all; i++)
+				all = Arrays.binarySearch(positions[i], start + i) >= 0;
+			if (all) return true;
+		}
+		return false;
+	}
+
+	private void addTermScores(HashMap<Integer, int[]> posts, double weight, HashMap<Integer, Double> scores) {
+		int df = posts.size();
+		for (Map.Entry<Integer, int[]> e : posts.entrySet()) {
+			int id = e.getKey();
+			scores.merge(id, weight * bm25(e.getValue().length, postLengths.get(id), df), Double::sum);
+		}
+	}
+
+	private double bm25(int termFrequency, int postLength, int documentFrequency) {
+		int n = postLengths.size();
+		double averageLength = n == 0 ? 1 : (double) totalLength / n;
+		double idf = Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+		double tf = termFrequency * (K1 + 1)
+				/ (termFrequency + K1 * (1 - B + B * postLength / averageLength));
+		return idf * tf;
+	}
+
+	private static List<Integer> topIds(HashMap<Integer, Double> scores, int limit) {
+		Comparator<Map.Entry<Integer, Double>> better =
+				Map.Entry.<Integer, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+		// Min-heap of the best "limit" entries seen so far
+		PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(better);
+		for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+			best.add(e);
+			if (best.size() > limit) best.poll();
+		}
+		ArrayList<Integer> ids = new ArrayList<>(best.size());
+		while (!best.isEmpty()) ids.add(best.poll().getKey());
+		Collections.reverse(ids);
+		return ids;
+	}
+
+	/*******
+	 * <p> Method: parse(String) </p>
+	 *
+	 * <p> Description: Splits a query into AND clauses, each a list of OR alternatives, each
+	 * alternative the words of one term or phrase. An unquoted chunk that breaks into several
+	 * words (like "e.g." or "ArrayList<String>") is treated as a phrase. </p>
+	 *
+	 * @param query The raw query text; null is treated as empty
+	 * @return The parsed clauses; empty if the query has no searchable words
+	 */
+	static List<List<String[]>> parse(String query) {
+		ArrayList<List<String[]>> clauses = new ArrayList<>();
+		if (query == null) return clauses;
+
+		// First split into raw chunks: quoted phrases, the OR operator, and plain words
+		ArrayList<String> chunks = new ArrayList<>();
+		ArrayList<Boolean> quoted = new ArrayList<>();
+		int i = 0;
+		while (i < query.length()) {
+			char c = query.charAt(i);
+			if (Character.isWhitespace(c)) { i++; continue; }
+			int end;
+			if (c == '"') {
+				end = query.indexOf('"', i + 1);
+				if (end < 0) end = query.length();
+				chunks.add(query.substring(i + 1, end));
+				quoted.add(true);
+				i = end + 1;
+			} else {
+				end = i;
+				while (end < query.length() && !Character.isWhitespace(query.charAt(end))) end++;
+				chunks.add(query.substring(i, end));
+				quoted.add(false);
+				i = end;
+			}
+		}
+
+		ArrayList<String[]> current = null;
+		boolean joinWithPrevious = false;
+		for (int k = 0; k < chunks.size(); k++) {
+			if (!quoted.get(k) && chunks.get(k).equals("OR")) {
+				joinWithPrevious = current != null;
+				continue;
+			}
+			List<String> words = tokenize(chunks.get(k));
+			if (words.isEmpty()) continue;
+			String[] alternative = words.toArray(new String[0]);
+			if (joinWithPrevious) {
+				current.add(alternative);
+			} else {
+				current = new ArrayList<>();
+				current.add(alternative);
+				clauses.add(current);
+			}
+			joinWithPrevious = false;
+		}
+		return clauses;
+	}
+
+	/*******
+	 * <p> Method: tokenize(String) </p>
+	 *
+	 * @param text Any text; null gives no words
+	 * @return The lower-case runs of letters and digits in the text, in order
+	 */
+	static List<String> tokenize(String text) {
+		ArrayList<String> words = new ArrayList<>();
+		if (text == null) return words;
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				words.add(text.substring(start, i).toLowerCase());
+				start = -1;
+			}
+		}
+		return words;
+	}
+}
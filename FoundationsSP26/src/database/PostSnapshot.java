@@ -0,0 +1,267 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import entityClasses.ActivityHistogram;
+import entityClasses.DiscussionStatistics;
+import entityClasses.Post;
+import entityClasses.StringDictionary;
+
+/*******
+ * <p> Title: PostSnapshot Class </p>
+ *
+ * <p> Description: A read-only, column-by-column copy of postDB for staff reporting. Each
+ * column is a primitive array indexed by row (rows in id order): id, parent id, the row
+ * of the parent, the author as its code in {@link Post#AUTHORS}, reply count, and the
+ * hour and weekday of the post. The post type and the deleted, resolved and endorsed flags
+ * are BitSets. The Rule of 3 counts, the dashboard statistics and the unresolved list are
+ * then plain loops over these arrays. They do not touch H2 or create Post objects, so
+ * staff reports no longer compete with students' writes on the live table. </p>
+ *
+ * <p> The copy is as of the moment {@link Database#getAnalyticsSnapshot()} took it, and
+ * the Database takes a new one once it is older than
+ * {@value Database#ANALYTICS_MAX_AGE_MILLIS} ms. For an exact live figure, such as grading
+ * a single student, use the SQL methods. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Authors are Post.AUTHORS codes rather than a dictionary of its own
+ */
+public class PostSnapshot {
+
+	/** Reads every column the snapshot keeps, in row order. */
+	static final String LOAD_QUERY = "SELECT id, parentPostId, authorUsername, postType, isDeleted, "
+			+ "isResolved, isInstructorEndorsed, replyCount, EXTRACT(HOUR FROM timestamp) AS hourOfDay, "
+			+ "ISO_DAY_OF_WEEK(timestamp) AS dayOfWeek FROM postDB ORDER BY id";
+
+	// Rows H2 hands back per fetch while loading
+	private static final int FETCH_SIZE = 1000;
+
+	private final Instant takenAt;
+	private final int size;
+	private final int[] ids;
+	private final int[] parents;		// parentPostId, -1 for a top-level post
+	private final int[] parentRows;		// row of the parent, -1 if top-level or the parent is gone
+	private final int[] authors;		// code in Post.AUTHORS
+	private final int[] replyCounts;
+	private final int[] hours;			// 0 to 23
+	private final int[] days;			// 1 (Monday) to 7
+	private final BitSet questions;
+	private final BitSet statements;
+	private final BitSet deleted;
+	private final BitSet resolved;
+	private final BitSet endorsed;
+
+	private PostSnapshot(Instant takenAt, int size, int[] ids, int[] parents, int[] authors,
+			int[] replyCounts, int[] hours, int[] days, BitSet questions, BitSet statements, BitSet deleted, BitSet resolved, BitSet endorsed) {
+		this.takenAt = takenAt;
+		this.size = size;
+		this.ids = ids;
+		this.parents = parents;
+		this.authors = authors;
+		this.replyCounts = replyCounts;
+		this.hours = hours;
+		this.days = days;
+		this.questions = questions;
+		this.statements = statements;
+		this.deleted = deleted;
+		this.resolved = resolved;
+		this.endorsed = endorsed;
+		// ids are ascending, so a parent's row is a binary search away
+		parentRows = new int[size];
+		for (int row = 0; row < size; row++) {
+			int found = parents[row] == -1 ? -1 : Arrays.binarySearch(ids, 0, size, parents[row]);
+			parentRows[row] = found >= 0 ? found : -1;
+		}
+	}
+
+	/*******
+	 * <p> Method: empty() </p>
+	 *
+	 * @return A snapshot of an empty board, for when postDB cannot be read
+	 */
+	static PostSnapshot empty() {
+		return new PostSnapshot(Instant.now(), 0, new int[0], new int[0], new int[0],
+				new int[0], new int[0], new int[0], new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+				new BitSet());
+	}
+
+	/*******
+	 * <p> Method: load(Connection) </p>
+	 * <p> Description: Copies postDB into columns with one forward-only read. </p>
+	 *
+	 * @param conn A borrowed connection
+	 * @return The new snapshot
+	 * @throws SQLException if postDB cannot be read
+	 */
+	static PostSnapshot load(Connection conn) throws SQLException {
+		Instant takenAt = Instant.now();
+		int capacity = 1024;
+		int[] ids = new int[capacity], parents = new int[capacity], authors = new int[capacity];
+		int[] replyCounts = new int[capacity], hours = new int[capacity], days = new int[capacity];
+		BitSet questions = new BitSet(), statements = new BitSet();
+		BitSet deleted = new BitSet(), resolved = new BitSet(), endorsed = new BitSet();
+
+		int row = 0;
+		try (PreparedStatement pstmt = conn.prepareStatement(LOAD_QUERY,
+				ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			pstmt.setFetchSize(FETCH_SIZE);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					if (row == capacity) {
+						capacity *= 2;
+						ids = Arrays.copyOf(ids, capacity);
+						parents = Arrays.copyOf(parents, capacity);
+						authors = Arrays.copyOf(authors, capacity);
+						replyCounts = Arrays.copyOf(replyCounts, capacity);
+						hours = Arrays.copyOf(hours, capacity);
+						days = Arrays.copyOf(days, capacity);
+					}
+					ids[row] = rs.getInt(1);
+					parents[row] = rs.getInt(2);
+					authors[row] = Post.AUTHORS.encode(rs.getString(3));
+					String type = rs.getString(4);
+					if ("QUESTION".equalsIgnoreCase(type)) questions.set(row);
+					else if ("STATEMENT".equalsIgnoreCase(type)) statements.set(row);
+					if (rs.getBoolean(5)) deleted.set(row);
+					if (rs.getBoolean(6)) resolved.set(row);
+					if (rs.getBoolean(7)) endorsed.set(row);
+					replyCounts[row] = rs.getInt(8);
+					hours[row] = rs.getInt(9);
+					days[row] = rs.getInt(10);
+					row++;
+				}
+			}
+		}
+		return new PostSnapshot(takenAt, row, ids, parents, authors, replyCounts, hours, days, questions, statements, deleted, resolved, endorsed);
+	}
+
+	/** @return When the snapshot was taken */
+	public Instant getTakenAt() { return takenAt; }
+	/** @return The number of posts in the snapshot, deleted ones included */
+	public int size() { return size; }
+
+	/*******
+	 * <p> Method: getStatistics() </p>
+	 * <p> Description: The staff dashboard numbers, as {@link Database#getStatisticsSnapshot()}
+	 * reports them, from one pass over the columns. </p>
+	 *
+	 * @return Active question, statement, unresolved and endorsed counts and the activity histogram
+	 */
+	public DiscussionStatistics getStatistics() {
+		int questionCount = 0, statementCount = 0, unresolvedCount = 0, endorsedCount = 0;
+		int[][] activity = new int[24][7];
+		for (int row = deleted.nextClearBit(0); row < size; row = deleted.nextClearBit(row + 1)) {
+			if (questions.get(row)) {
+				questionCount++;
+				if (parents[row] == -1 && replyCounts[row] == 0) unresolvedCount++;
+			} else if (statements.get(row)) {
+				statementCount++;
+			}
+			if (endorsed.get(row)) endorsedCount++;
+			activity[hours[row]][days[row] - 1]++;
+		}
+		ActivityHistogram histogram = new ActivityHistogram();
+		for (int hour = 0; hour < 24; hour++)
+			for (int day = 0; day < 7; day++)
+				if (activity[hour][day] != 0) histogram.add(hour, DayOfWeek.of(day + 1), activity[hour][day]);
+		return new DiscussionStatistics(questionCount, statementCount, unresolvedCount, endorsedCount, histogram);
+	}
+
+	/*******
+	 * <p> Method: getUnresolvedQuestionIds() </p>
+	 *
+	 * @return The ids of active top-level questions with no replies, newest first, as
+	 *         {@link Database#getUnresolvedQuestions()} lists them
+	 */
+	public int[] getUnresolvedQuestionIds() {
+		int[] found = new int[size];
+		int count = 0;
+		for (int row = size - 1; row >= 0; row--) {
+			if (questions.get(row) && !deleted.get(row) && parents[row] == -1 && replyCounts[row] == 0)
+				found[count++] = ids[row];
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	/*******
+	 * <p> Method: countResolvedQuestions() </p>
+	 *
+	 * @return Active top-level questions their author has marked resolved
+	 */
+	public int countResolvedQuestions() {
+		BitSet rows = (BitSet) questions.clone();
+		rows.and(resolved);
+		rows.andNot(deleted);
+		int count = 0;
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1))
+			if (parents[row] == -1) count++;
+		return count;
+	}
+
+	/*******
+	 * <p> Method: getDistinctPeers(String) </p>
+	 * <p> Description: How many other students a student has replied to, counted the way
+	 * {@code RuleOfThreeVerifier.verifyStudentInteraction} counts them: every reply whose
+	 * parent is still stored, deleted or not, and never the student's own posts. </p>
+	 *
+	 * @param username The student
+	 * @return The number of distinct peers; 0 if the student has not posted
+	 */
+	public int getDistinctPeers(String username) {
+		int student = Post.AUTHORS.codeOf(username);
+		if (student == StringDictionary.NO_CODE) return 0;
+		BitSet peers = new BitSet();
+		for (int row = 0; row < size; row++) {
+			if (authors[row] != student || parentRows[row] < 0) continue;
+			int peer = authors[parentRows[row]];
+			if (peer != student && peer != StringDictionary.NO_CODE) peers.set(peer);
+		}
+		return peers.cardinality();
+	}
+
+	/*******
+	 * <p> Method: getDistinctPeerCounts() </p>
+	 * <p> Description: {@link #getDistinctPeers(String)} for every student at once, as
+	 * {@code RuleOfThreeVerifier.getDistinctPeerCounts} returns it. Each (student, peer)
+	 * pair is packed into a long, and the pairs are sorted so the distinct peers of each
+	 * student are adjacent. </p>
+	 *
+	 * @return Map of username to distinct peer count; students with no peer replies are absent
+	 */
+	public HashMap<String, Integer> getDistinctPeerCounts() {
+		long[] pairs = new long[size];
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (parentRows[row] < 0) continue;
+			int student = authors[row], peer = authors[parentRows[row]];
+			// As in SQL, a post with no author is nobody's peer
+			if (student == StringDictionary.NO_CODE || peer == StringDictionary.NO_CODE) continue;
+			if (peer != student) pairs[count++] = ((long) student << 32) | peer;
+		}
+		Arrays.sort(pairs, 0, count);
+
+		HashMap<String, Integer> counts = new HashMap<>();
+		int i = 0;
+		while (i < count) {
+			int student = (int) (pairs[i] >>> 32);
+			int peers = 0;
+			long previous = -1;
+			for (; i < count && (int) (pairs[i] >>> 32) == student; i++) {
+				if (pairs[i] != previous) peers++;
+				previous = pairs[i];
+			}
+			counts.put(Post.AUTHORS.decode(student), peers);
+		}
+		return counts;
+	}
+}
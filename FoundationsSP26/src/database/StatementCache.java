@@ -0,0 +1,162 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*******
+ * <p> Title: StatementCache Class </p>
+ *
+ * <p> Description: A least-recently-used cache of PreparedStatements for one pooled
+ * connection, keyed by SQL text. Database methods still write
+ * {@code try (PreparedStatement pstmt = conn.prepareStatement(query))}, but on a pooled
+ * connection that call is answered from here, so hot paths like isPostRead() or
+ * getPostById() are parsed by H2 once per connection instead of once per call. </p>
+ *
+ * <p> The statement handed out is a thin wrapper: closing it closes any ResultSet it left
+ * open, clears the parameters and leaves the real statement open for the next caller. If the same SQL is requested again
+ * while the cached statement is still open (a nested call iterating its ResultSet), a plain
+ * uncached statement is returned so the outer ResultSet is never closed underneath it. </p>
+ *
+ * <p> A cache belongs to one physical connection and a connection is only ever used by the
+ * thread that borrowed it, so the cache itself needs no locking. The hit and miss counters
+ * are shared by every connection in the pool. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Returning a statement closes the ResultSet it left open
+ */
+class StatementCache {
+
+	/** Statements kept per connection before the least recently used one is closed. */
+	static final int DEFAULT_CAPACITY = 64;
+
+	private final Connection physical;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final LinkedHashMap<String, Entry> entries;
+
+	/*
+	 * A cached statement and whether a caller currently has it open.
+	 */
+	private static class Entry {
+		final PreparedStatement statement;
+		boolean inUse = false;
+		Entry(PreparedStatement statement) { this.statement = statement; }
+	}
+
+	/*******
+	 * <p> Method: StatementCache(Connection, int, AtomicLong, AtomicLong) </p>
+	 *
+	 * @param physical The real connection statements are prepared on
+	 * @param capacity The most statements to keep open on this connection
+	 * @param hits     Pool-wide counter incremented on every cache hit
+	 * @param misses   Pool-wide counter incremented on every cache miss
+	 */
+	StatementCache(Connection physical, int capacity, AtomicLong hits, AtomicLong misses) {
+		this.physical = physical;
+		this.hits = hits;
+		this.misses = misses;
+		// Access-ordered map: iteration order is least to most recently used
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() <= capacity || eldest.getValue().inUse) return false;
+				closeQuietly(eldest.getValue().statement);
+				return true;
+			}
+		};
+	}
+
+	/*******
+	 * <p> Method: prepare(String) </p>
+	 *
+	 * <p> Description: Returns a statement for the SQL text, reusing a cached one when it
+	 * is free. </p>
+	 *
+	 * @param sql The SQL text
+	 * @return A PreparedStatement whose close() hands it back to the cache
+	 * @throws SQLException if H2 cannot prepare the statement
+	 */
+	PreparedStatement prepare(String sql) throws SQLException {
+		Entry entry = entries.get(sql);
+		if (entry != null && entry.inUse) {
+			// Nested use of the same SQL - do not disturb the outer caller's ResultSet
+			misses.incrementAndGet();
+			return physical.prepareStatement(sql);
+		}
+		if (entry == null || entry.statement.isClosed()) {
+			misses.incrementAndGet();
+			entry = new Entry(physical.prepareStatement(sql));
+			entries.put(sql, entry);
+		} else {
+			hits.incrementAndGet();
+		}
+		entry.inUse = true;
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new Lent(entry));
+	}
+
+	private static void closeQuietly(PreparedStatement ps) {
+		try {
+			ps.close();
+		} catch (SQLException ignored) {
+			// The connection is probably already closed
+		}
+	}
+
+	/*
+	 * The proxy behind a statement lent from the cache.
+	 */
+	private static class Lent implements InvocationHandler {
+		private final Entry entry;
+		private boolean returned = false;
+
+		Lent(Entry entry) { this.entry = entry; }
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (!returned) {
+						returned = true;
+						entry.inUse = false;
+						try {
+							// A caller that did not close its ResultSet must not leave it
+							// holding a cursor until the statement is lent out again
+							ResultSet open = entry.statement.getResultSet();
+							if (open != null) open.close();
+							entry.statement.clearParameters();
+						} catch (SQLException e) {
+							closeQuietly(entry.statement);
+						}
+					}
+					return null;
+				case "isClosed":
+					return returned || entry.statement.isClosed();
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					if (returned) throw new SQLException("Statement has been closed.");
+					try {
+						return method.invoke(entry.statement, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+
+import entityClasses.ActivityHistogram;
+import entityClasses.DiscussionStatistics;
+
+/*******
+ * <p> Title: StatisticsAggregator Class </p>
+ *
+ * <p> Description: In-memory counters behind the staff dashboard: active questions and
+ * statements, unresolved questions, endorsed posts, and an hour-by-weekday activity grid.
+ * It is seeded from one grouped query and then kept current by the Database write methods,
+ * so reading the dashboard never scans postDB. </p>
+ *
+ * <p> Every counter is a sum over posts of what a single post contributes, which depends
+ * only on that post's row (see {@link Facts}). A write therefore reads the rows it changes
+ * before and after, and the aggregator swaps the old contributions for the new ones. The
+ * Database does this while holding its post write lock, the same lock the seed query runs
+ * under, so no write is counted twice or missed. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    readFacts() closes its ResultSet
+ */
+class StatisticsAggregator {
+
+	/** Reads the columns a post's contribution depends on; bind the post ID. */
+	static final String FACTS_QUERY = "SELECT postType, isDeleted, isInstructorEndorsed, parentPostId, "
+			+ "replyCount, timestamp FROM postDB WHERE id = ?";
+
+	/*
+	 * What one post contributes. Deleted posts contribute nothing; an unresolved question
+	 * is an active top-level question with no replies, as in getUnresolvedQuestions().
+	 */
+	record Facts(String postType, boolean deleted, boolean endorsed, boolean topLevel, int replyCount,
+			LocalDateTime timestamp) {}
+
+	private int questions;
+	private int statements;
+	private int unresolved;
+	private int endorsed;
+	private final int[][] activity = new int[24][7];	// [hour][day - 1]
+
+	/*******
+	 * <p> Method: seed(Connection) </p>
+	 * <p> Description: Builds the counters from the posts currently stored, grouped by type
+	 * and by the hour and weekday of the post. </p>
+	 *
+	 * @param conn A borrowed connection
+	 * @return The seeded aggregator
+	 * @throws SQLException if the query fails
+	 */
+	static StatisticsAggregator seed(Connection conn) throws SQLException {
+		StatisticsAggregator stats = new StatisticsAggregator();
+		String query = "SELECT postType, EXTRACT(HOUR FROM timestamp) AS hourOfDay, "
+				+ "ISO_DAY_OF_WEEK(timestamp) AS dayOfWeek, COUNT(*) AS posts, "
+				+ "SUM(CASE WHEN parentPostId = -1 AND replyCount = 0 THEN 1 ELSE 0 END) AS unanswered, "
+				+ "SUM(CASE WHEN isInstructorEndorsed THEN 1 ELSE 0 END) AS endorsed "
+				+ "FROM postDB WHERE isDeleted = FALSE GROUP BY postType, hourOfDay, dayOfWeek";
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
+			while (rs.next()) {
+				int posts = rs.getInt("posts");
+				String type = rs.getString("postType");
+				if ("QUESTION".equalsIgnoreCase(type)) {
+					stats.questions += posts;
+					stats.unresolved += rs.getInt("unanswered");
+				} else if ("STATEMENT".equalsIgnoreCase(type)) {
+					stats.statements += posts;
+				}
+				stats.endorsed += rs.getInt("endorsed");
+				stats.activity[rs.getInt("hourOfDay")][rs.getInt("dayOfWeek") - 1] += posts;
+			}
+		}
+		return stats;
+	}
+
+	/*******
+	 * <p> Method: readFacts(Connection, int) </p>
+	 *
+	 * @param conn   The connection (and transaction) the write is using
+	 * @param postId The post to read
+	 * @return The post's facts, or null if there is no such post
+	 * @throws SQLException if the query fails
+	 */
+	static Facts readFacts(Connection conn, int postId) throws SQLException {
+		try (PreparedStatement pstmt = conn.prepareStatement(FACTS_QUERY)) {
+			pstmt.setInt(1, postId);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				if (!rs.next()) return null;
+				return new Facts(rs.getString("postType"), rs.getBoolean("isDeleted"),
+						rs.getBoolean("isInstructorEndorsed"), rs.getInt("parentPostId") == -1,
+						rs.getInt("replyCount"), rs.getObject("timestamp", LocalDateTime.class));
+			}
+		}
+	}
+
+	/*******
+	 * <p> Method: replace(Facts, Facts) </p>
+	 * <p> Description: Swaps a post's old contribution for its new one. Either side may be
+	 * null, for a post that was just created or has just been hard-deleted. </p>
+	 */
+	synchronized void replace(Facts before, Facts after) {
+		apply(before, -1);
+		apply(after, 1);
+	}
+
+	private void apply(Facts post, int sign) {
+		if (post == null || post.deleted()) return;
+		boolean question = "QUESTION".equalsIgnoreCase(post.postType());
+		if (question) questions += sign;
+		else if ("STATEMENT".equalsIgnoreCase(post.postType())) statements += sign;
+		if (question && post.topLevel() && post.replyCount() == 0) unresolved += sign;
+		if (post.endorsed()) endorsed += sign;
+		activity[post.timestamp().getHour()][post.timestamp().getDayOfWeek().getValue() - 1] += sign;
+	}
+
+	/*******
+	 * <p> Method: snapshot() </p>
+	 *
+	 * @return An immutable copy of the current counters
+	 */
+	synchronized DiscussionStatistics snapshot() {
+		ActivityHistogram histogram = new ActivityHistogram();
+		for (int hour = 0; hour < activity.length; hour++)
+			for (int day = 0; day < activity[hour].length; day++)
+				if (activity[hour][day] != 0) histogram.add(hour, DayOfWeek.of(day + 1), activity[hour][day]);
+		return new DiscussionStatistics(questions, statements, unresolved, endorsed, histogram);
+	}
+}
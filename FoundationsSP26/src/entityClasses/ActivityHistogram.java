@@ -0,0 +1,88 @@
+package entityClasses;
+
+import java.time.DayOfWeek;
+
+/*******
+ * <p> Title: ActivityHistogram Class </p>
+ *
+ * <p> Description: How many posts were made in each hour of the day and on each day of the
+ * week. The Database fills it from one grouped query, so the Discussion Dashboard only ever
+ * handles 24 + 7 counters however many posts the board has. </p>
+ *
+ * <p> <b>Testing:</b> Validated through {@code Database.getActivityHistogram} in
+ * {@link testing.TestTP3Features}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version for the SQL-side peak activity query
+ * @version 1.01    2026-10-18    Added getPeakHourLabel() for the dashboard
+ */
+public class ActivityHistogram {
+
+    private final int[] hourCounts = new int[24];
+    private final int[] dayCounts = new int[7];    // index 0 is Monday, as in DayOfWeek
+    private int total;
+
+    /*******
+     * <p> Method: add(int, DayOfWeek, int) </p>
+     * <p> Description: Adds the posts of one (hour, day) group from the grouped query. </p>
+     *
+     * @param hour  Hour of the day, 0 to 23
+     * @param day   Day of the week
+     * @param posts Number of posts in that hour on that day
+     */
+    public void add(int hour, DayOfWeek day, int posts) {
+        hourCounts[hour] += posts;
+        dayCounts[day.getValue() - 1] += posts;
+        total += posts;
+    }
+
+    /** @return Posts made during the given hour of the day (0 to 23) */
+    public int getHourCount(int hour) { return hourCounts[hour]; }
+    /** @return Posts made on the given day of the week */
+    public int getDayCount(DayOfWeek day) { return dayCounts[day.getValue() - 1]; }
+    /** @return Total number of posts counted */
+    public int getTotal() { return total; }
+
+    /*******
+     * <p> Method: getPeakHour() </p>
+     *
+     * @return The busiest hour of the day (the earliest one on a tie), or -1 if there are no posts
+     */
+    public int getPeakHour() {
+        if (total == 0) return -1;
+        int peak = 0;
+        for (int hour = 1; hour < hourCounts.length; hour++)
+            if (hourCounts[hour] > hourCounts[peak]) peak = hour;
+        return peak;
+    }
+
+    /*******
+     * <p> Method: getPeakHourLabel() </p>
+     *
+     * @return The busiest hour as a 12-hour time such as "2:00 PM", or "N/A" if there are no posts
+     */
+    public String getPeakHourLabel() {
+        int peakHour = getPeakHour();
+        if (peakHour < 0) return "N/A";
+
+        // Format to readable 12-hour AM/PM string
+        String amPm = (peakHour >= 12) ? "PM" : "AM";
+        int displayHour = (peakHour % 12 == 0) ? 12 : (peakHour % 12);
+        return displayHour + ":00 " + amPm;
+    }
+
+    /*******
+     * <p> Method: getPeakDay() </p>
+     *
+     * @return The busiest day of the week (the earliest from Monday on a tie), or null if
+     *         there are no posts
+     */
+    public DayOfWeek getPeakDay() {
+        if (total == 0) return null;
+        int peak = 0;
+        for (int day = 1; day < dayCounts.length; day++)
+            if (dayCounts[day] > dayCounts[peak]) peak = day;
+        return DayOfWeek.of(peak + 1);
+    }
+}
@@ -0,0 +1,54 @@
+package entityClasses;
+
+/*******
+ * <p> Title: DiscussionStatistics Class </p>
+ *
+ * <p> Description: A point-in-time copy of the staff dashboard numbers: active questions and
+ * statements (replies included), unresolved questions, endorsed posts and when posts are
+ * made. The Database keeps these counters up to date as posts change, so taking a snapshot
+ * does not query postDB. </p>
+ *
+ * <p> <b>Testing:</b> Validated through {@code Database.getStatisticsSnapshot} in
+ * {@link testing.TestTP3Features}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version for the incrementally maintained dashboard
+ */
+public class DiscussionStatistics {
+
+    private final int questionCount;
+    private final int statementCount;
+    private final int unresolvedCount;
+    private final int endorsedCount;
+    private final ActivityHistogram activity;
+
+    /*******
+     * <p> Method: DiscussionStatistics(int, int, int, int, ActivityHistogram) </p>
+     *
+     * @param questionCount   Active QUESTION posts
+     * @param statementCount  Active STATEMENT posts
+     * @param unresolvedCount Active top-level questions with no replies
+     * @param endorsedCount   Active posts with an instructor endorsement
+     * @param activity        Active posts by hour of day and day of week; not modified afterwards
+     */
+    public DiscussionStatistics(int questionCount, int statementCount, int unresolvedCount,
+            int endorsedCount, ActivityHistogram activity) {
+        this.questionCount = questionCount;
+        this.statementCount = statementCount;
+        this.unresolvedCount = unresolvedCount;
+        this.endorsedCount = endorsedCount;
+        this.activity = activity;
+    }
+
+    /** @return Number of active questions */
+    public int getQuestionCount() { return questionCount; }
+    /** @return Number of active statements */
+    public int getStatementCount() { return statementCount; }
+    /** @return Number of unresolved questions (Epic 8) */
+    public int getUnresolvedCount() { return unresolvedCount; }
+    /** @return Number of endorsed posts (Staff Epic 3) */
+    public int getEndorsedCount() { return endorsedCount; }
+    /** @return Posts by hour of day and day of week */
+    public ActivityHistogram getActivity() { return activity; }
+}
@@ -35,6 +35,10 @@ import java.time.format.DateTimeFormatter;
  * @version 1.00    2026-03-21    Initial TP2 implementation
  * @version 1.01    2026-03-21    Added thread, isDeleted; fixed postType to QUESTION/STATEMENT
  * @version 2.00	2026-04-22	  Added TP3 instructor metadata fields (Endorsements and Staff Comments)
+ * @version 2.01    2026-10-18    Added rootPostId, the thread a reply belongs to at any depth
+ * @version 2.02    2026-10-18    Author, post type and thread kept as codes into shared dictionaries
+ * @version 2.03    2026-10-18    Added a copy constructor that keeps every field, rootPostId included
+ * @version 2.04    2026-10-18    A new post has no rootPostId until the database assigns one
  */
 public class Post {
 
@@ -50,6 +54,17 @@ public class Post {
     /** Default thread name — all posts go here until staff creates more threads in TP3. */
     public static final String DEFAULT_THREAD = "General";
 
+    // --- Shared dictionaries ---
+    // Every post with the same author, type or thread shares one copy of the string, and
+    // the int code stored in the post compares in a single instruction.
+
+    /** Usernames of post authors. */
+    public static final StringDictionary AUTHORS = new StringDictionary();
+    /** Post types: "QUESTION" and "STATEMENT". */
+    public static final StringDictionary POST_TYPES = new StringDictionary();
+    /** Thread names. */
+    public static final StringDictionary THREADS = new StringDictionary();
+
     // --- Attributes ---
 
     /** Database primary key. Set to 0 before insert; DB assigns the real ID. */
@@ -65,7 +80,7 @@ public class Post {
      * Username of whoever created this post. Used to enforce ownership so only the
      * author can edit/delete. Also needed for TP3 Staff Epics to track participation.
      */
-    private String authorUsername;
+    private int authorCode;
 
     /** Timestamp of when the post was created, formatted as "yyyy-MM-dd HH:mm:ss". */
     private String timestamp;
@@ -75,13 +90,13 @@ public class Post {
      * Students post questions and statements per the user stories.
      * Stored as String instead of enum to keep H2 compatibility simple.
      */
-    private String postType;
+    private int postTypeCode;
 
     /**
      * The discussion thread this post belongs to. Defaults to "General".
      * Thread creation is a staff function (TP3) — students just post to existing threads.
      */
-    private String thread;
+    private int threadCode;
 
     /**
      * ID of the parent post if this is a reply, or NO_PARENT (-1) if top-level.
@@ -89,6 +104,12 @@ public class Post {
      */
     private int parentPostId;
 
+    /**
+     * ID of the top-level post this post's thread starts from: its own ID if it is
+     * top-level, and the same for every reply in the thread however deeply nested.
+     */
+    private int rootPostId;
+
     /** Whether this question has been answered/resolved. Only matters for QUESTION type. */
     private boolean isResolved;
 
@@ -146,10 +167,11 @@ public class Post {
         this.id = 0; // DB sets the real ID on INSERT
         this.title = title;
         this.body = body;
-        this.authorUsername = authorUsername;
-        this.postType = postType;
+        this.authorCode = AUTHORS.encode(authorUsername);
+        this.postTypeCode = POST_TYPES.encode(postType);
         this.parentPostId = parentPostId;
-        this.thread = (thread == null || thread.trim().isEmpty()) ? DEFAULT_THREAD : thread;
+        this.rootPostId = 0; // DB sets the real root on INSERT; a reply's may be above its parent
+        this.threadCode = THREADS.encode((thread == null || thread.trim().isEmpty()) ? DEFAULT_THREAD : thread);
         this.timestamp = LocalDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         this.isResolved = false;
@@ -183,15 +205,42 @@ public class Post {
         this.id = id;
         this.title = title;
         this.body = body;
-        this.authorUsername = authorUsername;
+        this.authorCode = AUTHORS.encode(authorUsername);
         this.timestamp = timestamp;
-        this.postType = postType;
-        this.thread = (thread == null || thread.trim().isEmpty()) ? DEFAULT_THREAD : thread;
+        this.postTypeCode = POST_TYPES.encode(postType);
+        this.threadCode = THREADS.encode((thread == null || thread.trim().isEmpty()) ? DEFAULT_THREAD : thread);
         this.parentPostId = parentPostId;
+        // Only right for a top-level post or a direct reply; the Database sets the stored root
+        this.rootPostId = (parentPostId == NO_PARENT) ? id : parentPostId;
         this.isResolved = isResolved;
         this.isDeleted = isDeleted;
         this.isInstructorEndorsed = isInstructorEndorsed;
-        this.staffComment = (staffComment == null) ? "" : staffComment;
+        this.staffComment = (staffComment == null || staffComment.isEmpty()) ? "" : staffComment;
+    }
+
+    /*******
+     * <p> Method: Post(Post) — copy constructor </p>
+     *
+     * <p> Description: An independent copy of another post, every field included. Used by
+     * the Database's post cache so callers can change the posts they are handed without
+     * changing the cached ones. </p>
+     *
+     * @param other The post to copy
+     */
+    public Post(Post other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.body = other.body;
+        this.authorCode = other.authorCode;
+        this.timestamp = other.timestamp;
+        this.postTypeCode = other.postTypeCode;
+        this.threadCode = other.threadCode;
+        this.parentPostId = other.parentPostId;
+        this.rootPostId = other.rootPostId;
+        this.isResolved = other.isResolved;
+        this.isDeleted = other.isDeleted;
+        this.isInstructorEndorsed = other.isInstructorEndorsed;
+        this.staffComment = other.staffComment;
     }
 
 
@@ -248,15 +297,19 @@ public class Post {
     /** @return The full post body text */
     public String getBody() { return body; }
     /** @return The username of the student who created this post */
-    public String getAuthorUsername() { return authorUsername; }
+    public String getAuthorUsername() { return AUTHORS.decode(authorCode); }
     /** @return The creation timestamp string */
     public String getTimestamp() { return timestamp; }
     /** @return The post type ("QUESTION" or "STATEMENT") */
-    public String getPostType() { return postType; }
+    public String getPostType() { return POST_TYPES.decode(postTypeCode); }
     /** @return The thread this post belongs to */
-    public String getThread() { return thread; }
+    public String getThread() { return THREADS.decode(threadCode); }
+    /** @return The author's code in {@link #AUTHORS}; equal codes mean the same author */
+    public int getAuthorCode() { return authorCode; }
     /** @return The parent post ID, or NO_PARENT (-1) if top-level */
     public int getParentPostId() { return parentPostId; }
+    /** @return The ID of the top-level post of this post's thread, or 0 for a post not yet saved */
+    public int getRootPostId() { return rootPostId; }
     /** @return True if this question has been marked as resolved */
     public boolean isResolved() { return isResolved; }
     /** @return True if the author has soft-deleted this post */
@@ -277,13 +330,15 @@ public class Post {
     public void setResolved(boolean resolved) { this.isResolved = resolved; }
     /** @param deleted True marks this post as soft-deleted */
     public void setDeleted(boolean deleted) { this.isDeleted = deleted; }
+    /** @param rootPostId The thread's top-level post ID, as stored in postDB */
+    public void setRootPostId(int rootPostId) { this.rootPostId = rootPostId; }
     /** @param thread The thread name for this post */
-    public void setThread(String thread) { this.thread = thread; }
+    public void setThread(String thread) { this.threadCode = THREADS.encode(thread); }
     /** @param endorsed True if an instructor endorsed this. For TP3. */
     public void setInstructorEndorsed(boolean endorsed) { this.isInstructorEndorsed = endorsed; }
     /** @param staffComment Staff feedback. Stores "" instead of null. For TP3. */
     public void setStaffComment(String staffComment) {
-        this.staffComment = (staffComment == null) ? "" : staffComment;
+        this.staffComment = (staffComment == null || staffComment.isEmpty()) ? "" : staffComment;
     }
 
 
@@ -297,6 +352,18 @@ public class Post {
      */
     public boolean isReply() { return parentPostId != NO_PARENT; }
 
+    /*******
+     * <p> Method: isAuthoredBy(String) </p>
+     * <p> Description: Ownership check for edit and delete. A username that has never
+     * written a post has no code, so it cannot own this one. </p>
+     * @param username The user to check
+     * @return True if that user wrote this post
+     */
+    public boolean isAuthoredBy(String username) {
+        int code = AUTHORS.codeOf(username);
+        return code != StringDictionary.NO_CODE && code == authorCode;
+    }
+
     /*******
      * <p> Method: toString() </p>
      * <p> Description: Human-readable summary for debugging and test output. </p>
@@ -304,8 +371,8 @@ public class Post {
      */
     @Override
     public String toString() {
-        return "Post[id=" + id + ", type=" + postType + ", thread=" + thread
-                + ", author=" + authorUsername + ", title='" + title
+        return "Post[id=" + id + ", type=" + getPostType() + ", thread=" + getThread()
+                + ", author=" + getAuthorUsername() + ", title='" + title
                 + "', parentId=" + parentPostId + ", resolved=" + isResolved
                 + ", deleted=" + isDeleted + ", timestamp=" + timestamp + "]";
     }
@@ -0,0 +1,46 @@
+package entityClasses;
+
+/*******
+ * <p> Title: PostBadge Class </p>
+ *
+ * <p> Description: The per-user list badges for one post: whether the user has read it, how
+ * many replies it has, and how many of those replies the user has not read yet. The Database
+ * computes these for a whole page of posts in one query so the post ListView does not need
+ * three round trips per row. </p>
+ *
+ * <p> <b>Testing:</b> Validated through {@code Database.getPostBadges} in
+ * {@link testing.TestDatabaseScaling}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version for batched list rendering
+ */
+public class PostBadge {
+
+    /** Badge used for posts the batch query did not return (e.g. a post deleted mid-refresh). */
+    public static final PostBadge NONE = new PostBadge(false, 0, 0);
+
+    private final boolean isRead;
+    private final int replyCount;
+    private final int unreadReplyCount;
+
+    /*******
+     * <p> Method: PostBadge(boolean, int, int) </p>
+     *
+     * @param isRead           True if the user has opened the post
+     * @param replyCount       Total number of replies to the post
+     * @param unreadReplyCount Number of replies the user has not read
+     */
+    public PostBadge(boolean isRead, int replyCount, int unreadReplyCount) {
+        this.isRead = isRead;
+        this.replyCount = replyCount;
+        this.unreadReplyCount = unreadReplyCount;
+    }
+
+    /** @return True if the user has read this post */
+    public boolean isRead() { return isRead; }
+    /** @return Total reply count for this post */
+    public int getReplyCount() { return replyCount; }
+    /** @return Replies to this post the user has not read yet */
+    public int getUnreadReplyCount() { return unreadReplyCount; }
+}
@@ -0,0 +1,121 @@
+package entityClasses;
+
+/*******
+ * <p> Title: PostSummary Class </p>
+ *
+ * <p> Description: The part of a {@link Post} that a row in a post list shows: its title,
+ * type, author, thread, flags and place in the thread. The body (up to
+ * {@value Post#MAX_BODY_LEN} characters) and the staff comment are left out, so a page of
+ * summaries reads a fraction of the data a page of posts does and holds far less memory.
+ * Opening a post from the list fetches the full Post by its ID. </p>
+ *
+ * <p> Author, type and thread are codes into the same dictionaries Post uses, so a summary
+ * and the full post share their strings. Summaries are read-only snapshots; after an edit
+ * the list is reloaded rather than updated in place. </p>
+ *
+ * <p> <b>Testing:</b> Validated against the full-post list queries in
+ * {@link testing.TestDatabaseScaling}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ */
+public class PostSummary {
+
+    private final int id;
+    private final String title;
+    private final int authorCode;
+    private final String timestamp;
+    private final int postTypeCode;
+    private final int threadCode;
+    private final int parentPostId;
+    private final int rootPostId;
+    private final boolean isResolved;
+    private final boolean isDeleted;
+    private final boolean isInstructorEndorsed;
+
+    /*******
+     * <p> Method: PostSummary(int, String, ...) </p>
+     * <p> Description: Used by the Database layer when reading the list columns of a row. </p>
+     *
+     * @param id                   DB primary key
+     * @param title                Post title
+     * @param authorUsername       Author's username
+     * @param timestamp            Creation timestamp string
+     * @param postType             "QUESTION" or "STATEMENT"
+     * @param thread               Thread name
+     * @param parentPostId         Parent ID or Post.NO_PARENT
+     * @param rootPostId           ID of the thread's top-level post
+     * @param isResolved           Whether marked resolved
+     * @param isDeleted            Whether soft-deleted
+     * @param isInstructorEndorsed Whether endorsed by staff
+     */
+    public PostSummary(int id, String title, String authorUsername, String timestamp, String postType,
+                       String thread, int parentPostId, int rootPostId, boolean isResolved,
+                       boolean isDeleted, boolean isInstructorEndorsed) {
+        this.id = id;
+        this.title = title;
+        this.authorCode = Post.AUTHORS.encode(authorUsername);
+        this.timestamp = timestamp;
+        this.postTypeCode = Post.POST_TYPES.encode(postType);
+        this.threadCode = Post.THREADS.encode(
+                (thread == null || thread.trim().isEmpty()) ? Post.DEFAULT_THREAD : thread);
+        this.parentPostId = parentPostId;
+        this.rootPostId = rootPostId;
+        this.isResolved = isResolved;
+        this.isDeleted = isDeleted;
+        this.isInstructorEndorsed = isInstructorEndorsed;
+    }
+
+    /*******
+     * <p> Method: of(Post) </p>
+     *
+     * @param post A full post
+     * @return Its summary
+     */
+    public static PostSummary of(Post post) {
+        return new PostSummary(post.getId(), post.getTitle(), post.getAuthorUsername(), post.getTimestamp(),
+                post.getPostType(), post.getThread(), post.getParentPostId(), post.getRootPostId(),
+                post.isResolved(), post.isDeleted(), post.isInstructorEndorsed());
+    }
+
+    /** @return The database ID of the post */
+    public int getId() { return id; }
+    /** @return The post title */
+    public String getTitle() { return title; }
+    /** @return The username of the student who created the post */
+    public String getAuthorUsername() { return Post.AUTHORS.decode(authorCode); }
+    /** @return The author's code in {@link Post#AUTHORS} */
+    public int getAuthorCode() { return authorCode; }
+    /** @return The creation timestamp string */
+    public String getTimestamp() { return timestamp; }
+    /** @return The post type ("QUESTION" or "STATEMENT") */
+    public String getPostType() { return Post.POST_TYPES.decode(postTypeCode); }
+    /** @return The thread the post belongs to */
+    public String getThread() { return Post.THREADS.decode(threadCode); }
+    /** @return The parent post ID, or Post.NO_PARENT (-1) if top-level */
+    public int getParentPostId() { return parentPostId; }
+    /** @return The ID of the top-level post of the post's thread */
+    public int getRootPostId() { return rootPostId; }
+    /** @return True if the question has been marked as resolved */
+    public boolean isResolved() { return isResolved; }
+    /** @return True if the author has soft-deleted the post */
+    public boolean isDeleted() { return isDeleted; }
+    /** @return True if an instructor has endorsed the post */
+    public boolean isInstructorEndorsed() { return isInstructorEndorsed; }
+    /** @return True if the post is a reply to another post */
+    public boolean isReply() { return parentPostId != Post.NO_PARENT; }
+
+    /*******
+     * <p> Method: toString() </p>
+     * <p> Description: Human-readable summary for debugging and test output. </p>
+     * @return Formatted string with the fields of this summary
+     */
+    @Override
+    public String toString() {
+        return "PostSummary[id=" + id + ", type=" + getPostType() + ", thread=" + getThread()
+                + ", author=" + getAuthorUsername() + ", title='" + title
+                + "', parentId=" + parentPostId + ", resolved=" + isResolved
+                + ", deleted=" + isDeleted + ", timestamp=" + timestamp + "]";
+    }
+}
@@ -0,0 +1,96 @@
+package entityClasses;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*******
+ * <p> Title: StringDictionary Class </p>
+ *
+ * <p> Description: Gives each distinct string a small int code and keeps one shared copy
+ * of it. {@link Post} keeps its author, post type and thread as codes into the dictionaries
+ * it owns. A board of thousands of posts by a few hundred students then holds each username
+ * once instead of once per post, and two posts have the same author exactly when their
+ * author codes are equal. </p>
+ *
+ * <p> Codes are handed out in order from 0 and never reused; strings are only ever added.
+ * The values stored this way (usernames, the two post types and thread names) are few, so
+ * the dictionary stays small for the life of the program. Encoding and decoding are safe
+ * from any thread. </p>
+ *
+ * <p> <b>Testing:</b> Validated through the posts {@code Database} loads in
+ * {@link testing.TestDatabaseScaling}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ */
+public class StringDictionary {
+
+    /** The code of null, which is never stored. */
+    public static final int NO_CODE = -1;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;   // guarded by this; codes below it are published in values
+
+    /*******
+     * <p> Method: encode(String) </p>
+     * <p> Description: Returns the code of a string, adding it if it is new. </p>
+     *
+     * @param value The string to encode
+     * @return Its code, or NO_CODE for null
+     */
+    public int encode(String value) {
+        if (value == null) return NO_CODE;
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    private synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code != null) return code;   // another thread added it first
+        String[] current = values;
+        if (size == current.length) current = Arrays.copyOf(current, size * 2);
+        current[size] = value;
+        values = current;                // publish before the code can be seen
+        codes.put(value, size);
+        return size++;
+    }
+
+    /*******
+     * <p> Method: decode(int) </p>
+     *
+     * @param code A code returned by {@link #encode(String)}
+     * @return The shared copy of the string, or null for NO_CODE
+     */
+    public String decode(int code) {
+        return code == NO_CODE ? null : values[code];
+    }
+
+    /*******
+     * <p> Method: codeOf(String) </p>
+     * <p> Description: Looks a string up without adding it, for filters: a string that was
+     * never encoded cannot match any post. </p>
+     *
+     * @param value The string to look up
+     * @return Its code, or NO_CODE if it has never been encoded
+     */
+    public int codeOf(String value) {
+        if (value == null) return NO_CODE;
+        Integer code = codes.get(value);
+        return code != null ? code : NO_CODE;
+    }
+
+    /*******
+     * <p> Method: intern(String) </p>
+     *
+     * @param value A string to share
+     * @return The dictionary's copy of an equal string, adding it if it is new
+     */
+    public String intern(String value) {
+        return decode(encode(value));
+    }
+
+    /** @return The number of distinct strings encoded so far */
+    public synchronized int size() { return size; }
+}
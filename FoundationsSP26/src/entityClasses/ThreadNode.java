@@ -0,0 +1,142 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/*******
+ * <p> Title: ThreadNode Class </p>
+ *
+ * <p> Description: One post in the reply tree of a discussion thread. The Database hands
+ * out the top node of each thread with only the top-level post loaded. The first call to
+ * {@link #getChildren()} on it reads the whole thread with one index range read and links
+ * every reply under its parent, at any depth. Threads that are never expanded cost nothing
+ * beyond their first post. A view that shows every thread in full, like the staff board,
+ * asks the Database for trees whose threads were read with the page instead. </p>
+ *
+ * <p> If a thread's top-level post was removed by a moderator, the top node has no post
+ * and its remaining replies hang under it. A reply whose own parent was removed is shown
+ * under the top node as well. </p>
+ *
+ * <p> Expanding a lazily read thread runs a query, so it should happen off the JavaFX
+ * application thread (for example through {@code AsyncDatabase.submit}). </p>
+ *
+ * <p> <b>Testing:</b> Validated through {@code Database.getThreadTrees} in
+ * {@link testing.TestDatabaseScaling}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Added the constructor for threads read with their page
+ * @version 1.02    2026-10-18    Threads read with their page are built by expanded() instead
+ */
+public class ThreadNode {
+
+    private final int threadId;
+    private final Post post;
+    private final int depth;
+    private final IntFunction<List<Post>> loader;   // only the top node loads its thread
+    private List<ThreadNode> children;
+
+    /*******
+     * <p> Method: ThreadNode(int, Post, IntFunction) </p>
+     * <p> Description: The top node of a thread, expanded on first use. </p>
+     *
+     * @param threadId The thread's id: its top-level post's id
+     * @param post     The top-level post, or null if it has been removed
+     * @param loader   Reads every post of a thread, given its id, in ascending id order
+     */
+    public ThreadNode(int threadId, Post post, IntFunction<List<Post>> loader) {
+        this.threadId = threadId;
+        this.post = post;
+        this.depth = 0;
+        this.loader = loader;
+    }
+
+    /*******
+     * <p> Method: expanded(int, Post, List) </p>
+     * <p> Description: The top node of a thread whose posts have already been read; the
+     * replies are linked before it is returned, so expanding it never runs a query. </p>
+     *
+     * @param threadId    The thread's id: its top-level post's id
+     * @param post        The top-level post, or null if it has been removed
+     * @param threadPosts Every post of the thread, in ascending id order
+     * @return The thread's top node, already loaded
+     */
+    public static ThreadNode expanded(int threadId, Post post, List<Post> threadPosts) {
+        ThreadNode node = new ThreadNode(threadId, post, _ -> threadPosts);
+        node.getChildren();
+        return node;
+    }
+
+    private ThreadNode(ThreadNode parent, Post post) {
+        this.threadId = parent.threadId;
+        this.post = post;
+        this.depth = parent.depth + 1;
+        this.loader = null;
+        this.children = new ArrayList<>();
+    }
+
+    /** @return The thread's id: the id of its top-level post */
+    public int getThreadId() { return threadId; }
+    /** @return The post at this node, or null for the top node of a thread whose first post was removed */
+    public Post getPost() { return post; }
+    /** @return 0 for the top-level post, 1 for a reply to it, and so on */
+    public int getDepth() { return depth; }
+
+    /*******
+     * <p> Method: isLoaded() </p>
+     *
+     * @return True once the thread's replies have been read
+     */
+    public synchronized boolean isLoaded() { return children != null; }
+
+    /*******
+     * <p> Method: getChildren() </p>
+     * <p> Description: The direct replies to this post, oldest first. On the top node the
+     * first call reads the thread. </p>
+     *
+     * @return The replies, never null; read-only
+     */
+    public synchronized List<ThreadNode> getChildren() {
+        if (children == null) load();
+        return Collections.unmodifiableList(children);
+    }
+
+    /*******
+     * <p> Method: flatten() </p>
+     * <p> Description: This post followed by all of its replies, depth first: each reply
+     * comes straight after its parent and before the parent's next reply. </p>
+     *
+     * @return The nodes in display order
+     */
+    public List<ThreadNode> flatten() {
+        ArrayList<ThreadNode> nodes = new ArrayList<>();
+        addTo(nodes);
+        return nodes;
+    }
+
+    private void addTo(ArrayList<ThreadNode> nodes) {
+        nodes.add(this);
+        for (ThreadNode child : getChildren()) child.addTo(nodes);
+    }
+
+    /*
+     * Reads the thread and links each reply under its parent. A parent always has a lower id
+     * than its replies, so in id order every parent is placed before its replies arrive.
+     */
+    private void load() {
+        children = new ArrayList<>();
+        HashMap<Integer, ThreadNode> nodes = new HashMap<>();
+        nodes.put(threadId, this);
+        for (Post reply : loader.apply(threadId)) {
+            if (reply.getId() == threadId) continue;
+            ThreadNode parent = nodes.getOrDefault(reply.getParentPostId(), this);
+            ThreadNode node = new ThreadNode(parent, reply);
+            parent.children.add(node);
+            nodes.put(reply.getId(), node);
+        }
+    }
+}
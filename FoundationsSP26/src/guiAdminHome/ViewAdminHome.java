@@ -58,6 +58,7 @@ import javafx.scene.control.CheckBox;
  * @version 1.00    2025-08-17    Initial version
  * @version 1.01	2026-02-08    Changed theUser var to public
  * @version 2.00	2026-04-22    Integrated Staff Grading Dashboard tools for Admin Override (Epic 6).
+ * @version 2.01	2026-10-18    Moderation controls are disabled while their change is saved.
  */
 
 public class ViewAdminHome {
@@ -485,7 +486,7 @@ public class ViewAdminHome {
 		btnSave.setOnAction(e -> {
 			try {
 				int pid = Integer.parseInt(tfPId.getText().trim());
-				guiRole2.ControllerRole2Home.handleSaveStaffComment(pid, tfComment.getText().trim(), lblStatus, listPosts);
+				guiRole2.ControllerRole2Home.handleSaveStaffComment(pid, tfComment.getText().trim(), lblStatus, listPosts, btnSave);
 			} catch (Exception ex) {
 				lblStatus.setText("Error: Invalid numeric ID.");
 				lblStatus.setStyle("-fx-text-fill: red;");
@@ -497,9 +498,7 @@ public class ViewAdminHome {
 		chkEndorse.setOnAction(e -> {
 			try {
 				int pid = Integer.parseInt(tfPId.getText().trim());
-				guiRole2.ControllerRole2Home.handleToggleEndorsement(pid, chkEndorse.isSelected(), listPosts);
-				lblStatus.setText("Endorsement updated.");
-				lblStatus.setStyle("-fx-text-fill: green;");
+				guiRole2.ControllerRole2Home.handleToggleEndorsement(pid, chkEndorse.isSelected(), lblStatus, listPosts, chkEndorse);
 			} catch (Exception ex) {
 				lblStatus.setText("Error: Invalid numeric ID.");
 				lblStatus.setStyle("-fx-text-fill: red;");
@@ -513,7 +512,7 @@ public class ViewAdminHome {
 		btnDelete.setOnAction(e -> {
 			try {
 				int pid = Integer.parseInt(tfPId.getText().trim());
-				guiRole2.ControllerRole2Home.handleDeletePost(pid, lblStatus, listPosts);
+				guiRole2.ControllerRole2Home.handleDeletePost(pid, lblStatus, listPosts, btnDelete);
 			} catch (Exception ex) {
 				lblStatus.setText("Error: Invalid numeric ID.");
 				lblStatus.setStyle("-fx-text-fill: red;");
@@ -1,12 +1,23 @@
 package guiRole2;
 
+import database.AsyncDatabase;
 import database.Database;
+import database.PostSnapshot;
 import prototype.RuleOfThreeVerifier;
+import javafx.application.Platform;
+import javafx.scene.control.ButtonBase;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
-import java.sql.SQLException;
+import entityClasses.DiscussionStatistics;
 import entityClasses.Post;
+import entityClasses.ThreadNode;
+import guiTools.KeyedRows;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /*******
  * <p> Title: ControllerRole2Home Class. </p>
@@ -37,6 +48,18 @@ import java.util.ArrayList;
  * @version 1.00    2025-08-17    Initial version
  * @version 1.01    2025-09-16    Update Javadoc documentation
  * @version 2.00    2026-04-22    Transformed into the Grading Dashboard logic controller for TP3 Staff Epics.
+ * @version 2.01    2026-10-18    The threaded board loads a page of threads at a time as it is scrolled.
+ * @version 2.02    2026-10-18    The performance report grades every student with one batch query.
+ * @version 2.03    2026-10-18    The performance report streams to CSV or gzip CSV off the FX thread.
+ * @version 2.04    2026-10-18    Board, statistics and evaluation queries run off the FX thread.
+ * @version 2.05    2026-10-18    Statistics come from the incrementally maintained snapshot.
+ * @version 2.06    2026-10-18    Board refreshes and staff actions update only the rows that changed.
+ * @version 2.07    2026-10-18    The username search is answered by the database's author index.
+ * @version 2.08    2026-10-18    Board pages are tracked by the stored thread id of each post.
+ * @version 2.09    2026-10-18    Board rows compare authors by their dictionary code.
+ * @version 2.10    2026-10-18    Statistics and the unresolved list come from the analytics snapshot.
+ * @version 2.11    2026-10-18    The threaded board is built from reply trees and indents by depth.
+ * @version 2.12    2026-10-18    Staff comments, endorsements and deletions are written off the FX thread.
  */
 
 public class ControllerRole2Home {
@@ -52,9 +75,16 @@ public class ControllerRole2Home {
 	 */
 	
 	private static Database db;
+	private static AsyncDatabase asyncDb;
 
-    public static void setDatabase(Database database) {
+    /*******
+     * <p> Method: setDatabase </p>
+     * <p> Description: Injects the database, and the async wrapper used for every read the
+     * dashboard makes, so no query runs on the JavaFX application thread. </p>
+     */
+    public static void setDatabase(Database database, AsyncDatabase asyncDatabase) {
         db = database;
+        asyncDb = asyncDatabase;
     }
 
 	/**
@@ -107,71 +137,197 @@ public class ControllerRole2Home {
             resultLabel.setText("System Error: Database not connected.");
             return;
         }
-        try {
-            RuleOfThreeVerifier verifier = new RuleOfThreeVerifier(db);
-            boolean passed = verifier.verifyStudentInteraction(targetUsername);
-            
-            if (passed) {
-                resultLabel.setText(targetUsername + ": PASSED (3+ peers)");
-                resultLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
-            } else {
-                resultLabel.setText(targetUsername + ": FAILED (< 3 peers)");
-                resultLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-            }
-        } catch (SQLException e) {
-            resultLabel.setText("Error: Could not evaluate student.");
-            resultLabel.setStyle("-fx-text-fill: orange;");
-        }
+        resultLabel.setText("Evaluating " + targetUsername + "...");
+        resultLabel.setStyle("-fx-text-fill: #2c3e50;");
+        asyncDb.submit(database -> new RuleOfThreeVerifier(database).verifyStudentInteraction(targetUsername))
+            .whenCompleteAsync((passed, error) -> {
+                if (error != null) {
+                    resultLabel.setText("Error: Could not evaluate student.");
+                    resultLabel.setStyle("-fx-text-fill: orange;");
+                } else if (passed) {
+                    resultLabel.setText(targetUsername + ": PASSED (3+ peers)");
+                    resultLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+                } else {
+                    resultLabel.setText(targetUsername + ": FAILED (< 3 peers)");
+                    resultLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
+                }
+            }, Platform::runLater);
     }
 
-	public static void handleSaveStaffComment(int postId, String comment, Label statusLabel, ListView<String> postListView) {
+	public static void handleSaveStaffComment(int postId, String comment, Label statusLabel,
+            ListView<String> postListView, ButtonBase saveButton) {
         if (db == null || comment == null || comment.trim().isEmpty()) {
             statusLabel.setText("Invalid comment or DB error.");
             return;
         }
-        db.updateStaffComment(postId, comment);
-        statusLabel.setText("Comment saved successfully.");
-        statusLabel.setStyle("-fx-text-fill: green;");
-        refreshPostList(postListView);
+        runStaffWrite(saveButton, statusLabel, database -> database.updateStaffComment(postId, comment), () -> {
+            statusLabel.setText("Comment saved successfully.");
+            statusLabel.setStyle("-fx-text-fill: green;");
+            refreshBoardRow(postListView, postId);
+        }, () -> {});
     }
 
-    public static void handleToggleEndorsement(int postId, boolean isEndorsed, ListView<String> postListView) {
+    public static void handleToggleEndorsement(int postId, boolean isEndorsed, Label statusLabel,
+            ListView<String> postListView, ButtonBase endorseBox) {
         if (db == null) return;
-        db.updateInstructorEndorsement(postId, isEndorsed);
-        refreshPostList(postListView);
+        runStaffWrite(endorseBox, statusLabel, database -> database.updateInstructorEndorsement(postId, isEndorsed), () -> {
+            statusLabel.setText("Endorsement updated.");
+            statusLabel.setStyle("-fx-text-fill: green;");
+            refreshBoardRow(postListView, postId);
+        }, () -> {
+            // Put the check box back as it was, as the view does for a bad ID
+            if (endorseBox instanceof javafx.scene.control.CheckBox box) box.setSelected(!isEndorsed);
+        });
     }
     
     /*******
      * <p> Method: handleDeletePost </p>
      * <p> Description: Triggers the DB deletion and refreshes the dashboard UI. </p>
      */
-    public static void handleDeletePost(int postId, Label statusLabel, ListView<String> postListView) {
+    public static void handleDeletePost(int postId, Label statusLabel, ListView<String> postListView,
+            ButtonBase deleteButton) {
         if (db == null) {
             statusLabel.setText("Error: Database not connected.");
             return;
         }
-        
-        db.deletePost(postId);
-        statusLabel.setText("Post " + postId + " forcefully deleted.");
-        statusLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-        refreshPostList(postListView);
+
+        runStaffWrite(deleteButton, statusLabel, database -> database.deletePost(postId), () -> {
+            statusLabel.setText("Post " + postId + " forcefully deleted.");
+            statusLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
+            if (!isShowing(postListView)) {
+                refreshPostList(postListView);
+                return;
+            }
+            boardRows.keepingViewPosition(postListView, () -> boardRows.remove(postId));
+            refreshStatisticsAfterChange();
+        }, () -> {});
+    }
+
+    /** A staff write against the Database, run by runStaffWrite. */
+    @FunctionalInterface
+    private interface StaffWrite {
+        void run(Database database);
+    }
+
+    /*
+     * Runs a staff write on the async wrapper with its control disabled, so the dashboard
+     * keeps painting while the write waits for the post lock (held, for example, while the
+     * search index is first built). The control is enabled again on the FX thread before
+     * the result is shown; onFailure runs after an error is reported.
+     */
+    private static void runStaffWrite(ButtonBase control, Label statusLabel, StaffWrite write, Runnable onSuccess,
+            Runnable onFailure) {
+        control.setDisable(true);
+        statusLabel.setText("Saving...");
+        statusLabel.setStyle("-fx-text-fill: #2c3e50;");
+        asyncDb.submit(database -> {
+                write.run(database);
+                return null;
+            })
+            .whenCompleteAsync((_, error) -> {
+                control.setDisable(false);
+                if (error != null) {
+                    error.printStackTrace();
+                    statusLabel.setText("Error: the change could not be saved.");
+                    statusLabel.setStyle("-fx-text-fill: red;");
+                    onFailure.run();
+                    return;
+                }
+                onSuccess.run();
+            }, Platform::runLater);
+    }
+
+    /*
+     * Re-renders the one row a staff action changed, leaving the rest of the board, the
+     * selection and the scroll position alone. Falls back to a full refresh if the board
+     * is not showing yet.
+     */
+    private static void refreshBoardRow(ListView<String> postListView, int postId) {
+        if (!isShowing(postListView)) {
+            refreshPostList(postListView);
+            return;
+        }
+        refreshStatisticsAfterChange();
+        int generation = boardGeneration;
+        asyncDb.getPostById(postId)
+            .whenCompleteAsync((post, error) -> {
+                if (generation != boardGeneration) return;
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
+                }
+                if (post == null) boardRows.remove(postId);
+                else boardRows.update(post);
+            }, Platform::runLater);
     }
     
     private static Label dashboardStatsLabel;
-    
+
+    // How the dashboard shows when its statistics snapshot was taken
+    private static final DateTimeFormatter SNAPSHOT_TIME =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    /** Threads fetched per page of the staff board. */
+    static final int THREAD_PAGE_SIZE = 25;
+
+    // Paging state for the threaded board. Only the unfiltered board is paged; the
+    // username search and the unresolved list turn paging off.
+    private static boolean boardPaged = false;
+    private static boolean moreThreadsAvailable = false;
+    private static boolean loadingThreads = false;
+    private static int lastThreadId = 0;
+    private static int loadedThreads = 0;
+
+    // Bumped each time the board is replaced, so a page that arrives for an older board
+    // (for example after the user switched to the unresolved list) is dropped.
+    private static int boardGeneration = 0;
+
+    // The rows on screen, keyed by post ID, and which list they belong to ("threaded",
+    // "unresolved", or "search:" plus the filter). Refreshing the same list diffs the new
+    // posts against these rows instead of rebuilding every row.
+    private static KeyedRows<Post> boardRows;
+    private static String boardMode;
+
+    // Depth in its reply tree of each post on the threaded board: 0 for a thread's first
+    // post, 1 for a reply to it, and so on. Set from the trees as pages arrive.
+    private static final HashMap<Integer, Integer> boardDepths = new HashMap<>();
+
     /*******
      * <p> Method: refreshStatistics </p>
-     * <p> Description: Fetches the Question/Statement counts and Peak Activity Time. </p>
+     * <p> Description: Shows the Question/Statement counts, unresolved and endorsed counts
+     * and Peak Activity Time, from the Database's analytics snapshot, with the time the
+     * snapshot was taken. The snapshot is reused for up to a minute, so opening and
+     * refreshing the dashboard does not scan the post table each time. </p>
      */
     public static void refreshStatistics(Label statsLabel) {
         dashboardStatsLabel = statsLabel;
         if (db == null || dashboardStatsLabel == null) return;
-        
-        int[] stats = db.getDiscussionStatistics();
-        String peakTime = db.getPeakActivityTime();
-        
-        dashboardStatsLabel.setText("📊 Board Stats | Questions: " + stats[0] + " | Statements: " + stats[1] + " | Peak Activity: " + peakTime);
-        dashboardStatsLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #2c3e50; -fx-font-size: 14px;");
+        showStatistics(asyncDb.getAnalyticsSnapshot());
+    }
+
+    /*
+     * After a staff action, takes a new snapshot so the numbers include the change the
+     * staff member just made.
+     */
+    private static void refreshStatisticsAfterChange() {
+        if (db == null || dashboardStatsLabel == null) return;
+        showStatistics(asyncDb.refreshAnalyticsSnapshot());
+    }
+
+    private static void showStatistics(CompletableFuture<PostSnapshot> snapshot) {
+        Label target = dashboardStatsLabel;
+        snapshot.whenCompleteAsync((taken, error) -> {
+                if (error != null) {
+                    error.printStackTrace();
+                    return; // keep the previous numbers
+                }
+                DiscussionStatistics stats = taken.getStatistics();
+                target.setText("📊 Board Stats | Questions: " + stats.getQuestionCount() + " | Statements: " + stats.getStatementCount()
+                        + " | Unresolved: " + stats.getUnresolvedCount() + " | Endorsed: " + stats.getEndorsedCount()
+                        + " | Peak Activity: " + stats.getActivity().getPeakHourLabel()
+                        + " | As of " + SNAPSHOT_TIME.format(taken.getTakenAt()));
+                target.setStyle("-fx-font-weight: bold; -fx-text-fill: #2c3e50; -fx-font-size: 14px;");
+            }, Platform::runLater);
     }
 
     /*******
@@ -185,7 +341,12 @@ public class ControllerRole2Home {
 
     /*******
      * <p> Method: refreshPostList (Overloaded for Epic 5 Search) </p>
-     * <p> Description: Repopulates the board, applying an optional username filter. </p>
+     * <p> Description: Repopulates the board, applying an optional username filter. Without
+     * a filter the board shows each thread as its reply tree, each reply indented under the
+     * post it answers; only the first page of threads is loaded, and loadMorePosts()
+     * appends the rest as the list is scrolled. Refreshing the list that is already showing re-reads the
+     * posts it holds and updates only the rows that changed, keeping the selection and
+     * scroll position. </p>
      */
     public static void refreshPostList(ListView<String> postListView, String searchUsername) {
         if (db == null || postListView == null) return;
@@ -195,38 +356,196 @@ public class ControllerRole2Home {
             refreshStatistics(dashboardStatsLabel);
         }
         
-        postListView.getItems().clear();
-        
-        java.util.ArrayList<entityClasses.Post> posts = db.getContextualThreadedPosts();
         boolean isSearching = searchUsername != null && !searchUsername.trim().isEmpty();
-        
-        for (entityClasses.Post p : posts) {
-            // EPIC 5 FILTER: If we are searching, skip posts that don't match the username
-            if (isSearching && !p.getAuthorUsername().toLowerCase().contains(searchUsername.trim().toLowerCase())) {
-                continue; 
+
+        if (!isSearching) {
+            boolean reloading = isShowing(postListView, "threaded");
+            int generation = startBoard(postListView, "threaded");
+            boardPaged = true;
+            if (reloading) {
+                reloadThreads(postListView, generation);
+                return;
             }
-            
-            // If we are searching, flatten the indent so the results align neatly. 
-            // If not searching, keep the Epic 2 contextual thread indent!
-            String indent = (!isSearching && p.getParentPostId() != -1) ? "    ↳ " : "";
-            
-            String displayStr = indent + "ID: " + p.getId() + " | " + p.getAuthorUsername() + ": " + p.getBody();
-            
-            if (p.isInstructorEndorsed()) {
-                displayStr += "\n" + indent + "[★ INSTRUCTOR ENDORSED]";
+            lastThreadId = 0;
+            loadedThreads = 0;
+            moreThreadsAvailable = true;
+            loadMorePosts(postListView);
+            return;
+        }
+        String filter = searchUsername.trim().toLowerCase();
+        int generation = startBoard(postListView, "search:" + filter);
+        boardPaged = false;
+        
+        // EPIC 5 FILTER: only the posts of authors whose username contains the search text
+        showBoard(postListView, generation, asyncDb.getThreadedPostsByAuthor(filter, false));
+    }
+
+    /*******
+     * <p> Method: loadMorePosts </p>
+     * <p> Description: Appends the next page of threads to the unfiltered board. Called when
+     * the board is first shown and again each time it is scrolled near the bottom; does
+     * nothing while a search or the unresolved list is showing, or after the last page. </p>
+     */
+    public static void loadMorePosts(ListView<String> postListView) {
+        if (db == null || postListView == null || !boardPaged || !moreThreadsAvailable || loadingThreads
+                || !isShowing(postListView)) return;
+
+        int generation = boardGeneration;
+        loadingThreads = true;
+        asyncDb.getThreadTrees(lastThreadId, THREAD_PAGE_SIZE, true)
+            .whenCompleteAsync((trees, error) -> {
+                loadingThreads = false;
+                if (generation != boardGeneration) return;
+                if (error != null) {
+                    error.printStackTrace();
+                    postListView.setPlaceholder(new Label("Could not load posts."));
+                    return;
+                }
+                ArrayList<Post> page = flattenThreads(trees);
+                loadedThreads += trees.size();
+                moreThreadsAvailable = trees.size() == THREAD_PAGE_SIZE;
+                boardRows.append(page);
+                if (page.isEmpty()) postListView.setPlaceholder(new Label("No posts yet."));
+            }, Platform::runLater);
+    }
+
+    /*
+     * Re-reads every thread the threaded board has loaded so far, as one range from the
+     * first thread, and diffs it against the rows on screen.
+     */
+    private static void reloadThreads(ListView<String> postListView, int generation) {
+        int threadCount = Math.max(loadedThreads, THREAD_PAGE_SIZE);
+        loadingThreads = true;
+        asyncDb.getThreadTrees(0, threadCount, true)
+            .whenCompleteAsync((trees, error) -> {
+                loadingThreads = false;
+                if (generation != boardGeneration) return;
+                if (error != null) {
+                    error.printStackTrace();
+                    return; // keep the rows already showing
+                }
+                lastThreadId = 0;
+                boardDepths.clear();
+                ArrayList<Post> posts = flattenThreads(trees);
+                loadedThreads = trees.size();
+                moreThreadsAvailable = loadedThreads == threadCount;
+                boardRows.keepingViewPosition(postListView, () -> boardRows.showAll(posts));
+                if (posts.isEmpty()) postListView.setPlaceholder(new Label("No posts yet."));
+            }, Platform::runLater);
+    }
+
+    /*
+     * Lays a page of reply trees out as board rows, each post followed by its replies,
+     * records each post's depth for the indent, and moves lastThreadId past the page. The
+     * trees arrive expanded, so this runs no queries. A thread whose first post was
+     * removed shows its replies only.
+     */
+    private static ArrayList<Post> flattenThreads(ArrayList<ThreadNode> trees) {
+        ArrayList<Post> posts = new ArrayList<>();
+        for (ThreadNode tree : trees) {
+            for (ThreadNode node : tree.flatten()) {
+                if (node.getPost() == null) continue;
+                posts.add(node.getPost());
+                boardDepths.put(node.getPost().getId(), node.getDepth());
             }
-            if (p.getStaffComment() != null && !p.getStaffComment().trim().isEmpty()) {
-                displayStr += "\n" + indent + "[Staff Note: " + p.getStaffComment() + "]";
+            lastThreadId = Math.max(lastThreadId, tree.getThreadId());
+        }
+        return posts;
+    }
+
+    /*
+     * The threaded board's indent for a post: none for a thread's first post, and one step
+     * further in for each level of reply.
+     */
+    private static String threadIndent(Post p) {
+        int depth = boardDepths.getOrDefault(p.getId(), p.getParentPostId() == -1 ? 0 : 1);
+        return depth == 0 ? "" : "    ".repeat(depth) + "↳ ";
+    }
+
+    /*
+     * True if the rows on screen belong to this ListView (the view builds a new one each
+     * time the page is shown), optionally also requiring the given list mode.
+     */
+    private static boolean isShowing(ListView<String> postListView) {
+        return boardRows != null && boardRows.getItems() == postListView.getItems();
+    }
+
+    private static boolean isShowing(ListView<String> postListView, String mode) {
+        return isShowing(postListView) && mode.equals(boardMode);
+    }
+
+    /*
+     * Prepares the board for a list. Switching to a different list (or a new ListView)
+     * empties it and shows a loading placeholder until the new rows arrive; refreshing the
+     * list already showing keeps its rows so they can be diffed. Returns the generation the
+     * caller's result must still match when it lands.
+     */
+    private static int startBoard(ListView<String> postListView, String mode) {
+        if (!isShowing(postListView, mode)) {
+            // Keep the Epic 2 contextual thread indent on the threaded board; other lists
+            // are flat so the results align neatly.
+            boolean threaded = mode.equals("threaded");
+            if (threaded) boardDepths.clear();
+            boardRows = new KeyedRows<>(postListView.getItems(), Post::getId,
+                    ControllerRole2Home::sameBoardEntry,
+                    p -> formatBoardEntry(p, threaded ? threadIndent(p) : ""));
+            boardMode = mode;
+            postListView.setPlaceholder(new Label("Loading posts..."));
+        }
+        loadingThreads = false;
+        return ++boardGeneration;
+    }
+
+    /*
+     * Shows the posts of a background query, unless the board has been replaced since it
+     * was requested. Only rows whose post changed are re-rendered.
+     */
+    private static void showBoard(ListView<String> postListView, int generation,
+            CompletableFuture<ArrayList<Post>> query) {
+        query.whenCompleteAsync((posts, error) -> {
+            if (generation != boardGeneration) return;
+            if (error != null) {
+                error.printStackTrace();
+                postListView.setPlaceholder(new Label("Could not load posts."));
+                return;
             }
-            
-            postListView.getItems().add(displayStr);
+            boardRows.keepingViewPosition(postListView, () -> boardRows.showAll(posts));
+            if (posts.isEmpty()) postListView.setPlaceholder(new Label("No matching posts."));
+        }, Platform::runLater);
+    }
+
+    /*
+     * True if two versions of a post render the same board row.
+     */
+    private static boolean sameBoardEntry(Post a, Post b) {
+        return a.getParentPostId() == b.getParentPostId()
+                && a.isInstructorEndorsed() == b.isInstructorEndorsed()
+                && a.getAuthorCode() == b.getAuthorCode()
+                && Objects.equals(a.getBody(), b.getBody())
+                && Objects.equals(a.getStaffComment(), b.getStaffComment());
+    }
+
+    /*
+     * One row of the staff board: the post, its endorsement and any staff note.
+     */
+    private static String formatBoardEntry(entityClasses.Post p, String indent) {
+        String displayStr = indent + "ID: " + p.getId() + " | " + p.getAuthorUsername() + ": " + p.getBody();
+        
+        if (p.isInstructorEndorsed()) {
+            displayStr += "\n" + indent + "[★ INSTRUCTOR ENDORSED]";
+        }
+        if (p.getStaffComment() != null && !p.getStaffComment().trim().isEmpty()) {
+            displayStr += "\n" + indent + "[Staff Note: " + p.getStaffComment() + "]";
         }
+        return displayStr;
     }
     
     /*******
      * <p> Method: handleGenerateReport </p>
      * <p> Description: Generates a CSV report of all students and their Rule of 3 status (Epic 7)
-     * using a FileChooser for the save location. </p>
+     * using a FileChooser for the save location. Choosing a ".csv.gz" name writes it gzip
+     * compressed. The export streams rows from the database on a background thread and
+     * reports progress in the status label, so the dashboard stays responsive. </p>
      */
     public static void handleGenerateReport(Label statusLabel, javafx.stage.Stage stage) {
         if (db == null) {
@@ -235,55 +554,59 @@ public class ControllerRole2Home {
             return;
         }
 
-        try {
-            // Setup the FileChooser
-            javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
-            fileChooser.setTitle("Save Student Performance Report");
-            fileChooser.setInitialFileName("StudentPerformanceReport.csv");
-            fileChooser.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("CSV Files", "*.csv"));
-            
-            // Open the save dialog
-            java.io.File file = fileChooser.showSaveDialog(stage);
-            
-            // Check if the user clicked "Cancel"
-            if (file == null) {
-                statusLabel.setText("Export cancelled.");
-                statusLabel.setStyle("-fx-text-fill: orange;");
-                return;
-            }
+        // Setup the FileChooser
+        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+        fileChooser.setTitle("Save Student Performance Report");
+        fileChooser.setInitialFileName("StudentPerformanceReport.csv");
+        fileChooser.getExtensionFilters().addAll(
+                new javafx.stage.FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new javafx.stage.FileChooser.ExtensionFilter("Compressed CSV Files", "*.csv.gz"));
+        
+        // Open the save dialog
+        java.io.File file = fileChooser.showSaveDialog(stage);
+        
+        // Check if the user clicked "Cancel"
+        if (file == null) {
+            statusLabel.setText("Export cancelled.");
+            statusLabel.setStyle("-fx-text-fill: orange;");
+            return;
+        }
 
-            prototype.RuleOfThreeVerifier verifier = new prototype.RuleOfThreeVerifier(db);
-            java.util.ArrayList<entityClasses.User> allUsers = db.getAllUsers();
-            
-            java.io.PrintWriter writer = new java.io.PrintWriter(file);
-            writer.println("Username,First Name,Last Name,Rule of 3 Status");
-
-            int studentCount = 0;
-            for (entityClasses.User u : allUsers) {
-                if (u.getNewRole1()) {
-                    boolean passed = verifier.verifyStudentInteraction(u.getUserName());
-                    String status = passed ? "PASSED" : "FAILED";
-                    
-                    writer.println(u.getUserName() + "," + u.getFirstName() + "," + u.getLastName() + "," + status);
-                    studentCount++;
-                }
+        prototype.StudentReportExporter exporter = new prototype.StudentReportExporter(db);
+        javafx.concurrent.Task<Long> export = new javafx.concurrent.Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                updateMessage("Exporting report...");
+                return exporter.export(file, (done, total) -> {
+                    updateProgress(done, total);
+                    updateMessage("Exporting... " + done + " of " + total + " students");
+                });
             }
-            
-            writer.close();
-            
-            statusLabel.setText("Success! " + studentCount + " students exported.");
-            statusLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+        };
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        statusLabel.setStyle("-fx-text-fill: #2c3e50;");
+        statusLabel.textProperty().bind(export.messageProperty());
+        export.setOnSucceeded(_ -> {
+            statusLabel.textProperty().unbind();
+            statusLabel.setText("Success! " + export.getValue() + " students exported.");
+            statusLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+        });
+        export.setOnFailed(_ -> {
+            statusLabel.textProperty().unbind();
+            export.getException().printStackTrace();
             statusLabel.setText("Error generating report.");
             statusLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-        }
+        });
+
+        Thread worker = new Thread(export, "report-export");
+        worker.setDaemon(true);
+        worker.start();
     }
     
     /*******
      * <p> Method: refreshUnresolvedQuestions </p>
-     * <p> Description: Populates the board with only Unresolved Questions (Epic 8). </p>
+     * <p> Description: Populates the board with only Unresolved Questions (Epic 8), as
+     * picked by the Database's analytics snapshot. </p>
      */
     public static void refreshUnresolvedQuestions(ListView<String> postListView) {
         if (db == null || postListView == null) return;
@@ -292,21 +615,9 @@ public class ControllerRole2Home {
             refreshStatistics(dashboardStatsLabel);
         }
         
-        postListView.getItems().clear();
-        
-        java.util.ArrayList<entityClasses.Post> posts = db.getUnresolvedQuestions();
+        int generation = startBoard(postListView, "unresolved");
+        boardPaged = false;
         
-        for (entityClasses.Post p : posts) {
-            String displayStr = "ID: " + p.getId() + " | " + p.getAuthorUsername() + ": " + p.getBody();
-            
-            if (p.isInstructorEndorsed()) {
-                displayStr += "\n[★ INSTRUCTOR ENDORSED]";
-            }
-            if (p.getStaffComment() != null && !p.getStaffComment().trim().isEmpty()) {
-                displayStr += "\n[Staff Note: " + p.getStaffComment() + "]";
-            }
-            
-            postListView.getItems().add(displayStr);
-        }
+        showBoard(postListView, generation, asyncDb.getSnapshotUnresolvedQuestions());
     }
 }
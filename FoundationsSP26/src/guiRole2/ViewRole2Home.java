@@ -37,6 +37,8 @@ import javafx.scene.control.CheckBox;
  * 
  * @version 1.00    2025-04-20    Initial version
  * @version 2.00    2026-04-22    Integrated TP3 Staff Grading Dashboard GUI components.
+ * @version 2.01    2026-10-18    The posts viewer loads more threads as it is scrolled.
+ * @version 2.02    2026-10-18    Moderation controls are disabled while their change is saved.
  */
 
 public class ViewRole2Home {
@@ -293,6 +295,7 @@ public class ViewRole2Home {
 		// --- 2. Posts Viewer ---
 		ListView<String> listPosts = new ListView<>();
 		listPosts.setLayoutX(20); listPosts.setLayoutY(110); listPosts.setPrefSize(760, 270);
+		guiTools.ScrollPaging.loadMoreOnScroll(listPosts, () -> ControllerRole2Home.loadMorePosts(listPosts));
 		
 		Button btnRefresh = new Button("Refresh Board");
 		btnRefresh.setLayoutX(20); btnRefresh.setLayoutY(390);
@@ -328,7 +331,7 @@ public class ViewRole2Home {
 		btnSave.setOnAction(e -> {
 			try {
 				int pid = Integer.parseInt(tfPId.getText().trim());
-				ControllerRole2Home.handleSaveStaffComment(pid, tfComment.getText().trim(), lblStatus, listPosts);
+				ControllerRole2Home.handleSaveStaffComment(pid, tfComment.getText().trim(), lblStatus, listPosts, btnSave);
 			} catch (Exception ex) {
 				lblStatus.setText("Error: Invalid numeric ID.");
 				lblStatus.setStyle("-fx-text-fill: red;");
@@ -340,9 +343,7 @@ public class ViewRole2Home {
 		chkEndorse.setOnAction(e -> {
 			try {
 				int pid = Integer.parseInt(tfPId.getText().trim());
-				ControllerRole2Home.handleToggleEndorsement(pid, chkEndorse.isSelected(), listPosts);
-				lblStatus.setText("Endorsement updated.");
-				lblStatus.setStyle("-fx-text-fill: green;");
+				ControllerRole2Home.handleToggleEndorsement(pid, chkEndorse.isSelected(), lblStatus, listPosts, chkEndorse);
 			} catch (Exception ex) {
 				lblStatus.setText("Error: Invalid numeric ID.");
 				lblStatus.setStyle("-fx-text-fill: red;");
@@ -356,7 +357,7 @@ public class ViewRole2Home {
 		btnDelete.setOnAction(e -> {
 			try {
 				int pid = Integer.parseInt(tfPId.getText().trim());
-				ControllerRole2Home.handleDeletePost(pid, lblStatus, listPosts);
+				ControllerRole2Home.handleDeletePost(pid, lblStatus, listPosts, btnDelete);
 			} catch (Exception ex) {
 				lblStatus.setText("Error: Invalid numeric ID.");
 				lblStatus.setStyle("-fx-text-fill: red;");
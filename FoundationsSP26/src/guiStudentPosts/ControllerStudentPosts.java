@@ -1,11 +1,17 @@
 package guiStudentPosts;
 
+import database.AsyncDatabase;
 import entityClasses.Post;
+import entityClasses.PostSummary;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /*******
  * <p> Title: ControllerStudentPosts Class </p>
@@ -29,6 +35,10 @@ import java.util.Optional;
  * @version 1.00    2026-03-21    Initial TP2 implementation
  * @version 1.01    2026-03-21    Added "Are you sure?" dialog, read tracking, My Posts
  * @version 2.00	2026-04-22 	  Added TP3 integration (Perform Home action routing).
+ * @version 2.01	2026-10-18 	  Post lists load one page at a time as the user scrolls
+ * @version 2.02	2026-10-18 	  Post lists and details load in the background with a loading state
+ * @version 2.03	2026-10-18 	  Lists load post summaries; the full post is read when one is opened
+ * @version 2.04	2026-10-18 	  Creating, editing, deleting and resolving posts run in the background
  */
 public class ControllerStudentPosts {
 
@@ -37,18 +47,54 @@ public class ControllerStudentPosts {
 
     private static ModelStudentPosts theModel = new ModelStudentPosts();
 
+    // Reads run here so the window keeps painting while a slow query is in flight
+    private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
+
+    // Paging state for the post list. Search results are ranked, not paged, so
+    // morePostsAvailable is false while they are showing.
+    private static boolean showingMyPosts     = false;
+    private static boolean morePostsAvailable = false;
+    private static boolean loadingNextPage    = false;
+
+    // Bumped whenever the list or the detail panel starts loading something new, so a
+    // result that arrives after the user has moved on is dropped instead of shown.
+    private static int listGeneration   = 0;
+    private static int detailGeneration = 0;
+
+    /** A page of posts together with the list rows built for them. */
+    private record PostListing(ArrayList<PostSummary> posts, ArrayList<String> lines) {}
+
+    /** An opened post, body included, and its replies. */
+    private record PostDetail(Post post, ArrayList<Post> replies) {}
+
 
     /*******
      * <p> Method: loadAllPosts() </p>
-     * <p> Description: Fetches all posts from the Model and populates the list view.
+     * <p> Description: Fetches the first page of posts from the Model and populates the
+     * list view. Further pages load as the user scrolls (see loadNextPage()).
      * Called on page load and after any create/edit/delete. </p>
      */
     protected static void loadAllPosts() {
-        ArrayList<Post> posts = theModel.getAllPosts();
-        String username = ViewStudentPosts.theUser.getUserName();
-        ViewStudentPosts.clearDetailView(); // full reload — reset detail panel
-        ViewStudentPosts.populatePostList(posts, username);
-        ViewStudentPosts.label_ErrorMsg.setText("");
+        loadAllPosts(-1);
+    }
+
+
+    /*******
+     * <p> Method: loadAllPosts(int) </p>
+     * <p> Description: Loads the first page of posts in the background and, once it is
+     * shown, re-selects the post with the given id if it is on that page. </p>
+     *
+     * @param selectId The post to re-select, or -1 for none
+     */
+    private static void loadAllPosts(int selectId) {
+        showingMyPosts = false;
+        loadList(() -> theModel.getPostsPage(0), listing -> {
+            morePostsAvailable = listing.posts().size() == ModelStudentPosts.PAGE_SIZE;
+            ViewStudentPosts.clearDetailView(); // full reload — reset detail panel
+            ViewStudentPosts.populatePostList(listing.posts(), listing.lines());
+            ViewStudentPosts.label_ErrorMsg.setText("");
+            if (selectId >= 0) reselectPost(selectId);
+        });
     }
 
 
@@ -60,14 +106,52 @@ public class ControllerStudentPosts {
      */
     protected static void loadMyPosts() {
         String username = ViewStudentPosts.theUser.getUserName();
-        ArrayList<Post> posts = theModel.getMyPosts(username);
-        ViewStudentPosts.clearDetailView(); // filter change - reset detail panel
-        ViewStudentPosts.populatePostList(posts, username);
-
-        if (posts.isEmpty())
-            ViewStudentPosts.label_ErrorMsg.setText("You haven't made any posts yet.");
-        else
-            ViewStudentPosts.label_ErrorMsg.setText("Showing your posts (" + posts.size() + ")");
+        showingMyPosts = true;
+        loadList(() -> theModel.getMyPostsPage(username, 0), listing -> {
+            ArrayList<PostSummary> posts = listing.posts();
+            morePostsAvailable = posts.size() == ModelStudentPosts.PAGE_SIZE;
+            ViewStudentPosts.clearDetailView(); // filter change - reset detail panel
+            ViewStudentPosts.populatePostList(posts, listing.lines());
+
+            if (posts.isEmpty())
+                ViewStudentPosts.label_ErrorMsg.setText("You haven't made any posts yet.");
+            else
+                ViewStudentPosts.label_ErrorMsg.setText("Showing your posts (" + posts.size()
+                        + (morePostsAvailable ? "+" : "") + ")");
+        });
+    }
+
+
+    /*******
+     * <p> Method: loadNextPage() </p>
+     * <p> Description: Appends the next page of the current list (all posts or My Posts)
+     * when the user scrolls near the bottom. Does nothing for search results, while a page
+     * is already on its way, or once the last page has been loaded. </p>
+     */
+    protected static void loadNextPage() {
+        if (!morePostsAvailable || loadingNextPage || ViewStudentPosts.displayedPosts.isEmpty()) return;
+
+        String username = ViewStudentPosts.theUser.getUserName();
+        ArrayList<PostSummary> shown = ViewStudentPosts.displayedPosts;
+        int lastSeenId = shown.get(shown.size() - 1).getId();
+        boolean myPosts = showingMyPosts;
+        int generation = listGeneration;
+        loadingNextPage = true;
+
+        fetchListing(() -> myPosts
+                ? theModel.getMyPostsPage(username, lastSeenId)
+                : theModel.getPostsPage(lastSeenId))
+            .whenCompleteAsync((listing, error) -> {
+                loadingNextPage = false;
+                if (generation != listGeneration) return; // the list was replaced meanwhile
+                if (error != null) {
+                    error.printStackTrace();
+                    ViewStudentPosts.label_ErrorMsg.setText("Could not load more posts.");
+                    return;
+                }
+                morePostsAvailable = listing.posts().size() == ModelStudentPosts.PAGE_SIZE;
+                ViewStudentPosts.appendPostList(listing.posts(), listing.lines());
+            }, Platform::runLater);
     }
 
 
@@ -77,15 +161,20 @@ public class ControllerStudentPosts {
      */
     protected static void performSearch() {
         String keyword  = ViewStudentPosts.text_Search.getText();
-        String username = ViewStudentPosts.theUser.getUserName();
-        ArrayList<Post> results = theModel.searchPosts(keyword);
-        ViewStudentPosts.clearDetailView(); // new search — reset detail panel
-        ViewStudentPosts.populatePostList(results, username);
-
-        if (results.isEmpty())
-            ViewStudentPosts.label_ErrorMsg.setText("No posts found for: \"" + keyword + "\"");
-        else
-            ViewStudentPosts.label_ErrorMsg.setText("");
+        if (keyword == null || keyword.trim().isEmpty()) {
+            loadAllPosts(); // an empty search is just the (paged) full list
+            return;
+        }
+        loadList(() -> theModel.searchPosts(keyword), listing -> {
+            morePostsAvailable = false;
+            ViewStudentPosts.clearDetailView(); // new search — reset detail panel
+            ViewStudentPosts.populatePostList(listing.posts(), listing.lines());
+
+            if (listing.posts().isEmpty())
+                ViewStudentPosts.label_ErrorMsg.setText("No posts found for: \"" + keyword + "\"");
+            else
+                ViewStudentPosts.label_ErrorMsg.setText("");
+        });
     }
 
 
@@ -93,28 +182,108 @@ public class ControllerStudentPosts {
      * <p> Method: performSelectPost(int) </p>
      * <p> Description: Loads the selected post's details and marks it and its replies
      * as read for the logged-in user. New replies added after this point will show
-     * as unread next time the student views the list. </p>
+     * as unread next time the student views the list. The list only holds summaries, so
+     * the full post is read here along with its replies, and the read marks are written,
+     * in the background; the detail panel fills in when they arrive. </p>
      *
      * @param index The selected index in the list (-1 means nothing selected)
      */
     protected static void performSelectPost(int index) {
         if (index < 0 || index >= ViewStudentPosts.displayedPosts.size()) return;
 
-        Post selected   = ViewStudentPosts.displayedPosts.get(index);
+        int selectedId  = ViewStudentPosts.displayedPosts.get(index).getId();
         String username = ViewStudentPosts.theUser.getUserName();
-        ArrayList<Post> replies = theModel.getRepliesForPost(selected.getId());
+        int generation  = ++detailGeneration;
+        ViewStudentPosts.label_ErrorMsg.setText("Loading post...");
+
+        theAsyncDatabase.supply(() -> {
+            Post post = theModel.getPostById(selectedId);
+            if (post == null) return null;
+            ArrayList<Post> replies = theModel.getRepliesForPost(selectedId);
+            // Mark this post and all current replies as read for this user
+            theModel.markPostAndRepliesRead(post, username);
+            return new PostDetail(post, replies);
+        }).whenCompleteAsync((detail, error) -> {
+            if (generation != detailGeneration) return; // another post was selected since
+            if (error != null) {
+                error.printStackTrace();
+                ViewStudentPosts.label_ErrorMsg.setText("Could not load the post.");
+                return;
+            }
+            if (detail == null) {
+                ViewStudentPosts.label_ErrorMsg.setText("Post not found.");
+                return;
+            }
+            ViewStudentPosts.showPostDetail(detail.post(), detail.replies());
+            ViewStudentPosts.setEditMode(false);
+            ViewStudentPosts.label_ErrorMsg.setText("");
+
+            // Refresh the list display so unread badges update immediately. This runs
+            // after the click that selected the post has been fully processed, which
+            // matters: calling setItems() mid-click crashes JavaFX's ListViewBehavior.
+            refreshCurrentList();
+        }, Platform::runLater);
+    }
+
+
+    /*******
+     * <p> Method: loadList(Supplier, Consumer) </p>
+     * <p> Description: Replaces the post list. Shows a loading message, runs the query and
+     * builds the list rows in the background, then hands the result to show on the FX
+     * thread unless a newer load has started in the meantime. </p>
+     *
+     * @param query Fetches the posts; runs off the FX thread
+     * @param show  Puts the result on screen; runs on the FX thread
+     */
+    private static void loadList(Supplier<ArrayList<PostSummary>> query, Consumer<PostListing> show) {
+        int generation = ++listGeneration;
+        morePostsAvailable = false; // no scroll paging until the first page is in
+        ViewStudentPosts.label_ErrorMsg.setText("Loading posts...");
+
+        fetchListing(query).whenCompleteAsync((listing, error) -> {
+            if (generation != listGeneration) return;
+            if (error != null) {
+                error.printStackTrace();
+                ViewStudentPosts.label_ErrorMsg.setText("Could not load posts.");
+                return;
+            }
+            show.accept(listing);
+        }, Platform::runLater);
+    }
 
-        ViewStudentPosts.showPostDetail(selected, replies);
-        ViewStudentPosts.setEditMode(false);
-        ViewStudentPosts.label_ErrorMsg.setText("");
 
-        // Mark this post and all current replies as read for this user
-        theModel.markPostAndRepliesRead(selected, username);
+    /*******
+     * <p> Method: fetchListing(Supplier) </p>
+     * <p> Description: Runs the query and the batched badge lookup for its rows together
+     * on the background executor. </p>
+     *
+     * @param query Fetches the posts
+     * @return A future for the posts and their list rows
+     */
+    private static CompletableFuture<PostListing> fetchListing(Supplier<ArrayList<PostSummary>> query) {
+        String username = ViewStudentPosts.theUser.getUserName();
+        return theAsyncDatabase.supply(() -> {
+            ArrayList<PostSummary> posts = query.get();
+            return new PostListing(posts, theModel.buildDisplayStrings(posts, username));
+        });
+    }
+
 
-        // Refresh the list display so unread badges update immediately
-        // Defer the list refresh until after the mouse click event is fully processed.
-        // Calling setItems() mid-click crashes JavaFXs internal ListViewBehavior.
-        Platform.runLater(() -> refreshCurrentList());
+    /*******
+     * <p> Method: reselectPost(int) </p>
+     * <p> Description: Selects the post with the given id if it is in the list, so the
+     * detail view stays populated after a refresh. </p>
+     *
+     * @param postId The post to select
+     */
+    private static void reselectPost(int postId) {
+        for (int i = 0; i < ViewStudentPosts.displayedPosts.size(); i++) {
+            if (ViewStudentPosts.displayedPosts.get(i).getId() == postId) {
+                ViewStudentPosts.listView_Posts.getSelectionModel().select(i);
+                performSelectPost(i);
+                break;
+            }
+        }
     }
 
 
@@ -129,15 +298,11 @@ public class ControllerStudentPosts {
         String type     = (String) ViewStudentPosts.comboBox_PostType.getValue();
         String author   = ViewStudentPosts.theUser.getUserName();
 
-        String error = theModel.createPost(title, body, author, type, Post.NO_PARENT);
-        if (!error.isEmpty()) {
-            ViewStudentPosts.label_ErrorMsg.setText(error);
-            return;
-        }
-
-        ViewStudentPosts.clearInputFields();
-        ViewStudentPosts.label_ErrorMsg.setText("");
-        loadAllPosts();
+        runWrite(ViewStudentPosts.button_NewPost,
+                () -> theModel.createPost(title, body, author, type, Post.NO_PARENT), () -> {
+            ViewStudentPosts.clearInputFields();
+            loadAllPosts();
+        });
     }
 
 
@@ -160,20 +325,37 @@ public class ControllerStudentPosts {
         String author = ViewStudentPosts.theUser.getUserName();
         int    parent = ViewStudentPosts.selectedPost.getId();
         String replyTitle = "Re: " + ViewStudentPosts.selectedPost.getTitle();
+        Post selected     = ViewStudentPosts.selectedPost;
+        int openedAt      = detailGeneration;
 
         // Replies are always STATEMENT type
-        String error = theModel.createPost(replyTitle, body, author, "STATEMENT", parent);
-        if (!error.isEmpty()) {
-            ViewStudentPosts.label_ErrorMsg.setText(error);
-            return;
-        }
+        runWrite(ViewStudentPosts.button_Reply,
+                () -> theModel.createPost(replyTitle, body, author, "STATEMENT", parent),
+                () -> showRepliesAfterReply(selected, openedAt));
+    }
 
-        ViewStudentPosts.clearInputFields();
-        ViewStudentPosts.label_ErrorMsg.setText("");
 
-        // Refresh the replies in the detail view
-        ArrayList<Post> replies = theModel.getRepliesForPost(parent);
-        ViewStudentPosts.showPostDetail(ViewStudentPosts.selectedPost, replies);
+    /*******
+     * <p> Method: showRepliesAfterReply(Post) </p>
+     * <p> Description: Clears the reply text and reloads the replies of the post that was
+     * replied to, unless another post has been opened since. </p>
+     *
+     * @param selected The post that was replied to
+     * @param openedAt The detail generation when the reply was sent
+     */
+    private static void showRepliesAfterReply(Post selected, int openedAt) {
+        ViewStudentPosts.clearInputFields();
+        if (openedAt != detailGeneration) return; // another post is open now
+        int generation = ++detailGeneration;
+        theAsyncDatabase.getRepliesForPost(selected.getId()).whenCompleteAsync((replies, failure) -> {
+            if (generation != detailGeneration) return;
+            if (failure != null) {
+                failure.printStackTrace();
+                ViewStudentPosts.label_ErrorMsg.setText("Reply posted, but the replies could not be reloaded.");
+                return;
+            }
+            ViewStudentPosts.showPostDetail(selected, replies);
+        }, Platform::runLater);
     }
 
 
@@ -206,30 +388,16 @@ public class ControllerStudentPosts {
         String newTitle  = ViewStudentPosts.text_TitleInput.getText();
         String newBody   = ViewStudentPosts.textArea_BodyInput.getText();
         String loggedIn  = ViewStudentPosts.theUser.getUserName();
-
-        String error = theModel.updatePost(
-                ViewStudentPosts.selectedPost.getId(), newTitle, newBody, loggedIn);
-        if (!error.isEmpty()) {
-            ViewStudentPosts.label_ErrorMsg.setText(error);
-            return;
-        }
-
         // Remember which post was selected so we can re-select after refresh
-        int savedId = ViewStudentPosts.selectedPost.getId();
-
-        ViewStudentPosts.setEditMode(false);
-        ViewStudentPosts.clearInputFields();
-        ViewStudentPosts.label_ErrorMsg.setText("");
-        loadAllPosts();
-
-        // Re-select the same post so the detail view stays populated
-        for (int i = 0; i < ViewStudentPosts.displayedPosts.size(); i++) {
-            if (ViewStudentPosts.displayedPosts.get(i).getId() == savedId) {
-                ViewStudentPosts.listView_Posts.getSelectionModel().select(i);
-                performSelectPost(i);
-                break;
-            }
-        }
+        int savedId      = ViewStudentPosts.selectedPost.getId();
+
+        runWrite(ViewStudentPosts.button_SaveEdit,
+                () -> theModel.updatePost(savedId, newTitle, newBody, loggedIn), () -> {
+            ViewStudentPosts.setEditMode(false);
+            ViewStudentPosts.clearInputFields();
+            // Re-select the same post once the list is back so the detail view stays populated
+            loadAllPosts(savedId);
+        });
     }
 
 
@@ -256,19 +424,15 @@ public class ControllerStudentPosts {
         if (result.isEmpty() || result.get() != ButtonType.OK) return;
 
         String loggedIn = ViewStudentPosts.theUser.getUserName();
-        String error = theModel.deletePost(
-                ViewStudentPosts.selectedPost.getId(), loggedIn);
-        if (!error.isEmpty()) {
-            ViewStudentPosts.label_ErrorMsg.setText(error);
-            return;
-        }
-
-        // Clear everything including any half-filled edit fields
-        ViewStudentPosts.setEditMode(false);
-        ViewStudentPosts.clearInputFields();
-        ViewStudentPosts.clearDetailView();
-        ViewStudentPosts.label_ErrorMsg.setText("");
-        loadAllPosts();
+        int postId      = ViewStudentPosts.selectedPost.getId();
+
+        runWrite(ViewStudentPosts.button_Delete, () -> theModel.deletePost(postId, loggedIn), () -> {
+            // Clear everything including any half-filled edit fields
+            ViewStudentPosts.setEditMode(false);
+            ViewStudentPosts.clearInputFields();
+            ViewStudentPosts.clearDetailView();
+            loadAllPosts();
+        });
     }
 
 
@@ -284,25 +448,38 @@ public class ControllerStudentPosts {
         }
 
         String loggedIn = ViewStudentPosts.theUser.getUserName();
-        String error = theModel.toggleResolved(
-                ViewStudentPosts.selectedPost.getId(), loggedIn);
-        if (!error.isEmpty()) {
-            ViewStudentPosts.label_ErrorMsg.setText(error);
-            return;
-        }
+        int savedId     = ViewStudentPosts.selectedPost.getId();
 
-        int savedId = ViewStudentPosts.selectedPost.getId();
-        ViewStudentPosts.label_ErrorMsg.setText("");
-        loadAllPosts();
+        runWrite(ViewStudentPosts.button_ToggleResolve, () -> theModel.toggleResolved(savedId, loggedIn),
+                // Re-select so the resolved badge updates in the detail view
+                () -> loadAllPosts(savedId));
+    }
 
-        // Re-select so the resolved badge updates in the detail view
-        for (int i = 0; i < ViewStudentPosts.displayedPosts.size(); i++) {
-            if (ViewStudentPosts.displayedPosts.get(i).getId() == savedId) {
-                ViewStudentPosts.listView_Posts.getSelectionModel().select(i);
-                performSelectPost(i);
-                break;
+
+    /*******
+     * <p> Method: runWrite(Button, Supplier, Runnable) </p>
+     * <p> Description: Runs a Model write in the background with its button disabled, so
+     * the window keeps painting while the write waits for the post lock or the database.
+     * Back on the FX thread the button is enabled again, then either the Model's
+     * validation message is shown or onSuccess runs. </p>
+     *
+     * @param button    The button that started the write
+     * @param write     The Model call; returns "" on success or the message to show
+     * @param onSuccess Updates the page after a successful write; runs on the FX thread
+     */
+    private static void runWrite(Button button, Supplier<String> write, Runnable onSuccess) {
+        button.setDisable(true);
+        ViewStudentPosts.label_ErrorMsg.setText("Saving...");
+        theAsyncDatabase.supply(write).whenCompleteAsync((message, failure) -> {
+            button.setDisable(false);
+            if (failure != null) {
+                failure.printStackTrace();
+                ViewStudentPosts.label_ErrorMsg.setText("Could not save the change.");
+                return;
             }
-        }
+            ViewStudentPosts.label_ErrorMsg.setText(message);
+            if (message.isEmpty()) onSuccess.run();
+        }, Platform::runLater);
     }
 
 
@@ -320,11 +497,21 @@ public class ControllerStudentPosts {
     /*******
      * <p> Method: refreshCurrentList() </p>
      * <p> Description: Refreshes the list display without changing which posts are shown.
-     * Called after marking posts as read so unread badges update immediately. </p>
+     * Called after marking posts as read so unread badges update immediately. The rows
+     * are rebuilt in the background and dropped if the list changed in the meantime. </p>
      */
     private static void refreshCurrentList() {
-        String username = ViewStudentPosts.theUser.getUserName();
-        ViewStudentPosts.populatePostList(ViewStudentPosts.displayedPosts, username);
+        ArrayList<PostSummary> shown = new ArrayList<>(ViewStudentPosts.displayedPosts);
+        int generation = listGeneration;
+        fetchListing(() -> shown).whenCompleteAsync((listing, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (generation != listGeneration || loadingNextPage
+                    || ViewStudentPosts.displayedPosts.size() != shown.size()) return;
+            ViewStudentPosts.populatePostList(listing.posts(), listing.lines());
+        }, Platform::runLater);
     }
 
 
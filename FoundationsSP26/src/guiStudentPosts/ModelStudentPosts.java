@@ -2,7 +2,11 @@ package guiStudentPosts;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import entityClasses.Post;
+import entityClasses.PostBadge;
+import entityClasses.PostSummary;
 
 /*******
  * <p> Title: ModelStudentPosts Class </p>
@@ -22,10 +26,40 @@ import entityClasses.Post;
  *
  * @version 1.00    2026-03-21    Initial TP2 implementation
  * @version 1.01    2026-03-21    Added read tracking, My Posts, soft delete, thread support
+ * @version 1.02    2026-10-18    List display strings are built from one batched badge query
+ * @version 1.03    2026-10-18    Added keyset-paged post lists for scroll loading
+ * @version 1.04    2026-10-18    The database can be supplied through the constructor
+ * @version 1.05    2026-10-18    Selecting a post marks the thread read with one batched write
+ * @version 1.06    2026-10-18    Ownership checks compare author codes
+ * @version 1.07    2026-10-18    Post lists hold PostSummary rows; getPostById() loads the full post
  */
 public class ModelStudentPosts {
 
-    private static database.Database theDatabase = applicationMain.FoundationsMain.database;
+    private final database.Database theDatabase;
+
+    /** Posts fetched per page of the post list; a few screens' worth of rows. */
+    public static final int PAGE_SIZE = 50;
+
+
+    /*******
+     * <p> Constructor: ModelStudentPosts() </p>
+     * <p> Description: A Model backed by the application's database. </p>
+     */
+    public ModelStudentPosts() {
+        this(applicationMain.FoundationsMain.database);
+    }
+
+
+    /*******
+     * <p> Constructor: ModelStudentPosts(Database) </p>
+     * <p> Description: A Model backed by the given database, so the same logic can be
+     * exercised against a test or benchmark database. </p>
+     *
+     * @param database The database to read and write posts in
+     */
+    public ModelStudentPosts(database.Database database) {
+        this.theDatabase = database;
+    }
 
 
     /*******
@@ -65,10 +99,34 @@ public class ModelStudentPosts {
     /*******
      * <p> Method: getAllPosts() </p>
      * <p> Description: Returns all top-level posts, newest first. </p>
-     * @return ArrayList of Post objects, never null
+     * @return ArrayList of post summaries, never null
+     */
+    public ArrayList<PostSummary> getAllPosts() {
+        return theDatabase.getPostSummaries();
+    }
+
+
+    /*******
+     * <p> Method: getPostsPage(int) </p>
+     * <p> Description: Returns the next {@link #PAGE_SIZE} top-level posts after the last
+     * one already shown, newest first. </p>
+     * @param lastSeenId Id of the last post in the list, or 0 for the first page
+     * @return The next page of posts; fewer than PAGE_SIZE means it is the last page
+     */
+    public ArrayList<PostSummary> getPostsPage(int lastSeenId) {
+        return theDatabase.getPostSummariesPage(lastSeenId, PAGE_SIZE);
+    }
+
+
+    /*******
+     * <p> Method: getMyPostsPage(String, int) </p>
+     * <p> Description: Paged version of {@link #getMyPosts(String)}. </p>
+     * @param username   The logged-in student's username
+     * @param lastSeenId Id of the last post in the list, or 0 for the first page
+     * @return The next page of the student's own posts
      */
-    public ArrayList<Post> getAllPosts() {
-        return theDatabase.getAllPosts();
+    public ArrayList<PostSummary> getMyPostsPage(String username, int lastSeenId) {
+        return theDatabase.getPostSummariesByAuthorPage(username, lastSeenId, PAGE_SIZE);
     }
 
 
@@ -79,8 +137,20 @@ public class ModelStudentPosts {
      * @param username The logged-in student's username
      * @return ArrayList of the student's own posts
      */
-    public ArrayList<Post> getMyPosts(String username) {
-        return theDatabase.getPostsByAuthor(username);
+    public ArrayList<PostSummary> getMyPosts(String username) {
+        return theDatabase.getPostSummariesByAuthor(username);
+    }
+
+
+    /*******
+     * <p> Method: getPostById(int) </p>
+     * <p> Description: Returns the full post, body and staff comment included, for the
+     * detail view. The lists only carry summaries. </p>
+     * @param postId The post ID
+     * @return The post, or null if it no longer exists
+     */
+    public Post getPostById(int postId) {
+        return theDatabase.getPostById(postId);
     }
 
 
@@ -100,11 +170,11 @@ public class ModelStudentPosts {
      * <p> Description: Returns posts matching the keyword (case-insensitive). If keyword
      * is empty, returns all posts. </p>
      * @param keyword The search term
-     * @return Matching posts, newest first
+     * @return Matching posts, best match first
      */
-    public ArrayList<Post> searchPosts(String keyword) {
+    public ArrayList<PostSummary> searchPosts(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) return getAllPosts();
-        return theDatabase.searchPosts(keyword.trim());
+        return theDatabase.searchPostSummaries(keyword.trim());
     }
 
 
@@ -124,7 +194,7 @@ public class ModelStudentPosts {
         Post existing = theDatabase.getPostById(postId);
         if (existing == null)    return "Post not found.";
         if (existing.isDeleted()) return "Cannot edit a deleted post.";
-        if (!existing.getAuthorUsername().equals(loggedInUsername))
+        if (!existing.isAuthoredBy(loggedInUsername))
             return "You can only edit your own posts.";
 
         String titleError = Post.validateTitle(newTitle);
@@ -150,7 +220,7 @@ public class ModelStudentPosts {
     public String deletePost(int postId, String loggedInUsername) {
         Post existing = theDatabase.getPostById(postId);
         if (existing == null) return "Post not found.";
-        if (!existing.getAuthorUsername().equals(loggedInUsername))
+        if (!existing.isAuthoredBy(loggedInUsername))
             return "You can only delete your own posts.";
 
         // Soft delete - sets isDeleted=TRUE, replies are NOT removed
@@ -172,7 +242,7 @@ public class ModelStudentPosts {
         Post existing = theDatabase.getPostById(postId);
         if (existing == null)     return "Post not found.";
         if (existing.isDeleted()) return "Cannot resolve a deleted post.";
-        if (!existing.getAuthorUsername().equals(loggedInUsername))
+        if (!existing.isAuthoredBy(loggedInUsername))
             return "You can only mark your own posts as resolved.";
 
         theDatabase.markPostResolved(postId, !existing.isResolved());
@@ -184,15 +254,38 @@ public class ModelStudentPosts {
      * <p> Method: markPostAndRepliesRead(Post, String) </p>
      * <p> Description: Marks a post and all its current replies as read for the given
      * user. Called when a student selects a post. New replies added afterwards will
-     * appear as unread next time the student views the list. </p>
+     * appear as unread next time the student views the list. The whole thread is written
+     * by Database.markThreadRead() in one transaction, not one write per reply. </p>
      *
      * @param post     The post being viewed
      * @param username The logged-in student's username
      */
     public void markPostAndRepliesRead(Post post, String username) {
-        theDatabase.markAsRead(post.getId(), username);
-        for (Post reply : theDatabase.getRepliesForPost(post.getId()))
-            theDatabase.markAsRead(reply.getId(), username);
+        theDatabase.markThreadRead(post.getId(), username);
+    }
+
+
+    /*******
+     * <p> Method: buildDisplayStrings(List, String) </p>
+     * <p> Description: Builds the display strings for a whole list of posts. The read flag,
+     * reply count and unread count for every post come from a single batched query
+     * instead of three queries per row, so re-rendering a large board stays cheap. </p>
+     *
+     * @param posts    The posts to build display strings for, in display order
+     * @param username The logged-in user (needed for read/unread badges)
+     * @return One display string per post, in the same order
+     */
+    public ArrayList<String> buildDisplayStrings(List<PostSummary> posts, String username) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (PostSummary p : posts)
+            if (!p.isDeleted()) ids.add(p.getId()); // deleted rows show no badges
+
+        HashMap<Integer, PostBadge> badges = theDatabase.getPostBadges(ids, username);
+
+        ArrayList<String> lines = new ArrayList<>();
+        for (PostSummary p : posts)
+            lines.add(buildDisplayString(p, badges.getOrDefault(p.getId(), PostBadge.NONE)));
+        return lines;
     }
 
 
@@ -200,20 +293,34 @@ public class ModelStudentPosts {
      * <p> Method: buildDisplayString(Post, String) </p>
      * <p> Description: Builds the display string shown in the post ListView for a given
      * post. Shows resolved badge, post type, title, reply count, and unread count so
-     * students can quickly see which posts need attention. </p>
+     * students can quickly see which posts need attention. Prefer buildDisplayStrings()
+     * when rendering more than one post. </p>
      *
      * @param post     The post to build a display string for
      * @param username The logged-in user (needed for unread count)
      * @return A formatted string for the ListView item
      */
     public String buildDisplayString(Post post, String username) {
+        return buildDisplayStrings(List.of(PostSummary.of(post)), username).get(0);
+    }
+
+
+    /*******
+     * <p> Method: buildDisplayString(PostSummary, PostBadge) </p>
+     * <p> Description: Formats one ListView line from a post and its precomputed badges. </p>
+     *
+     * @param post  The post to build a display string for
+     * @param badge The read flag and reply counts for this post and user
+     * @return A formatted string for the ListView item
+     */
+    private String buildDisplayString(PostSummary post, PostBadge badge) {
         if (post.isDeleted()) return "[DELETED] " + post.getTitle();
 
         String resolved  = post.isResolved()           ? "[✓] "  : "";
         String endorsed  = post.isInstructorEndorsed() ? " ★"    : "";
-        String newBadge  = !theDatabase.isPostRead(post.getId(), username) ? " •NEW" : "";
-        int replyCount   = theDatabase.getReplyCount(post.getId());
-        int unreadCount  = theDatabase.getUnreadReplyCount(post.getId(), username);
+        String newBadge  = !badge.isRead() ? " •NEW" : "";
+        int replyCount   = badge.getReplyCount();
+        int unreadCount  = badge.getUnreadReplyCount();
 
         String countInfo = "";
         if (replyCount > 0)
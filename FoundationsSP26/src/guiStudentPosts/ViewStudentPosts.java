@@ -10,7 +10,9 @@ import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import entityClasses.Post;
+import entityClasses.PostSummary;
 import java.util.ArrayList;
+import java.util.List;
 
 /*******
  * <p> Title: ViewStudentPosts Class </p>
@@ -67,6 +69,10 @@ import java.util.ArrayList;
  * 
  * @version 1.00    2025-03-01    Initial version for Phase 2
  * @version 2.00	2026-04-22    Added TP3 integration (Home navigation, role-based delete actions, and Staff post types).
+ * @version 2.01	2026-10-18    The post list loads further pages as it is scrolled.
+ * @version 2.02	2026-10-18    List rows arrive prebuilt from the Controller's background load.
+ * @version 2.03	2026-10-18    The delete ownership check compares author codes.
+ * @version 2.04	2026-10-18    The post list holds summaries; the detail panel gets the full post.
  */
 public class ViewStudentPosts {
 
@@ -134,7 +140,7 @@ public class ViewStudentPosts {
     protected static Pane               theRootPane;
     protected static entityClasses.User theUser;
     protected static Post               selectedPost   = null;
-    protected static ArrayList<Post>    displayedPosts = new ArrayList<>();
+    protected static ArrayList<PostSummary> displayedPosts = new ArrayList<>();
     protected static boolean            editMode          = false;
     protected static boolean 			isStaffOrAdmin = false; // Tracks if Role2/Admin is viewing
     // Guard flag: true while setItems() is running so the listener does not fire mid-swap
@@ -223,6 +229,7 @@ public class ViewStudentPosts {
         listView_Posts.getSelectionModel().selectedIndexProperty().addListener(
             (obs, oldVal, newVal) -> { if (!suppressSelection) ControllerStudentPosts.performSelectPost(newVal.intValue()); }
         );
+        guiTools.ScrollPaging.loadMoreOnScroll(listView_Posts, ControllerStudentPosts::loadNextPage);
 
         // ---- Area 2 Right: detail view + replies ----
         setupLabelUI(label_DetailTitle, "Arial", 14, 390, Pos.BASELINE_LEFT, 385, 97);
@@ -280,7 +287,7 @@ public class ViewStudentPosts {
         button_CancelEdit.setOnAction((_)    -> ControllerStudentPosts.performCancelEdit());
         
         button_Delete.setOnAction((_) -> {
-            if (selectedPost != null && !selectedPost.getAuthorUsername().equals(theUser.getUserName())) {
+            if (selectedPost != null && !selectedPost.isAuthoredBy(theUser.getUserName())) {
                 if (isStaffOrAdmin) {
                     label_ErrorMsg.setText("You can only delete your own post. To delete another student's post, please use the Staff Dashboard.");
                     return; // Stop the deletion
@@ -319,19 +326,18 @@ public class ViewStudentPosts {
     // --- Methods called by the Controller to update the UI ---
 
     /*******
-     * <p> Method: populatePostList(ArrayList, String) </p>
+     * <p> Method: populatePostList(ArrayList, List) </p>
      * <p> Description: Fills the post list using display strings built by the Model.
-     * Each string includes the post type, title, reply count, and unread count. </p>
+     * Each string includes the post type, title, reply count, and unread count. The
+     * Controller builds the strings on a background thread (they need the badge query),
+     * so this method never touches the database. </p>
      *
-     * @param posts    The list of posts to display
-     * @param username The logged-in user (for unread count calculation)
+     * @param posts The summaries of the posts to display
+     * @param lines One display string per post, in the same order
      */
-    protected static void populatePostList(ArrayList<Post> posts, String username) {
+    protected static void populatePostList(ArrayList<PostSummary> posts, List<String> lines) {
         displayedPosts = posts;
-        ModelStudentPosts model = new ModelStudentPosts();
-        ObservableList<String> items = FXCollections.observableArrayList();
-        for (Post p : posts)
-            items.add(model.buildDisplayString(p, username));
+        ObservableList<String> items = FXCollections.observableArrayList(lines);
         // Suppress listener during setItems - JavaFX fires it mid-swap when list size
         // is 0, causing IndexOutOfBoundsException. Flag blocks it, re-enables after.
         suppressSelection = true;
@@ -343,6 +349,20 @@ public class ViewStudentPosts {
         // Callers that need a full reset (loadAllPosts, search, myPosts) call clearDetailView() themselves.
     }
 
+    /*******
+     * <p> Method: appendPostList(ArrayList, List) </p>
+     * <p> Description: Adds the next page of posts to the bottom of the list without
+     * rebuilding the rows already shown, so the scroll position and selection stay put. </p>
+     *
+     * @param posts The page of posts to add
+     * @param lines One display string per post, in the same order
+     */
+    protected static void appendPostList(ArrayList<PostSummary> posts, List<String> lines) {
+        if (posts.isEmpty()) return;
+        displayedPosts.addAll(posts);
+        listView_Posts.getItems().addAll(lines);
+    }
+
     /*******
      * <p> Method: showPostDetail(Post, ArrayList) </p>
      * <p> Description: Populates the right-side detail panel. If the post is soft-deleted,
@@ -0,0 +1,277 @@
+package guiTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+
+/*******
+ * <p> Title: KeyedRows Class. </p>
+ *
+ * <p> Description: Keeps the rows of a ListView of Strings in step with a list of items
+ * that have an integer key, such as posts keyed by their ID. It remembers the item and the
+ * text each row was built from, so when the items are shown again only rows whose item has
+ * changed are rendered, and only inserted, removed or changed rows touch the ObservableList.
+ * Refreshing a large board therefore costs in proportion to what changed, not to its size.
+ * </p>
+ *
+ * <p> The row text is only rebuilt when the unchanged predicate says the item differs from
+ * the one the row was built from, so the predicate must compare everything the renderer
+ * shows. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @param <T> the type of item shown in each row
+ *
+ * @version 1.00		2026-10-18 Initial version
+ * @version 1.01		2026-10-18 Rows are found through a key to index map instead of a scan
+ *
+ */
+
+public class KeyedRows<T> {
+
+	private final ObservableList<String> items;
+	private final ToIntFunction<T> keyOf;
+	private final BiPredicate<T, T> unchanged;
+	private final Function<T, String> render;
+
+	// keys.get(i) is the key of items.get(i); shown holds the item each row was built from
+	private final ArrayList<Integer> keys = new ArrayList<>();
+	private final HashMap<Integer, T> shown = new HashMap<>();
+
+	// positions maps the key of every row below indexedRows to its index. Inserting or
+	// removing a row only lowers indexedRows; the rows from there on are indexed again the
+	// next time a key is looked up, so a lookup does not scan the rows.
+	private final HashMap<Integer, Integer> positions = new HashMap<>();
+	private int indexedRows = 0;
+
+	/**********
+	 * <p> Method: KeyedRows(ObservableList, ToIntFunction, BiPredicate, Function) </p>
+	 *
+	 * @param items the rows to maintain, usually a ListView's getItems(); emptied here
+	 *
+	 * @param keyOf gives the key of an item
+	 *
+	 * @param unchanged true when two items with the same key would render the same row
+	 *
+	 * @param render builds the text of a row
+	 *
+	 */
+	public KeyedRows(ObservableList<String> items, ToIntFunction<T> keyOf, BiPredicate<T, T> unchanged,
+			Function<T, String> render) {
+		this.items = items;
+		this.keyOf = keyOf;
+		this.unchanged = unchanged;
+		this.render = render;
+		items.clear();
+	}
+
+	/** @return the ObservableList these rows are kept in */
+	public ObservableList<String> getItems() { return items; }
+
+	/** @return the number of rows */
+	public int size() { return keys.size(); }
+
+	/** @return the key of the row at index */
+	public int keyAt(int index) { return keys.get(index); }
+
+	/** @return the index of the row with this key, or -1 if it is not shown */
+	public int indexOf(int key) {
+		if (!shown.containsKey(key)) return -1;
+		Integer index = positions.get(key);
+		if (index == null || index >= indexedRows) {
+			for (; indexedRows < keys.size(); indexedRows++) positions.put(keys.get(indexedRows), indexedRows);
+			index = positions.get(key);
+		}
+		return index;
+	}
+
+	/**********
+	 * <p> Method: showAll(List) </p>
+	 *
+	 * <p> Description: Makes the rows match the given items, in order. Rows already showing an
+	 * unchanged item are left alone; changed items are re-rendered in place, and rows are
+	 * inserted and removed only where items appeared or disappeared. </p>
+	 *
+	 * <p> The rows are indexed once up front, so working out the changes costs one lookup
+	 * per item however many rows moved. </p>
+	 *
+	 * @param next the items to show
+	 *
+	 */
+	public void showAll(List<T> next) {
+		HashSet<Integer> nextKeys = new HashSet<>();
+		for (T item : next) nextKeys.add(keyOf.applyAsInt(item));
+		HashMap<Integer, Integer> oldIndex = new HashMap<>();
+		for (int i = 0; i < keys.size(); i++) oldIndex.put(keys.get(i), i);
+
+		// Walking the items in order, a row stays where it is if it is the first row not yet
+		// used or dropped; any other row already showing one of the items moves to it
+		boolean[] stays = new boolean[keys.size()];
+		boolean[] moves = new boolean[keys.size()];
+		int head = 0;
+		for (T item : next) {
+			while (head < keys.size() && (moves[head] || !nextKeys.contains(keys.get(head)))) head++;
+			Integer at = oldIndex.get(keyOf.applyAsInt(item));
+			if (at == null) continue;
+			if (at == head) stays[head++] = true;
+			else moves[at] = true;
+		}
+
+		// Drop every row that goes or moves, bottom up so the indices still to visit hold
+		for (int i = keys.size() - 1; i >= 0; i--)
+			if (!stays[i]) removeAt(i);
+
+		// The rows left are in item order; put the new and moved rows in around them
+		int position = 0;
+		for (T item : next) {
+			int key = keyOf.applyAsInt(item);
+			if (position < keys.size() && keys.get(position) == key) {
+				replaceAt(position, item);
+			} else {
+				keys.add(position, key);
+				shown.put(key, item);
+				items.add(position, render.apply(item));
+				indexedRows = Math.min(indexedRows, position);
+			}
+			position++;
+		}
+	}
+
+	/**********
+	 * <p> Method: append(List) </p>
+	 *
+	 * <p> Description: Adds rows for items after the last row, for example the next page. An
+	 * item that is already shown is updated where it is instead. </p>
+	 *
+	 * @param more the items to add
+	 *
+	 */
+	public void append(List<T> more) {
+		ArrayList<String> added = new ArrayList<>();
+		for (T item : more) {
+			int key = keyOf.applyAsInt(item);
+			if (shown.containsKey(key)) {
+				update(item);
+				continue;
+			}
+			if (indexedRows == keys.size()) positions.put(key, indexedRows++);
+			keys.add(key);
+			shown.put(key, item);
+			added.add(render.apply(item));
+		}
+		items.addAll(added);
+	}
+
+	/**********
+	 * <p> Method: update(T) </p>
+	 *
+	 * <p> Description: Re-renders the row for one item if it is shown and has changed. </p>
+	 *
+	 * @param item the new state of the item
+	 *
+	 * @return true if the item is shown
+	 *
+	 */
+	public boolean update(T item) {
+		int index = indexOf(keyOf.applyAsInt(item));
+		if (index < 0) return false;
+		replaceAt(index, item);
+		return true;
+	}
+
+	/**********
+	 * <p> Method: remove(int) </p>
+	 *
+	 * @param key the key of the row to remove
+	 *
+	 * @return true if there was such a row
+	 *
+	 */
+	public boolean remove(int key) {
+		int index = indexOf(key);
+		if (index < 0) return false;
+		removeAt(index);
+		return true;
+	}
+
+	/**********
+	 * <p> Method: clear() </p>
+	 *
+	 * <p> Description: Removes every row, for example before showing a different list. </p>
+	 *
+	 */
+	public void clear() {
+		keys.clear();
+		shown.clear();
+		positions.clear();
+		indexedRows = 0;
+		items.clear();
+	}
+
+	private void replaceAt(int index, T item) {
+		T previous = shown.put(keys.get(index), item);
+		if (previous == null || !unchanged.test(previous, item)) {
+			String row = render.apply(item);
+			if (!row.equals(items.get(index))) items.set(index, row);
+		}
+	}
+
+	private void removeAt(int index) {
+		Integer key = keys.remove(index);
+		shown.remove(key);
+		positions.remove(key);
+		indexedRows = Math.min(indexedRows, index);
+		items.remove(index);
+	}
+
+	/**********
+	 * <p> Method: keepingViewPosition(ListView, Runnable) </p>
+	 *
+	 * <p> Description: Runs a change to these rows and then puts the list back as the user
+	 * had it: the selected row stays selected, and the row that was at the top of the view
+	 * stays at the top, even if rows above them were inserted or removed. </p>
+	 *
+	 * @param view the ListView showing these rows
+	 *
+	 * @param change the updates to apply
+	 *
+	 */
+	public void keepingViewPosition(ListView<String> view, Runnable change) {
+		int selectedIndex = view.getSelectionModel().getSelectedIndex();
+		Integer selectedKey = selectedIndex >= 0 && selectedIndex < keys.size() ? keys.get(selectedIndex) : null;
+		int topIndex = firstVisibleIndex(view);
+		Integer topKey = topIndex >= 0 && topIndex < keys.size() ? keys.get(topIndex) : null;
+
+		change.run();
+
+		if (selectedKey != null) {
+			int index = indexOf(selectedKey);
+			if (index < 0) view.getSelectionModel().clearSelection();
+			else if (index != view.getSelectionModel().getSelectedIndex()) view.getSelectionModel().select(index);
+		}
+		if (topKey != null) {
+			int index = indexOf(topKey);
+			if (index >= 0 && index != firstVisibleIndex(view)) view.scrollTo(index);
+		}
+	}
+
+	/*
+	 * The index of the first row on screen, or -1 before the list has been laid out.
+	 */
+	private static int firstVisibleIndex(ListView<?> view) {
+		if (view.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+			IndexedCell<?> cell = flow.getFirstVisibleCell();
+			if (cell != null) return cell.getIndex();
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,65 @@
+package guiTools;
+
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
+
+/*******
+ * <p> Title: ScrollPaging Class. </p>
+ *
+ * <p> Description: Lets a ListView load its next page when the user scrolls near the bottom,
+ * so the post lists only fetch the rows the user actually looks at. The ListView's vertical
+ * ScrollBar only exists once the list has a skin, so the listener is attached when the skin
+ * is created. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00		2026-10-18 Initial version
+ *
+ */
+
+public class ScrollPaging {
+
+	/** How close to the bottom (as a fraction of the scroll range) triggers the next page. */
+	public static final double LOAD_THRESHOLD = 0.9;
+
+	/**
+	 * Default constructor is not used - all methods are static.
+	 */
+	public ScrollPaging() {
+	}
+
+	/**********
+	 * <p> Method: loadMoreOnScroll(ListView, Runnable) </p>
+	 *
+	 * <p> Description: Calls loadMore every time the list is scrolled past
+	 * {@link #LOAD_THRESHOLD} of its range. loadMore should do nothing when there is no
+	 * further page. </p>
+	 *
+	 * @param list the ListView to watch
+	 *
+	 * @param loadMore the action that appends the next page to the list
+	 *
+	 */
+	public static void loadMoreOnScroll(ListView<?> list, Runnable loadMore) {
+		if (list.getSkin() != null) attach(list, loadMore);
+		list.skinProperty().addListener((_, _, skin) -> {
+			// The skin builds its VirtualFlow and scroll bars after this listener runs
+			if (skin != null) Platform.runLater(() -> attach(list, loadMore));
+		});
+	}
+
+	private static void attach(ListView<?> list, Runnable loadMore) {
+		for (Node node : list.lookupAll(".scroll-bar")) {
+			if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+				bar.valueProperty().addListener((_, _, value) -> {
+					double range = bar.getMax() - bar.getMin();
+					if (range > 0 && value.doubleValue() - bar.getMin() >= range * LOAD_THRESHOLD)
+						loadMore.run();
+				});
+			}
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package guiUserLogin;
 
+import database.AsyncDatabase;
 import database.Database;
 import entityClasses.User;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -31,6 +33,8 @@ import javafx.scene.control.Alert.AlertType;
  * @version 1.01		2025-09-16 Update Javadoc documentation *  
  * @version 1.02		2026-02-08 Fixed logic after changes in constructor for OTP feature
  * @version 1.03		2026-02-09 The User is now forced to change password after use of OTP
+ * @version 1.04		2026-10-18 Credentials and role checks run off the FX thread
+ * @version 1.05		2026-10-18 Login reads the user once with findUserByUsername()
  */
 
 public class ControllerUserLogin {
@@ -53,6 +57,7 @@ public class ControllerUserLogin {
 
 	// Reference for the in-memory database so this package has access
 	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	private static Stage theStage;	
 	
@@ -90,39 +95,38 @@ public class ControllerUserLogin {
     	}
     	// ----------------------------------------------------
     	
-		// Fetch the user and verify the username
-     	if (theDatabase.getUserAccountDetails(username) == false) {
-     		// Don't provide too much information.
-    		ViewUserLogin.alertUsernamePasswordError.setContentText(
-    				"Incorrect username/password. Try again!");
-    		ViewUserLogin.alertUsernamePasswordError.showAndWait();
-    		return;
-    	}
-		
-		// Check to see that the login password matches the account password
-    	String actualPassword = theDatabase.getCurrentPassword();
-    	
-    	if (password.compareTo(actualPassword) != 0) {
-    		ViewUserLogin.alertUsernamePasswordError.setContentText(
-    				"Incorrect username/password. Try again!");
-    		ViewUserLogin.alertUsernamePasswordError.showAndWait();
-    		return;
-    	}
-		
-		// Establish this user's details
-    	entityClasses.User user = null;
-    	for (entityClasses.User u : theDatabase.getAllUsers()) {
-    		if (u.getUserName().equals(username)) {
-    			user = u;
-    			break;
-    		}
-    	}
-    	
-    	if (user == null) return;
-    	
+		// Check the credentials off the FX thread; the page stays responsive and the Log In
+		// button shows that a check is under way.
+		setLoggingIn(true);
+		theAsyncDatabase.findUserByUsername(username)
+			.whenCompleteAsync((user, error) -> {
+				setLoggingIn(false);
+				if (error != null) error.printStackTrace();
+				// Check to see that the login password matches the account password
+				if (user == null || password.compareTo(user.getPassword()) != 0) {
+		     		// Don't provide too much information.
+		    		ViewUserLogin.alertUsernamePasswordError.setContentText(
+		    				"Incorrect username/password. Try again!");
+		    		ViewUserLogin.alertUsernamePasswordError.showAndWait();
+		    		return;
+				}
+				finishLogin(user);
+			}, Platform::runLater);
+	}
+	
+	
+	/**********
+	 * <p> Method: finishLogin(User) </p>
+	 * 
+	 * <p> Description: With the credentials accepted, handles a one-time password and then
+	 * dispatches to the user's home page, or to the role chooser if there is more than one
+	 * role. The User came from the row whose password was just checked, so its role flags are
+	 * already verified and no further query is needed.</p>
+	 */
+	private static void finishLogin(User user) {
     	// --- OTP SECURITY CHECK ---
     	if (user.getHasOTP()) {
-    		System.out.println("OTP Detected for user: " + username);
+    		System.out.println("OTP Detected for user: " + user.getUserName());
     		
     		Alert alert = new Alert(AlertType.INFORMATION);
             alert.setTitle("Password Reset Required");
@@ -141,14 +145,11 @@ public class ControllerUserLogin {
 		if (numberOfRoles == 1) {
 			// Single Account Home Page
 			if (user.getAdminRole()) {
-				if (theDatabase.loginAdmin(user)) 
-					guiAdminHome.ViewAdminHome.displayAdminHome(theStage, user);
+				guiAdminHome.ViewAdminHome.displayAdminHome(theStage, user);
 			} else if (user.getNewRole1()) {
-				if (theDatabase.loginRole1(user)) 
-					guiRole1.ViewRole1Home.displayRole1Home(theStage, user);
+				guiRole1.ViewRole1Home.displayRole1Home(theStage, user);
 			} else if (user.getNewRole2()) {
-				if (theDatabase.loginRole2(user)) 
-					guiRole2.ViewRole2Home.displayRole2Home(theStage, user);
+				guiRole2.ViewRole2Home.displayRole2Home(theStage, user);
 			} else {
 				System.out.println("***** UserLogin goToUserHome request has an invalid role");
 			}
@@ -159,6 +160,15 @@ public class ControllerUserLogin {
 		}
 	}
 	
+	
+	/*
+	 * Shows whether a login check is in flight and blocks a second click meanwhile.
+	 */
+	private static void setLoggingIn(boolean busy) {
+		ViewUserLogin.button_Login.setDisable(busy);
+		ViewUserLogin.button_Login.setText(busy ? "Logging in..." : "Log In");
+	}
+
 		
 	/**********
 	 * <p> Method: setup() </p>
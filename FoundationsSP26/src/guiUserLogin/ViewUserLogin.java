@@ -23,6 +23,7 @@ import javafx.stage.Stage;
  * @author Lynn Robert Carter
  * 
  * @version 1.00		2025-04-20 Initial version
+ * @version 1.01		2026-10-18 The Log In button is visible to the controller so it can show a login in progress
  *  
  */
 
@@ -51,7 +52,7 @@ public class ViewUserLogin {
 	//	private User user;
 	protected static TextField text_Username = new TextField();
 	protected static PasswordField text_Password = new PasswordField();
-	private static Button button_Login = new Button("Log In");	
+	protected static Button button_Login = new Button("Log In");	// Disabled while a login is checked	
 
 	private static Label label_AccountSetupInsrtuctions = new Label("No account? "+	
 			"Enter your invitation code and click on the Account Setup button");
@@ -4,7 +4,9 @@
 module FoundationsF25 {
 	requires javafx.controls;
 	requires java.sql;
+	requires jdk.httpserver;	// headless server mode, see server.DiscussionServer
 	requires org.junit.jupiter.api;
+	requires static jmh.core;	// only for the benchmark package
 	
 	opens applicationMain to javafx.graphics, javafx.fxml;
 	opens entityClasses to javafx.base;
@@ -1,9 +1,13 @@
 package prototype;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import database.Database;
 
 /**
@@ -13,6 +17,28 @@ import database.Database;
  * @author Prince Dahiya
  */
 public class RuleOfThreeVerifier {
+
+    /** Distinct peers a student must reply to, per the HW3 rubric. */
+    public static final int REQUIRED_PEERS = 3;
+
+    /** Rows H2 hands back per fetch while streaming the student report. */
+    static final int REPORT_FETCH_SIZE = 500;
+
+    /**
+     * Title: StudentRowHandler
+     * Description: Receives one student's row at a time from streamStudentReport.
+     */
+    @FunctionalInterface
+    public interface StudentRowHandler {
+        /**
+         * @param username      The student's username
+         * @param firstName     The student's first name
+         * @param lastName      The student's last name
+         * @param distinctPeers How many distinct peers the student has replied to
+         * @throws IOException If the handler cannot write the row
+         */
+        void accept(String username, String firstName, String lastName, int distinctPeers) throws IOException;
+    }
     
     private Database db;
 
@@ -44,9 +70,9 @@ public class RuleOfThreeVerifier {
                      "WHERE reply.authorUsername = ? " +
                      "AND parent.authorUsername != ?";
                      
-        Connection conn = db.getConnection(); 
-        
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        // The connection is borrowed from the Database pool; closing it hands it back
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             // Internal Comment: We bind the targetUsername twice. First to find replies 
             // authored by the student, and second to ensure the parent author is NOT the student,
             // which cleanly satisfies the Req-Eval-3 rule against self-replies.
@@ -57,10 +83,100 @@ public class RuleOfThreeVerifier {
                 if (rs.next()) {
                     int distinctPeers = rs.getInt("uniquePeers");
                     // Internal Comment: The threshold is strictly set to 3 per the HW3 rubric.
-                    return distinctPeers >= 3;
+                    return distinctPeers >= REQUIRED_PEERS;
                 }
             }
         }
         return false;
     }
+
+    /**
+     * Method: getDistinctPeerCounts
+     * Description: The batch form of verifyStudentInteraction. Returns, for every student who
+     * has replied to anyone else, how many distinct peers they replied to, all from one
+     * grouped query. Grading a whole roster this way reads the reply rows once instead of
+     * running one self-join per student. This reads the live table, so it is exact as of the
+     * call; the roster-wide checks below take the same counts from a freshly taken analytics
+     * snapshot instead.
+     * @return Map of username to distinct peer count. Students with no peer replies are absent.
+     * @throws SQLException If the database query fails.
+     */
+    public HashMap<String, Integer> getDistinctPeerCounts() throws SQLException {
+        // Same join and self-reply rule as verifyStudentInteraction, grouped by reply author
+        String sql = "SELECT reply.authorUsername AS student, " +
+                     "COUNT(DISTINCT parent.authorUsername) AS uniquePeers " +
+                     "FROM postDB AS reply " +
+                     "JOIN postDB AS parent ON reply.parentPostId = parent.id " +
+                     "WHERE parent.authorUsername != reply.authorUsername " +
+                     "GROUP BY reply.authorUsername";
+
+        HashMap<String, Integer> counts = new HashMap<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) counts.put(rs.getString("student"), rs.getInt("uniquePeers"));
+        }
+        return counts;
+    }
+
+    /**
+     * Method: countStudents
+     * Description: The number of rows streamStudentReport will produce, for progress reporting.
+     * @return The number of users with the student role.
+     * @throws SQLException If the database query fails.
+     */
+    public int countStudents() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM userDB WHERE newRole1 = TRUE";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Method: streamStudentReport
+     * Description: Walks every student, ordered by username, with their distinct peer count
+     * and hands each row to the handler as it is read. The peer counts come from an analytics
+     * snapshot taken when the report starts (Database.refreshAnalyticsSnapshot), so they
+     * agree with the live per-student check and the report does not run the self-join; the
+     * fresh snapshot is then reused by the staff dashboard.
+     * The users are read through a forward-only cursor, so no list of users is ever built.
+     * @param handler Called once per student, in username order.
+     * @throws SQLException If the database query fails.
+     * @throws IOException If the handler fails to write a row.
+     */
+    public void streamStudentReport(StudentRowHandler handler) throws SQLException, IOException {
+        HashMap<String, Integer> peers = db.refreshAnalyticsSnapshot().getDistinctPeerCounts();
+        String sql = "SELECT userName, firstName, lastName FROM userDB " +
+                     "WHERE newRole1 = TRUE ORDER BY userName";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(REPORT_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String username = rs.getString("userName");
+                    handler.accept(username, rs.getString("firstName"), rs.getString("lastName"),
+                            peers.getOrDefault(username, 0));
+                }
+            }
+        }
+    }
+
+    /**
+     * Method: verifyAllStudents
+     * Description: Returns every student who has replied to at least threshold distinct
+     * peers, using the peer counts of a freshly taken analytics snapshot, as the report does.
+     * @param threshold The number of distinct peers required to pass (REQUIRED_PEERS for HW3).
+     * @return Set of usernames that pass. Anyone not in the set fails.
+     */
+    public HashSet<String> verifyAllStudents(int threshold) {
+        HashSet<String> passed = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : db.refreshAnalyticsSnapshot().getDistinctPeerCounts().entrySet()) {
+            if (entry.getValue() >= threshold) passed.add(entry.getKey());
+        }
+        return passed;
+    }
 }
\ No newline at end of file
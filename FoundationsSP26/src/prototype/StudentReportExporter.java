@@ -0,0 +1,143 @@
+package prototype;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+import database.Database;
+
+/**
+ * Title: StudentReportExporter
+ * Description: Writes the student performance report (Epic 7) as CSV, optionally gzip
+ * compressed. Rows come straight from {@code RuleOfThreeVerifier.streamStudentReport}, with
+ * peer counts from an analytics snapshot taken as the export starts, and go straight into a buffered writer, so
+ * exporting any number of students never holds the roster in memory. Progress is reported through a listener so the caller can show it
+ * while the export runs on a background thread.
+ * @author Prince Dahiya
+ */
+public class StudentReportExporter {
+
+    /** The CSV header row. */
+    public static final String HEADER = "Username,First Name,Last Name,Rule of 3 Status,Distinct Peers";
+
+    /** How many rows are written between progress reports. */
+    public static final int PROGRESS_INTERVAL = 1000;
+
+    /** Output buffer size; large enough that gzip sees whole blocks. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Title: ProgressListener
+     * Description: Told how far the export has got. Called on the exporting thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param done  Rows written so far
+         * @param total Rows expected in total
+         */
+        void progress(long done, long total);
+    }
+
+    private final RuleOfThreeVerifier verifier;
+    private final int threshold;
+
+    /**
+     * Constructor for an exporter using the HW3 threshold.
+     * @param db The active database connection used for querying posts and users.
+     */
+    public StudentReportExporter(Database db) {
+        this(db, RuleOfThreeVerifier.REQUIRED_PEERS);
+    }
+
+    /**
+     * Constructor for an exporter with a custom pass threshold.
+     * @param db        The active database connection used for querying posts and users.
+     * @param threshold Distinct peers a student needs to be reported as PASSED.
+     */
+    public StudentReportExporter(Database db, int threshold) {
+        this.verifier = new RuleOfThreeVerifier(db);
+        this.threshold = threshold;
+    }
+
+    /**
+     * Method: export
+     * Description: Writes the report to a file. A name ending in ".gz" is gzip compressed.
+     * @param file     The file to write.
+     * @param listener Receives progress reports; may be null.
+     * @return The number of students written.
+     * @throws SQLException If the database query fails.
+     * @throws IOException If the file cannot be written.
+     */
+    public long export(File file, ProgressListener listener) throws SQLException, IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            if (file.getName().toLowerCase().endsWith(".gz")) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+                    return export(gzip, listener);
+                }
+            }
+            return export(out, listener);
+        }
+    }
+
+    /**
+     * Method: export
+     * Description: Writes the report as UTF-8 CSV to a stream. The stream is flushed but
+     * not closed.
+     * @param out      Where to write.
+     * @param listener Receives progress reports; may be null.
+     * @return The number of students written.
+     * @throws SQLException If the database query fails.
+     * @throws IOException If the stream cannot be written.
+     */
+    public long export(OutputStream out, ProgressListener listener) throws SQLException, IOException {
+        long total = verifier.countStudents();
+        long[] done = { 0 };
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(HEADER);
+        writer.write('\n');
+
+        verifier.streamStudentReport((username, firstName, lastName, peers) -> {
+            writer.write(csvField(username));
+            writer.write(',');
+            writer.write(csvField(firstName));
+            writer.write(',');
+            writer.write(csvField(lastName));
+            writer.write(',');
+            writer.write(peers >= threshold ? "PASSED" : "FAILED");
+            writer.write(',');
+            writer.write(Integer.toString(peers));
+            writer.write('\n');
+            done[0]++;
+            if (listener != null && done[0] % PROGRESS_INTERVAL == 0)
+                listener.progress(done[0], Math.max(total, done[0]));
+        });
+
+        writer.flush();
+        if (listener != null) listener.progress(done[0], done[0]);
+        return done[0];
+    }
+
+    /**
+     * Method: csvField
+     * Description: Quotes a value if it contains a comma, quote or line break, doubling any
+     * quotes inside it (RFC 4180). Null is written as an empty field.
+     * @param value The raw value.
+     * @return The value as a CSV field.
+     */
+    static String csvField(String value) {
+        if (value == null) return "";
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuotes ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+}
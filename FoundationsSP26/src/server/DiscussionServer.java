@@ -0,0 +1,372 @@
+package server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import database.Database;
+import entityClasses.Post;
+import entityClasses.PostSummary;
+import guiStudentPosts.ModelStudentPosts;
+
+/*******
+ * <p> Title: DiscussionServer Class </p>
+ *
+ * <p> Description: Runs the discussion board without the JavaFX window. One process opens
+ * the Database and serves it over a small HTTP/JSON API on the loopback interface. Any
+ * number of clients and load tests can then share the one store, instead of each desktop
+ * instance needing the H2 file for itself. Reads go to the Database, and posting, editing,
+ * deleting and resolving go through {@link ModelStudentPosts}, so the API validates and
+ * checks ownership exactly as the desktop pages do. </p>
+ *
+ * <p> Each request runs on its own virtual thread. A request blocked on H2 parks its virtual
+ * thread and frees the carrier, so the connection pool, not a thread pool, limits how much
+ * work runs at once. Every route is timed into {@link RequestMetrics}. </p>
+ *
+ * <p> The API (bodies of POST requests are form-encoded; every response is JSON): </p>
+ * <ul>
+ * <li> GET /api/posts?after=&amp;limit=&amp;author= — a page of top-level post summaries, newest first </li>
+ * <li> POST /api/posts — title, body, author, type, parent (optional) </li>
+ * <li> GET /api/posts/{id} — the full post and its replies </li>
+ * <li> POST /api/posts/{id}/edit — user, title, body </li>
+ * <li> POST /api/posts/{id}/delete, /resolve and /read — user </li>
+ * <li> GET /api/search?q= — ranked post summaries </li>
+ * <li> GET /api/statistics — the staff dashboard counts </li>
+ * <li> GET /metrics — the request metrics </li>
+ * </ul>
+ *
+ * <p> The acting user is taken from the request as given. The server only listens on the
+ * loopback interface; it is meant for clients on the same machine, not the network. </p>
+ *
+ * <p> <b>Testing:</b> Validated by {@link testing.TestDiscussionServer}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ * @version 1.01    2026-10-18    Methods other than GET and POST share one metrics name
+ */
+public class DiscussionServer {
+
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 8360;
+    /** Seconds a shutdown waits for requests in progress to finish. */
+    public static final int DEFAULT_DRAIN_SECONDS = 5;
+    /** Largest page of posts one request may ask for. */
+    static final int MAX_PAGE_SIZE = 200;
+    /** Largest request body accepted, in bytes; a post body is at most 4000 characters. */
+    static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final Database db;
+    private final ModelStudentPosts model;
+    private final HttpServer http;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    /** Thrown by a handler to answer with an error status and message. */
+    private static final class HttpError extends Exception {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /** A handler's answer: an HTTP status and a JSON body. */
+    private record Reply(int status, String json) {}
+
+    /** One route's work. The route name is what the metrics are kept under. */
+    private interface Handler {
+        Reply handle(HttpExchange exchange, String[] path) throws Exception;
+    }
+
+
+    /*******
+     * <p> Method: DiscussionServer(Database, int) </p>
+     * <p> Description: Binds the server to a loopback port. Nothing is served until
+     * {@link #start()}. </p>
+     *
+     * @param db   A connected database; the server closes it when it stops
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public DiscussionServer(Database db, int port) throws IOException {
+        this.db = db;
+        this.model = new ModelStudentPosts(db);
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        http.setExecutor(workers);
+        http.createContext("/api/posts", exchange -> serve(exchange, this::posts));
+        http.createContext("/api/search", exchange -> serve(exchange, this::search));
+        http.createContext("/api/statistics", exchange -> serve(exchange, this::statistics));
+        http.createContext("/metrics", exchange -> serve(exchange, this::metrics));
+    }
+
+    /** Starts serving requests. */
+    public void start() {
+        http.start();
+    }
+
+    /** @return The port the server is listening on */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /** @return The request counters and latencies */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+
+    /*******
+     * <p> Method: stop(int) </p>
+     * <p> Description: Shuts down gracefully. The server stops accepting connections, lets
+     * the requests already in progress finish for up to drainSeconds, and then closes the
+     * database. A second call does nothing. </p>
+     *
+     * @param drainSeconds The longest to wait for requests in progress
+     */
+    public void stop(int drainSeconds) {
+        if (!stopped.compareAndSet(false, true)) return;
+        http.stop(drainSeconds);    // closes the listener, then waits for open exchanges
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(drainSeconds, TimeUnit.SECONDS)) workers.shutdownNow();
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        db.closeConnection();
+    }
+
+
+    /*
+     * Runs one request: times it, turns an HttpError into its status and any other failure
+     * into a 500, and always sends a JSON reply.
+     */
+    private void serve(HttpExchange exchange, Handler handler) throws IOException {
+        long start = System.nanoTime();
+        metrics.started();
+        String context = exchange.getHttpContext().getPath();
+        // The method is the client's to choose as well; only the two the API uses get their own name
+        String method = exchange.getRequestMethod();
+        String route = (method.equals("GET") || method.equals("POST") ? method : "{other}") + " " + context;
+        Reply reply;
+        try {
+            String requested = exchange.getRequestURI().getPath();
+            if (!requested.equals(context) && !requested.startsWith(context + "/"))
+                throw new HttpError(404, "No such resource.");
+            String[] path = requested.split("/");
+            // Unknown actions share one name so clients cannot grow the metrics without bound
+            if (path.length > 3 && path[3].matches("\\d+"))
+                route += "/{id}" + (path.length > 4
+                        ? "/" + (path[4].matches("edit|delete|resolve|read") ? path[4] : "{unknown}") : "");
+            reply = handler.handle(exchange, path);
+        } catch (HttpError e) {
+            reply = new Reply(e.status, Json.error(e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            reply = new Reply(500, Json.error("Internal server error."));
+        }
+        try {
+            byte[] body = reply.json().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+            metrics.finished(route, reply.status(), System.nanoTime() - start);
+        }
+    }
+
+
+    // --- Routes ---
+
+    /*
+     * /api/posts, /api/posts/{id} and /api/posts/{id}/{action}
+     */
+    private Reply posts(HttpExchange exchange, String[] path) throws Exception {
+        String method = exchange.getRequestMethod();
+        if (path.length == 3) {
+            if (method.equals("GET")) return listPosts(query(exchange));
+            if (method.equals("POST")) return createPost(form(exchange));
+            throw new HttpError(405, "Use GET or POST.");
+        }
+        int id = parseInt(path[3], "post id");
+        if (path.length == 4) {
+            if (!method.equals("GET")) throw new HttpError(405, "Use GET.");
+            Post post = db.getPostById(id);
+            if (post == null) throw new HttpError(404, "Post not found.");
+            return new Reply(200, "{\"post\":" + Json.post(post)
+                    + ",\"replies\":" + Json.posts(db.getRepliesForPost(id)) + "}");
+        }
+        if (path.length > 5) throw new HttpError(404, "No such resource.");
+        if (!method.equals("POST")) throw new HttpError(405, "Use POST.");
+
+        Map<String, String> form = form(exchange);
+        String user = required(form, "user");
+        Post existing = db.getPostById(id);
+        if (existing == null) throw new HttpError(404, "Post not found.");
+        String error = switch (path[4]) {
+            case "read" -> {
+                model.markPostAndRepliesRead(existing, user);
+                yield "";
+            }
+            case "edit", "delete", "resolve" -> {
+                if (!existing.isAuthoredBy(user)) throw new HttpError(403, "You can only change your own posts.");
+                yield switch (path[4]) {
+                    case "edit" -> model.updatePost(id, required(form, "title"), required(form, "body"), user);
+                    case "delete" -> model.deletePost(id, user);
+                    default -> model.toggleResolved(id, user);
+                };
+            }
+            default -> throw new HttpError(404, "No such action: " + path[4]);
+        };
+        if (!error.isEmpty()) throw new HttpError(400, error);
+        return new Reply(200, Json.post(db.getPostById(id)));
+    }
+
+    private Reply listPosts(Map<String, String> query) throws HttpError {
+        int after = query.containsKey("after") ? parseInt(query.get("after"), "after") : 0;
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit")
+                : ModelStudentPosts.PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new HttpError(400, "limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        String author = query.get("author");
+        ArrayList<PostSummary> page = author == null
+                ? db.getPostSummariesPage(after, limit)
+                : db.getPostSummariesByAuthorPage(author, after, limit);
+        return new Reply(200, "{\"posts\":" + Json.summaries(page) + ",\"more\":" + (page.size() == limit) + "}");
+    }
+
+    private Reply createPost(Map<String, String> form) throws HttpError {
+        int parent = form.containsKey("parent") ? parseInt(form.get("parent"), "parent") : Post.NO_PARENT;
+        if (parent != Post.NO_PARENT && db.getPostById(parent) == null)
+            throw new HttpError(404, "Parent post not found.");
+        String error = model.createPost(form.get("title"), form.get("body"), required(form, "author"),
+                form.getOrDefault("type", "QUESTION"), parent);
+        if (!error.isEmpty()) throw new HttpError(error.startsWith("Database error") ? 500 : 400, error);
+        return new Reply(201, "{\"created\":true}");
+    }
+
+    private Reply search(HttpExchange exchange, String[] path) throws HttpError {
+        if (path.length != 3) throw new HttpError(404, "No such resource.");
+        if (!exchange.getRequestMethod().equals("GET")) throw new HttpError(405, "Use GET.");
+        return new Reply(200, "{\"posts\":" + Json.summaries(model.searchPosts(query(exchange).get("q"))) + "}");
+    }
+
+    private Reply statistics(HttpExchange exchange, String[] path) throws HttpError {
+        if (path.length != 3) throw new HttpError(404, "No such resource.");
+        if (!exchange.getRequestMethod().equals("GET")) throw new HttpError(405, "Use GET.");
+        return new Reply(200, Json.statistics(db.getStatisticsSnapshot()));
+    }
+
+    private Reply metrics(HttpExchange exchange, String[] path) throws HttpError {
+        if (path.length != 2) throw new HttpError(404, "No such resource.");
+        if (!exchange.getRequestMethod().equals("GET")) throw new HttpError(405, "Use GET.");
+        return new Reply(200, metrics.toJson());
+    }
+
+
+    // --- Request parsing ---
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        return decode(exchange.getRequestURI().getRawQuery());
+    }
+
+    private static Map<String, String> form(HttpExchange exchange) throws IOException, HttpError {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) throw new HttpError(413, "Request body is too large.");
+            return decode(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    /*
+     * Splits name=value&name=value, URL-decoding both sides. A repeated name keeps its last value.
+     */
+    private static Map<String, String> decode(String encoded) {
+        HashMap<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) return values;
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            values.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static String required(Map<String, String> values, String name) throws HttpError {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) throw new HttpError(400, "Missing " + name + ".");
+        return value;
+    }
+
+    private static int parseInt(String text, String name) throws HttpError {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Invalid " + name + ": " + text);
+        }
+    }
+
+
+    /*******
+     * <p> Method: main(String[]) </p>
+     * <p> Description: Opens the database and serves it until the process is stopped
+     * (Ctrl+C or a termination signal), then shuts down gracefully. Arguments are
+     * key=value settings: {@code url} [the application's H2 file], {@code port}
+     * [{@value #DEFAULT_PORT}] and {@code drainSeconds} [{@value #DEFAULT_DRAIN_SECONDS}].
+     * The desktop application can start it with {@code --server} followed by the same
+     * settings. </p>
+     *
+     * @param args The settings
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            settings.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int port = Integer.parseInt(settings.getOrDefault("port", Integer.toString(DEFAULT_PORT)));
+        int drainSeconds = Integer.parseInt(settings.getOrDefault("drainSeconds",
+                Integer.toString(DEFAULT_DRAIN_SECONDS)));
+
+        Database db = settings.containsKey("url") ? new Database(settings.get("url")) : new Database();
+        try {
+            db.connectToDatabase();
+        } catch (SQLException e) {
+            System.err.println("Could not open the database; is another instance using it? " + e.getMessage());
+            System.exit(1);
+        }
+        DiscussionServer server = new DiscussionServer(db, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("Shutting down...");
+            server.stop(drainSeconds);
+        }, "server-shutdown"));
+        server.start();
+        System.out.println("Discussion server listening on http://127.0.0.1:" + server.getPort());
+    }
+}
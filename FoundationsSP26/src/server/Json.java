@@ -0,0 +1,116 @@
+package server;
+
+import java.util.List;
+
+import entityClasses.DiscussionStatistics;
+import entityClasses.Post;
+import entityClasses.PostSummary;
+
+/*******
+ * <p> Title: Json Class </p>
+ *
+ * <p> Description: Writes the JSON that {@link DiscussionServer} sends back. The responses
+ * are a handful of fixed shapes (posts, summaries, statistics, errors), so they are built
+ * directly with a StringBuilder rather than through a JSON library the project would have
+ * to ship. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ */
+final class Json {
+
+    private Json() {}
+
+    /*******
+     * <p> Method: quote(String) </p>
+     *
+     * @param text Any text, or null
+     * @return The text as a JSON string literal, or null
+     */
+    static String quote(String text) {
+        if (text == null) return "null";
+        StringBuilder out = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"'  -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    /** @return {"error": message} */
+    static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    /** @return A full post, body and staff comment included, as a JSON object */
+    static String post(Post p) {
+        return "{\"id\":" + p.getId()
+                + ",\"title\":" + quote(p.getTitle())
+                + ",\"body\":" + quote(p.getBody())
+                + ",\"author\":" + quote(p.getAuthorUsername())
+                + ",\"timestamp\":" + quote(p.getTimestamp())
+                + ",\"type\":" + quote(p.getPostType())
+                + ",\"thread\":" + quote(p.getThread())
+                + ",\"parentId\":" + p.getParentPostId()
+                + ",\"rootId\":" + p.getRootPostId()
+                + ",\"resolved\":" + p.isResolved()
+                + ",\"deleted\":" + p.isDeleted()
+                + ",\"endorsed\":" + p.isInstructorEndorsed()
+                + ",\"staffComment\":" + quote(p.getStaffComment()) + "}";
+    }
+
+    /** @return A post list row as a JSON object */
+    static String summary(PostSummary p) {
+        return "{\"id\":" + p.getId()
+                + ",\"title\":" + quote(p.getTitle())
+                + ",\"author\":" + quote(p.getAuthorUsername())
+                + ",\"timestamp\":" + quote(p.getTimestamp())
+                + ",\"type\":" + quote(p.getPostType())
+                + ",\"thread\":" + quote(p.getThread())
+                + ",\"parentId\":" + p.getParentPostId()
+                + ",\"rootId\":" + p.getRootPostId()
+                + ",\"resolved\":" + p.isResolved()
+                + ",\"deleted\":" + p.isDeleted()
+                + ",\"endorsed\":" + p.isInstructorEndorsed() + "}";
+    }
+
+    /** @return The posts as a JSON array of full posts */
+    static String posts(List<Post> posts) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < posts.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(post(posts.get(i)));
+        }
+        return out.append(']').toString();
+    }
+
+    /** @return The summaries as a JSON array */
+    static String summaries(List<PostSummary> summaries) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < summaries.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(summary(summaries.get(i)));
+        }
+        return out.append(']').toString();
+    }
+
+    /** @return The dashboard counts and peak activity as a JSON object */
+    static String statistics(DiscussionStatistics stats) {
+        return "{\"questions\":" + stats.getQuestionCount()
+                + ",\"statements\":" + stats.getStatementCount()
+                + ",\"unresolved\":" + stats.getUnresolvedCount()
+                + ",\"endorsed\":" + stats.getEndorsedCount()
+                + ",\"peakHour\":" + quote(stats.getActivity().getPeakHourLabel()) + "}";
+    }
+}
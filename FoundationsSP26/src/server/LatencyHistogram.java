@@ -0,0 +1,82 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*******
+ * <p> Title: LatencyHistogram Class </p>
+ *
+ * <p> Description: A lock-free latency histogram that any number of threads can record
+ * into. Values are bucketed by their highest set bit and the next {@link #SUB_BITS} bits,
+ * which bounds the error of any reported percentile to about 3%, in a fixed 2K-slot array
+ * no matter how many samples are recorded. The server keeps one per route for its request
+ * metrics, and {@code benchmark.DiscussionLoadDriver} keeps one per operation. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Moved out of DiscussionLoadDriver for the server's request metrics
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder samples = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    /** @param nanos A latency to add; negative values count as 0 */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(index(value));
+        samples.increment();
+        maximum.accumulateAndGet(value, Math::max);
+    }
+
+    /** @return The number of latencies recorded */
+    public long count() {
+        return samples.sum();
+    }
+
+    /** @return The largest latency recorded, or 0 if none */
+    public long max() {
+        return maximum.get();
+    }
+
+    /*******
+     * <p> Method: percentile(double) </p>
+     *
+     * @param fraction The share of samples, such as 0.99
+     * @return The upper bound of the bucket holding that share of samples, or 0 if none
+     */
+    public long percentile(double fraction) {
+        long total = count();
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return Math.min(upperBound(i), max());
+        }
+        return max();
+    }
+
+    /*
+     * Values below SUB_BUCKETS get a bucket each. Above that, row r (r >= 1) holds the
+     * values whose top SUB_BITS + 1 bits are 1xxxxx once shifted right by r - 1.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        long top = value >>> shift;   // in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return (shift + 1) * SUB_BUCKETS + (int) (top - SUB_BUCKETS);
+    }
+
+    static long upperBound(int index) {
+        int row = index / SUB_BUCKETS;
+        long sub = index % SUB_BUCKETS;
+        if (row == 0) return sub;
+        return ((SUB_BUCKETS + sub + 1) << (row - 1)) - 1;
+    }
+}
@@ -0,0 +1,100 @@
+package server;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*******
+ * <p> Title: RequestMetrics Class </p>
+ *
+ * <p> Description: Counts what the {@link DiscussionServer} has served, per route: the
+ * number of requests, the client errors (4xx) and server errors (5xx) among them, and a
+ * {@link LatencyHistogram} of how long they took. It also tracks how many requests are in
+ * progress, which is what a graceful shutdown waits on. Every counter is lock-free, so
+ * recording never makes one request wait for another. </p>
+ *
+ * <p> The server reports these at {@code GET /metrics}. </p>
+ *
+ * @author Prince Dahiya
+ *
+ * @version 1.00    2026-10-18    Initial version
+ */
+public final class RequestMetrics {
+
+    /** The counters for one route, such as "GET /api/posts/{id}". */
+    private static final class Route {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+    }
+
+    private final Instant startedAt = Instant.now();
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Marks the start of a request; pair with {@link #finished(String, int, long)}. */
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /*******
+     * <p> Method: finished(String, int, long) </p>
+     *
+     * @param route  The route the request matched
+     * @param status The HTTP status sent
+     * @param nanos  How long the request took
+     */
+    void finished(String route, int status, long nanos) {
+        inFlight.decrementAndGet();
+        Route counters = routes.computeIfAbsent(route, _ -> new Route());
+        counters.latency.record(nanos);
+        if (status >= 500) counters.serverErrors.increment();
+        else if (status >= 400) counters.clientErrors.increment();
+    }
+
+    /** @return Requests that have started and not yet finished */
+    public int getInFlight() { return inFlight.get(); }
+
+    /** @return Requests served on the route so far, 0 if none */
+    public long getCount(String route) {
+        Route counters = routes.get(route);
+        return counters == null ? 0 : counters.latency.count();
+    }
+
+    /*******
+     * <p> Method: toJson() </p>
+     *
+     * @return The uptime, requests in flight and, per route in name order, the count, error
+     *         counts and p50/p99/max latency in milliseconds, as a JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"uptimeSeconds\":")
+                .append(Duration.between(startedAt, Instant.now()).toSeconds())
+                .append(",\"inFlight\":").append(inFlight.get())
+                .append(",\"routes\":{");
+        boolean first = true;
+        for (Map.Entry<String, Route> entry : new TreeMap<>(routes).entrySet()) {
+            Route counters = entry.getValue();
+            if (!first) json.append(',');
+            first = false;
+            json.append(Json.quote(entry.getKey()))
+                    .append(":{\"count\":").append(counters.latency.count())
+                    .append(",\"clientErrors\":").append(counters.clientErrors.sum())
+                    .append(",\"serverErrors\":").append(counters.serverErrors.sum())
+                    .append(",\"p50Millis\":").append(millis(counters.latency.percentile(0.50)))
+                    .append(",\"p99Millis\":").append(millis(counters.latency.percentile(0.99)))
+                    .append(",\"maxMillis\":").append(millis(counters.latency.max()))
+                    .append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
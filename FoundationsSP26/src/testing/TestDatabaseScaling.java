@@ -0,0 +1,855 @@
+package testing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import database.AsyncDatabase;
+import database.Database;
+import entityClasses.Post;
+import entityClasses.PostBadge;
+import entityClasses.PostSummary;
+import entityClasses.ThreadNode;
+
+/**
+ * Title: TestDatabaseScaling Class
+ *
+ * Description: A JUnit test suite for the Database changes made so the discussion board
+ * keeps working as the number of posts, replies and users grows. Like the TP3 suite it
+ * uses an isolated in-memory database so every test starts from a clean slate. Each test
+ * checks that a batched or indexed code path returns exactly what the original per-row
+ * methods return.
+ */
+public class TestDatabaseScaling {
+
+    private Database db;
+
+    /**
+     * Method: setUp
+     * Description: Initializes a fresh, isolated in-memory database connection before
+     * each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        try {
+            db = new Database("jdbc:h2:mem:scalingtestdb;DB_CLOSE_DELAY=-1");
+            db.connectToDatabase();
+            db.dropAllPostTables();
+            db.connectToDatabase();
+        } catch (Exception e) {
+            fail("Database setup failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: tearDown
+     * Description: Releases the connection so the next test gets a fresh one.
+     */
+    @AfterEach
+    public void tearDown() {
+        db.closeConnection();
+    }
+
+    /**
+     * Method: testPostBadgesMatchPerRowQueries
+     * Description: Verifies {@code Database.getPostBadges()} returns the same read flag, reply
+     * count and unread count as {@code isPostRead()}, {@code getReplyCount()} and
+     * {@code getUnreadReplyCount()} for every post, including posts with no replies.
+     */
+    @Test
+    public void testPostBadgesMatchPerRowQueries() {
+        try {
+            db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+            db.createPost(new Post("Q2", "Body", "Bob", "QUESTION", -1));
+            db.createPost(new Post("S1", "Body", "Charlie", "STATEMENT", -1));
+
+            ArrayList<Post> posts = db.getAllPosts();
+            int q1 = posts.get(2).getId();
+            int q2 = posts.get(1).getId();
+
+            db.createPost(new Post("Re", "Body", "Bob", "STATEMENT", q1));
+            db.createPost(new Post("Re", "Body", "Charlie", "STATEMENT", q1));
+            db.createPost(new Post("Re", "Body", "Alice", "STATEMENT", q2));
+
+            // Dave reads Q1 and one of its replies
+            db.markAsRead(q1, "Dave");
+            db.markAsRead(db.getRepliesForPost(q1).get(0).getId(), "Dave");
+
+            List<Integer> ids = new ArrayList<>();
+            for (Post p : posts) ids.add(p.getId());
+            HashMap<Integer, PostBadge> badges = db.getPostBadges(ids, "Dave");
+
+            assertEquals(3, badges.size(), "Every requested post should have a badge.");
+            for (Post p : posts) {
+                PostBadge b = badges.get(p.getId());
+                assertEquals(db.isPostRead(p.getId(), "Dave"), b.isRead(), "Read flag mismatch for " + p);
+                assertEquals(db.getReplyCount(p.getId()), b.getReplyCount(), "Reply count mismatch for " + p);
+                assertEquals(db.getUnreadReplyCount(p.getId(), "Dave"), b.getUnreadReplyCount(),
+                        "Unread count mismatch for " + p);
+            }
+            assertEquals(1, badges.get(q1).getUnreadReplyCount(), "Q1 should have 1 unread reply.");
+
+            assertTrue(db.getPostBadges(new ArrayList<>(), "Dave").isEmpty(),
+                    "An empty ID list should return an empty map.");
+        } catch (Exception e) {
+            fail("Post badge test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testConnectionPoolConcurrentUse
+     * Description: Runs readers and writers on several threads against a pool of two
+     * connections. Every insert must land and every count must succeed, and a thread that
+     * borrows twice (nested call) must not deadlock against a pool of size one.
+     */
+    @Test
+    public void testConnectionPoolConcurrentUse() {
+        Database pooled = new Database("jdbc:h2:mem:pooltestdb;DB_CLOSE_DELAY=-1;POOL_SIZE=2");
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        try {
+            pooled.connectToDatabase();
+            pooled.dropAllPostTables();
+            pooled.connectToDatabase();
+
+            ArrayList<Future<?>> jobs = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final String author = "user" + t;
+                jobs.add(workers.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        pooled.createPost(new Post("T" + i, "Body", author, "QUESTION", -1));
+                        pooled.getPostsByAuthor(author);
+                        pooled.getNumberOfUsers();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> job : jobs) job.get(60, TimeUnit.SECONDS);
+            assertEquals(200, pooled.getAllPosts().size(), "Every concurrent insert should be stored.");
+
+            Database single = new Database("jdbc:h2:mem:pooltestdb;DB_CLOSE_DELAY=-1;POOL_SIZE=1");
+            single.connectToDatabase();
+            try (Connection outer = single.getConnection()) {
+                // A nested call on the same thread reuses the held connection
+                assertEquals(200, single.getAllPosts().size(), "Nested borrow should not deadlock.");
+                assertFalse(outer.isClosed(), "Inner calls must not release the outer handle.");
+            }
+            single.closeConnection();
+        } catch (Exception e) {
+            fail("Connection pool test failed due to exception: " + e);
+        } finally {
+            workers.shutdownNow();
+            pooled.closeConnection();
+        }
+    }
+
+    /**
+     * Method: testStatementCacheReusesHotQueries
+     * Description: Repeats the hot read paths and checks the second and later calls are
+     * cache hits, and that results stay correct when the same SQL is reused with
+     * different parameters.
+     */
+    @Test
+    public void testStatementCacheReusesHotQueries() {
+        try {
+            db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+            db.createPost(new Post("Q2", "Body", "Bob", "QUESTION", -1));
+            int q1 = db.getAllPosts().get(1).getId();
+            int q2 = db.getAllPosts().get(0).getId();
+
+            db.isPostRead(q1, "Dave"); // warm the cache
+            long hitsBefore = db.getStatementCacheHits();
+            long missesBefore = db.getStatementCacheMisses();
+            for (int i = 0; i < 50; i++) {
+                db.markAsRead(q1, "Dave");
+                assertTrue(db.isPostRead(q1, "Dave"));
+                assertFalse(db.isPostRead(q2, "Dave"), "Reused statement must bind fresh parameters.");
+            }
+            assertTrue(db.getStatementCacheHits() - hitsBefore >= 149, "Repeated SQL should hit the cache.");
+            assertTrue(db.getStatementCacheMisses() - missesBefore <= 1, "Only markAsRead should be parsed.");
+            assertEquals("Q2", db.getPostById(q2).getTitle());
+            assertEquals("Q1", db.getPostById(q1).getTitle());
+        } catch (Exception e) {
+            fail("Statement cache test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testReturnedStatementClosesResultSet
+     * Description: Closes a cached statement while its ResultSet is still open and checks
+     * the ResultSet is closed with it, and that the next caller of the same SQL reads
+     * fresh rows.
+     */
+    @Test
+    public void testReturnedStatementClosesResultSet() throws SQLException {
+        db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+        db.createPost(new Post("Q2", "Body", "Alice", "QUESTION", -1));
+        String query = "SELECT id FROM postDB ORDER BY id";
+        try (Connection conn = db.getConnection()) {
+            PreparedStatement pstmt = conn.prepareStatement(query);
+            ResultSet leaked = pstmt.executeQuery();
+            assertTrue(leaked.next());
+            pstmt.close();
+            assertTrue(leaked.isClosed(), "Returning the statement should close its ResultSet.");
+
+            try (PreparedStatement again = conn.prepareStatement(query);
+                 ResultSet rs = again.executeQuery()) {
+                int rows = 0;
+                while (rs.next()) rows++;
+                assertEquals(2, rows);
+            }
+        }
+    }
+
+    /**
+     * Method: testFullTextSearch
+     * Description: Checks the ranked search: AND by default, OR between words, quoted
+     * phrases, prefix matching, ranking by relevance, and that creates, edits and deletes
+     * made after the index was built show up in the next search.
+     */
+    @Test
+    public void testFullTextSearch() {
+        try {
+            db.createPost(new Post("HashMap iteration order", "Why does my HashMap print keys in a "
+                    + "random order?", "Alice", "QUESTION", -1));
+            db.createPost(new Post("Sorting an ArrayList", "Collections.sort works on any list "
+                    + "of comparable items.", "Bob", "QUESTION", -1));
+            db.createPost(new Post("HashMap vs TreeMap", "A TreeMap keeps keys sorted, a HashMap "
+                    + "does not. HashMap lookups are faster.", "Charlie", "STATEMENT", -1));
+
+            List<Post> results = db.searchPosts("hashmap");
+            assertEquals(2, results.size(), "Both HashMap posts should match.");
+            assertEquals("Charlie", results.get(0).getAuthorUsername(),
+                    "The post mentioning HashMap most should rank first.");
+
+            assertEquals(1, db.searchPosts("hashmap treemap").size(), "Words are ANDed.");
+            assertEquals(3, db.searchPosts("iteration OR sort").size(), "OR accepts either word.");
+            assertEquals(1, db.searchPosts("\"keys sorted\"").size(), "Phrase must be adjacent.");
+            assertTrue(db.searchPosts("\"sorted keys\"").isEmpty(), "Phrase order matters.");
+            assertEquals("Bob", db.searchPosts("compar").get(0).getAuthorUsername(),
+                    "A word should match longer words that start with it.");
+
+            // Changes after the index is built must be visible to the next search
+            db.createPost(new Post("LinkedList question", "Is a LinkedList faster?", "Dave", "QUESTION", -1));
+            int linked = db.searchPosts("linkedlist").get(0).getId();
+            db.createPost(new Post("Re", "LinkedList reply", "Eve", "STATEMENT", linked));
+            assertEquals(1, db.searchPosts("linkedlist").size(), "Replies are not searchable.");
+
+            db.updatePost(linked, "Deque question", "Is an ArrayDeque faster?");
+            assertTrue(db.searchPosts("linkedlist").isEmpty(), "Edited-out words should not match.");
+            assertEquals(1, db.searchPosts("arraydeque").size(), "Edited-in words should match.");
+
+            db.softDeletePost(linked);
+            assertTrue(db.searchPosts("arraydeque").isEmpty(), "Deleted posts should not match.");
+            assertEquals(3, db.searchPosts("").size(), "A blank query lists every searchable post.");
+        } catch (Exception e) {
+            fail("Full-text search test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testKeysetPagesMatchFullLists
+     * Description: Pages through the post list, an author's posts and the threaded staff
+     * view with small pages and checks the concatenated pages equal the unpaged lists,
+     * including a soft-deleted post with replies and replies orphaned by a hard delete.
+     */
+    @Test
+    public void testKeysetPagesMatchFullLists() {
+        try {
+            for (int i = 0; i < 20; i++)
+                db.createPost(new Post("T" + i, "Body", i % 3 == 0 ? "Alice" : "Bob", "QUESTION", -1));
+            ArrayList<Post> top = db.getAllPosts();
+            for (int i = 0; i < top.size(); i += 4) {
+                db.createPost(new Post("Re", "Body", "Charlie", "STATEMENT", top.get(i).getId()));
+                db.createPost(new Post("Re", "Body", "Alice", "STATEMENT", top.get(i).getId()));
+            }
+            db.softDeletePost(top.get(0).getId());  // deleted but has replies: still listed
+            db.softDeletePost(top.get(1).getId());  // deleted, no replies: hidden
+            db.deletePost(top.get(4).getId());      // hard delete leaves orphaned replies
+
+            assertEquals(ids(db.getAllPosts()), ids(collectPages(last -> db.getPostsPage(last, 3))),
+                    "Paged post list should match getAllPosts().");
+            assertEquals(ids(db.getPostsByAuthor("Alice")),
+                    ids(collectPages(last -> db.getPostsByAuthorPage("Alice", last, 2))),
+                    "Paged author list should match getPostsByAuthor().");
+
+            ArrayList<Post> threaded = new ArrayList<>();
+            int lastThread = 0;
+            ArrayList<Post> page;
+            while (!(page = db.getContextualThreadedPostsPage(lastThread, 3)).isEmpty()) {
+                threaded.addAll(page);
+                Post last = page.get(page.size() - 1);
+                lastThread = last.getParentPostId() == -1 ? last.getId() : last.getParentPostId();
+            }
+            assertEquals(ids(db.getContextualThreadedPosts()), ids(threaded),
+                    "Paged threads should match getContextualThreadedPosts().");
+        } catch (Exception e) {
+            fail("Keyset paging test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testAsyncReadsRunOffCallerThread
+     * Description: Verifies {@code AsyncDatabase} runs reads on its own threads, returns the
+     * same results as the synchronous methods, and completes the future exceptionally
+     * (rather than throwing on the caller) when a query fails.
+     */
+    @Test
+    public void testAsyncReadsRunOffCallerThread() {
+        try (AsyncDatabase async = new AsyncDatabase(db)) {
+            for (int i = 0; i < 5; i++)
+                db.createPost(new Post("T" + i, "Body", "Alice", "QUESTION", -1));
+
+            Thread caller = Thread.currentThread();
+            Thread worker = async.submit(_ -> Thread.currentThread()).get(10, TimeUnit.SECONDS);
+            assertNotSame(caller, worker, "Reads must not run on the calling thread.");
+            assertTrue(worker.isVirtual(), "Reads should run on virtual threads.");
+
+            assertEquals(ids(db.getAllPosts()), ids(async.getAllPosts().get(10, TimeUnit.SECONDS)),
+                    "Async getAllPosts() should match the synchronous call.");
+            assertEquals(ids(db.getPostsPage(0, 2)), ids(async.getPostsPage(0, 2).get(10, TimeUnit.SECONDS)),
+                    "Async getPostsPage() should match the synchronous call.");
+
+            java.util.concurrent.CompletableFuture<Object> failed = async.submit(_ -> {
+                throw new SQLException("boom");
+            });
+            java.util.concurrent.ExecutionException e = assertThrows(
+                    java.util.concurrent.ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, e.getCause(), "The SQLException should be the cause.");
+        } catch (Exception e) {
+            fail("Async read test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testPostCacheInvalidation
+     * Description: Verifies repeated getPostById() and getRepliesForPost() calls are served
+     * from the post cache, and that every post write method is seen by the next read: edits,
+     * resolving, endorsing, staff comments, soft and hard deletes, new replies and edits to a
+     * reply inside a cached reply list.
+     */
+    @Test
+    public void testPostCacheInvalidation() {
+        try {
+            db.createPost(new Post("Cached", "Body", "Alice", "QUESTION", -1));
+            int id = db.getAllPosts().get(0).getId();
+            db.createPost(new Post("Re", "First", "Bob", "STATEMENT", id));
+
+            long hits = db.getPostCacheHits();
+            db.getPostById(id);
+            db.getPostById(id).setTitle("Changed by the caller");
+            assertEquals("Cached", db.getPostById(id).getTitle(), "Callers must get copies.");
+            db.getRepliesForPost(id);
+            db.getRepliesForPost(id);
+            assertTrue(db.getPostCacheHits() >= hits + 3, "Repeated reads should hit the cache.");
+
+            db.updatePost(id, "Edited", "New body");
+            assertEquals("Edited", db.getPostById(id).getTitle());
+            db.markPostResolved(id, true);
+            assertTrue(db.getPostById(id).isResolved());
+            db.updateInstructorEndorsement(id, true);
+            assertTrue(db.getPostById(id).isInstructorEndorsed());
+            db.updateStaffComment(id, "Good question");
+            assertEquals("Good question", db.getPostById(id).getStaffComment());
+            db.softDeletePost(id);
+            assertTrue(db.getPostById(id).isDeleted());
+
+            db.createPost(new Post("Re", "Second", "Carol", "STATEMENT", id));
+            ArrayList<Post> replies = db.getRepliesForPost(id);
+            assertEquals(2, replies.size(), "A new reply must show in the cached list.");
+            db.updatePost(replies.get(0).getId(), "Re", "First, edited");
+            assertEquals("First, edited", db.getRepliesForPost(id).get(0).getBody(),
+                    "Editing a reply must refresh its parent's list.");
+            db.softDeletePost(replies.get(1).getId());
+            assertTrue(db.getRepliesForPost(id).get(1).isDeleted());
+
+            db.deletePost(id);
+            assertNull(db.getPostById(id), "A hard-deleted post must not be served from the cache.");
+        } catch (Exception e) {
+            fail("Post cache test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testReplyCountersStayConsistent
+     * Description: Verifies the stored replyCount and lastActivityAt follow reply creates,
+     * soft deletes and hard deletes, that the list and unresolved queries read them, and that
+     * rebuildPostCounters() repairs counters corrupted behind the Database's back.
+     */
+    @Test
+    public void testReplyCountersStayConsistent() {
+        try {
+            db.createPost(new Post(1, "Q", "Body", "Alice", "2026-10-01 09:00:00", "QUESTION",
+                    "General", -1, false, false, false, ""));
+            int id = db.getAllPosts().get(0).getId();
+            assertEquals(1, db.getUnresolvedQuestions().size(), "A question without replies is unresolved.");
+
+            db.createPost(new Post(1, "Re", "First", "Bob", "2026-10-02 10:00:00", "STATEMENT",
+                    "General", id, false, false, false, ""));
+            db.createPost(new Post(1, "Re", "Second", "Carol", "2026-10-03 11:00:00", "STATEMENT",
+                    "General", id, false, false, false, ""));
+            assertEquals(2, db.getReplyCount(id));
+            assertEquals("2026-10-03 11:00:00", lastActivity(id));
+            assertTrue(db.getUnresolvedQuestions().isEmpty(), "A replied question is not unresolved.");
+
+            ArrayList<Post> replies = db.getRepliesForPost(id);
+            db.softDeletePost(id);
+            db.softDeletePost(replies.get(0).getId());
+            assertEquals(2, db.getReplyCount(id), "Soft-deleted replies are still counted.");
+            assertEquals(1, db.getAllPosts().size(), "A deleted post with replies stays listed.");
+
+            db.deletePost(replies.get(1).getId());
+            assertEquals(1, db.getReplyCount(id));
+            assertEquals("2026-10-02 10:00:00", lastActivity(id), "Last activity falls back to the older reply.");
+            db.deletePost(replies.get(0).getId());
+            assertEquals(0, db.getReplyCount(id));
+            assertEquals("2026-10-01 09:00:00", lastActivity(id));
+            assertTrue(db.getAllPosts().isEmpty(), "A deleted post without replies is hidden.");
+
+            try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("UPDATE postDB SET replyCount = 7, lastActivityAt = NULL");
+            }
+            assertEquals(1, db.rebuildPostCounters(), "Only the corrupted row should be rewritten.");
+            assertEquals(0, db.getReplyCount(id));
+            assertEquals("2026-10-01 09:00:00", lastActivity(id));
+            assertEquals(0, db.rebuildPostCounters(), "Counters that agree are left alone.");
+        } catch (Exception e) {
+            fail("Reply counter test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testReadWatermarks
+     * Description: Verifies replies read out of order are kept as exceptions until the gap
+     * below them is read, after which the watermark absorbs them, and that unread counts
+     * stay right through new and hard-deleted replies.
+     */
+    @Test
+    public void testReadWatermarks() {
+        try {
+            db.createPost(new Post("Q", "Body", "Alice", "QUESTION", -1));
+            int id = db.getAllPosts().get(0).getId();
+            for (int i = 0; i < 4; i++) db.createPost(new Post("Re", "Reply " + i, "Bob", "STATEMENT", id));
+            ArrayList<Post> replies = db.getRepliesForPost(id);
+
+            assertFalse(db.isPostRead(id, "Dave"));
+            db.markAsRead(id, "Dave");
+            assertTrue(db.isPostRead(id, "Dave"));
+            assertEquals(4, db.getUnreadReplyCount(id, "Dave"));
+
+            db.markAsRead(replies.get(2).getId(), "Dave");
+            db.markAsRead(replies.get(3).getId(), "Dave");
+            assertTrue(db.isPostRead(replies.get(3).getId(), "Dave"));
+            assertFalse(db.isPostRead(replies.get(0).getId(), "Dave"));
+            assertEquals(2, db.getUnreadReplyCount(id, "Dave"));
+            assertEquals(2, countRows("readExceptionDB"), "Out-of-order reads are exceptions.");
+
+            db.markAsRead(replies.get(0).getId(), "Dave");
+            db.markAsRead(replies.get(1).getId(), "Dave");
+            db.markAsRead(replies.get(1).getId(), "Dave");
+            assertEquals(0, db.getUnreadReplyCount(id, "Dave"));
+            assertEquals(0, countRows("readExceptionDB"), "Closing the gap folds exceptions into the watermark.");
+
+            db.createPost(new Post("Re", "Late", "Carol", "STATEMENT", id));
+            assertEquals(1, db.getUnreadReplyCount(id, "Dave"), "A new reply is unread.");
+            db.deletePost(replies.get(1).getId());
+            assertEquals(1, db.getUnreadReplyCount(id, "Dave"), "Deleting a read reply keeps the unread count.");
+            db.deletePost(db.getRepliesForPost(id).get(3).getId());
+            assertEquals(0, db.getUnreadReplyCount(id, "Dave"), "Deleting the unread reply clears it.");
+            assertEquals(db.getReplyCount(id), db.getUnreadReplyCount(id, "Erin"),
+                    "A user with no watermark has every reply unread.");
+
+            db.deletePost(id);
+            assertEquals(0, countRows("readWatermarkDB"), "A hard-deleted thread drops its watermarks.");
+        } catch (Exception e) {
+            fail("Read watermark test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testMarkThreadRead
+     * Description: Verifies markThreadRead() marks a large thread and all its replies read,
+     * clears the exceptions it covers, and leaves replies posted afterwards unread.
+     */
+    @Test
+    public void testMarkThreadRead() {
+        try {
+            db.createPost(new Post("Busy", "Body", "Alice", "QUESTION", -1));
+            int id = db.getAllPosts().get(0).getId();
+            for (int i = 0; i < 300; i++) db.createPost(new Post("Re", "Reply " + i, "Bob", "STATEMENT", id));
+            ArrayList<Post> replies = db.getRepliesForPost(id);
+            db.markAsRead(replies.get(150).getId(), "Dave");   // an out-of-order exception
+
+            db.markThreadRead(id, "Dave");
+            assertTrue(db.isPostRead(id, "Dave"));
+            assertEquals(0, db.getUnreadReplyCount(id, "Dave"));
+            for (Post reply : replies) assertTrue(db.isPostRead(reply.getId(), "Dave"));
+            assertEquals(0, countRows("readExceptionDB"), "The watermark covers the old exception.");
+
+            db.createPost(new Post("Re", "Late", "Carol", "STATEMENT", id));
+            assertEquals(1, db.getUnreadReplyCount(id, "Dave"));
+            int late = db.getRepliesForPost(id).get(300).getId();
+            assertFalse(db.isPostRead(late, "Dave"));
+            db.markThreadRead(late, "Dave");
+            assertTrue(db.isPostRead(late, "Dave"), "Marking a reply's thread also marks the reply.");
+            assertEquals(0, db.getUnreadReplyCount(id, "Dave"));
+        } catch (Exception e) {
+            fail("Mark thread read test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testReadStatusMigration
+     * Description: Rewinds the schema to before migration 3, fills the legacy readStatusDB
+     * and reconnects, then checks every read flag and unread count survived the conversion.
+     */
+    @Test
+    public void testReadStatusMigration() {
+        try {
+            db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+            db.createPost(new Post("Q2", "Body", "Alice", "QUESTION", -1));
+            ArrayList<Post> threads = db.getAllPosts();
+            int q1 = threads.get(1).getId();
+            int q2 = threads.get(0).getId();
+            for (int i = 0; i < 5; i++) db.createPost(new Post("Re", "Reply " + i, "Bob", "STATEMENT", q1));
+            ArrayList<Post> replies = db.getRepliesForPost(q1);
+
+            try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE readWatermarkDB");
+                stmt.execute("DROP TABLE readExceptionDB");
+                stmt.execute("DELETE FROM schemaVersion WHERE version >= 3");
+                stmt.execute("CREATE TABLE readStatusDB (username VARCHAR(255) NOT NULL, "
+                        + "postId INT NOT NULL, PRIMARY KEY (username, postId))");
+                // Dave read Q1, its first two replies and the fourth; Erin read only Q2
+                for (int postId : new int[] { q1, replies.get(0).getId(), replies.get(1).getId(),
+                        replies.get(3).getId() })
+                    stmt.execute("INSERT INTO readStatusDB VALUES ('Dave', " + postId + ")");
+                stmt.execute("INSERT INTO readStatusDB VALUES ('Erin', " + q2 + ")");
+            }
+            db.connectToDatabase();
+
+            assertTrue(db.getSchemaVersion() >= 3);
+            assertTrue(db.isPostRead(q1, "Dave"));
+            assertFalse(db.isPostRead(q2, "Dave"));
+            assertTrue(db.isPostRead(q2, "Erin"));
+            boolean[] daveRead = { true, true, false, true, false };
+            for (int i = 0; i < 5; i++)
+                assertEquals(daveRead[i], db.isPostRead(replies.get(i).getId(), "Dave"), "Reply " + i);
+            assertEquals(2, db.getUnreadReplyCount(q1, "Dave"));
+            assertEquals(5, db.getUnreadReplyCount(q1, "Erin"));
+            assertEquals(1, countRows("readExceptionDB"), "Only the fourth reply is above the watermark.");
+            try (Connection conn = db.getConnection();
+                 ResultSet rs = conn.getMetaData().getTables(null, null, "READSTATUSDB", null)) {
+                assertFalse(rs.next(), "The legacy table should be dropped.");
+            }
+        } catch (Exception e) {
+            fail("Read status migration test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testReadStatusMigrationResumes
+     * Description: Rewinds the schema to before migration 3 while leaving behind the rows a
+     * previous, interrupted run had already converted, then reconnects. The conversion must
+     * run again without a key violation and end with the same read state.
+     */
+    @Test
+    public void testReadStatusMigrationResumes() throws SQLException {
+        db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+        int q1 = db.getAllPosts().get(0).getId();
+        for (int i = 0; i < 4; i++) db.createPost(new Post("Re", "Reply " + i, "Bob", "STATEMENT", q1));
+        ArrayList<Post> replies = db.getRepliesForPost(q1);
+
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM schemaVersion WHERE version >= 3");
+            stmt.execute("CREATE TABLE readStatusDB (username VARCHAR(255) NOT NULL, "
+                    + "postId INT NOT NULL, PRIMARY KEY (username, postId))");
+            // Dave read Q1, the first reply and the third
+            for (int postId : new int[] { q1, replies.get(0).getId(), replies.get(2).getId() })
+                stmt.execute("INSERT INTO readStatusDB VALUES ('Dave', " + postId + ")");
+            // What the interrupted run had already written
+            stmt.execute("INSERT INTO readWatermarkDB (username, threadId, postRead) VALUES ('Dave', " + q1 + ", TRUE)");
+            stmt.execute("INSERT INTO readExceptionDB VALUES ('Dave', " + replies.get(2).getId() + ", " + q1 + ")");
+        }
+        db.connectToDatabase();
+
+        assertTrue(db.getSchemaVersion() >= 3);
+        assertTrue(db.isPostRead(q1, "Dave"));
+        boolean[] daveRead = { true, false, true, false };
+        for (int i = 0; i < 4; i++)
+            assertEquals(daveRead[i], db.isPostRead(replies.get(i).getId(), "Dave"), "Reply " + i);
+        assertEquals(2, db.getUnreadReplyCount(q1, "Dave"));
+        assertEquals(1, countRows("readExceptionDB"));
+        assertEquals(1, countRows("readWatermarkDB"));
+    }
+
+    /**
+     * Method: testMalformedTimestampMigration
+     * Description: Rewinds the schema to before migration 4 with legacy text timestamps in
+     * several layouts, one of them unreadable, and reconnects. The TIMESTAMP conversion must
+     * succeed, readable layouts keep their time and the unreadable row takes the timestamp
+     * of the post before it.
+     */
+    @Test
+    public void testMalformedTimestampMigration() throws SQLException {
+        for (int i = 0; i < 4; i++) db.createPost(new Post("Q" + i, "Body", "Alice", "QUESTION", -1));
+        ArrayList<Post> posts = db.getAllPosts();
+        int p0 = posts.get(3).getId(), p1 = posts.get(2).getId(), p2 = posts.get(1).getId(), p3 = posts.get(0).getId();
+
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM schemaVersion WHERE version >= 4");
+            stmt.execute("DROP INDEX IF EXISTS idx_post_activity");
+            stmt.execute("ALTER TABLE postDB ALTER COLUMN timestamp SET DATA TYPE VARCHAR(30)");
+            stmt.execute("ALTER TABLE postDB ALTER COLUMN lastActivityAt SET DATA TYPE VARCHAR(30)");
+            stmt.execute("UPDATE postDB SET timestamp = '2026-03-01 09:15:00' WHERE id = " + p0);
+            stmt.execute("UPDATE postDB SET timestamp = 'last tuesday' WHERE id = " + p1);
+            stmt.execute("UPDATE postDB SET timestamp = '2026-03-02T10:30' WHERE id = " + p2);
+            stmt.execute("UPDATE postDB SET timestamp = ' 2026-03-03 11:45 ' WHERE id = " + p3);
+        }
+        db.connectToDatabase();
+
+        assertEquals(5, db.getSchemaVersion());
+        assertEquals("2026-03-01 09:15:00", db.getPostById(p0).getTimestamp());
+        assertEquals("2026-03-01 09:15:00", db.getPostById(p1).getTimestamp(),
+                "An unreadable timestamp takes the one of the post before it.");
+        assertEquals("2026-03-02 10:30:00", db.getPostById(p2).getTimestamp());
+        assertEquals("2026-03-03 11:45:00", db.getPostById(p3).getTimestamp());
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM schemaVersion WHERE version = 4")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1), "Version 4 is recorded exactly once.");
+        }
+    }
+
+    /**
+     * Method: testThreadTrees
+     * Description: Builds threads with nested replies, a reply orphaned by deleting its
+     * parent reply and a thread whose first post was deleted. Checks the stored root
+     * pointer keeps nested replies in their thread, that thread trees only read replies
+     * when expanded and link each reply under its parent, and that migration 5 backfills
+     * the same roots on an existing database.
+     */
+    @Test
+    public void testThreadTrees() throws SQLException {
+        db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+        db.createPost(new Post("Q2", "Body", "Alice", "QUESTION", -1));
+        db.createPost(new Post("Q3", "Body", "Alice", "QUESTION", -1));
+        ArrayList<Post> top = db.getAllPosts();
+        int q1 = top.get(2).getId(), q2 = top.get(1).getId(), q3 = top.get(0).getId();
+        db.createPost(new Post("Re", "a", "Bob", "STATEMENT", q1));
+        int a = db.getRepliesForPost(q1).get(0).getId();
+        db.createPost(new Post("Re", "b", "Carol", "STATEMENT", q2));
+        db.createPost(new Post("Re", "a1", "Carol", "STATEMENT", a));
+        int a1 = db.getRepliesForPost(a).get(0).getId();
+        db.createPost(new Post("Re", "a1x", "Dave", "STATEMENT", a1));
+        int a1x = db.getRepliesForPost(a1).get(0).getId();
+        db.createPost(new Post("Re", "a2", "Dave", "STATEMENT", a));
+        db.createPost(new Post("Re", "c", "Erin", "STATEMENT", q3));
+        db.createPost(new Post("Re", "c1", "Erin", "STATEMENT", db.getRepliesForPost(q3).get(0).getId()));
+        db.deletePost(a1);  // a1x is orphaned inside thread q1
+        db.deletePost(q3);  // thread q3 loses its first post
+
+        assertEquals(q1, db.getPostById(a1x).getRootPostId(), "A nested reply should store its thread's root.");
+        ArrayList<Post> threaded = db.getContextualThreadedPosts();
+        assertEquals(List.of("a", "a1x", "a2", "b", "c", "c1"), threaded.stream()
+                .filter(Post::isReply).map(Post::getBody).toList(),
+                "Nested replies should stay in their top-level post's thread.");
+
+        ArrayList<ThreadNode> trees = db.getThreadTrees(0, 2);
+        assertEquals(List.of(q1, q2), trees.stream().map(ThreadNode::getThreadId).toList());
+        assertFalse(trees.get(0).isLoaded(), "Replies should only be read when the thread is expanded.");
+        ThreadNode first = trees.get(0);
+        assertEquals(List.of("Body", "a", "a2", "a1x"),
+                List.of(first.getPost().getBody(), first.getChildren().get(0).getPost().getBody(),
+                        first.getChildren().get(0).getChildren().get(0).getPost().getBody(),
+                        first.getChildren().get(1).getPost().getBody()),
+                "a2 should hang under a, and the orphaned a1x under the thread's first post.");
+        assertEquals(List.of(0, 1, 2, 1), first.flatten().stream().map(ThreadNode::getDepth).toList());
+
+        ArrayList<ThreadNode> rest = db.getThreadTrees(trees.get(1).getThreadId(), 2);
+        assertEquals(1, rest.size());
+        assertNull(rest.get(0).getPost(), "A thread whose first post was deleted should have no post.");
+        assertEquals(List.of("c"), rest.get(0).getChildren().stream().map(n -> n.getPost().getBody()).toList());
+        assertEquals(1, rest.get(0).getChildren().get(0).getChildren().size());
+
+        // The staff board asks for the trees already expanded: same shape, no further reads
+        ArrayList<ThreadNode> expanded = db.getThreadTrees(0, 3, true);
+        assertEquals(List.of(q1, q2, q3), expanded.stream().map(ThreadNode::getThreadId).toList());
+        assertTrue(expanded.stream().allMatch(ThreadNode::isLoaded), "Expanded trees come with their replies.");
+        assertEquals(first.flatten().stream().map(n -> n.getPost().getId()).toList(),
+                expanded.get(0).flatten().stream().map(n -> n.getPost().getId()).toList());
+        assertNull(expanded.get(2).getPost());
+        assertEquals(List.of(1, 2), expanded.get(2).flatten().stream().skip(1).map(ThreadNode::getDepth).toList());
+        assertEquals(List.of(q3), db.getThreadTrees(q2, 3, true).stream().map(ThreadNode::getThreadId).toList());
+
+        // An existing database gains the same roots when migration 5 runs. The exception is
+        // a1x: its parent is gone, so the migration can only file it under the old parent id.
+        HashMap<Integer, Integer> roots = new HashMap<>();
+        for (Post p : threaded) roots.put(p.getId(), p.getRootPostId());
+        roots.put(a1x, a1);
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX idx_post_root");
+            stmt.execute("ALTER TABLE postDB DROP COLUMN rootPostId");
+            stmt.execute("DELETE FROM schemaVersion WHERE version >= 5");
+        }
+        db.connectToDatabase();
+        for (Post p : db.getContextualThreadedPosts())
+            assertEquals(roots.get(p.getId()), p.getRootPostId(), "Backfilled root of post " + p.getId());
+    }
+
+    private int countRows(String table) throws SQLException {
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private String lastActivity(int id) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT lastActivityAt FROM postDB WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /**
+     * Method: testLoadedPostsShareDictionaryStrings
+     * Description: Verifies posts loaded by separate queries share one String instance per
+     * author, type and thread, that equal author codes mean the same author, and that the
+     * ownership check rejects other users and names that have never posted.
+     */
+    @Test
+    public void testLoadedPostsShareDictionaryStrings() throws SQLException {
+        db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+        db.createPost(new Post("Q2", "Body", "Bob", "QUESTION", -1));
+        int q1 = db.getPostsByAuthor("Alice").get(0).getId();
+        db.createPost(new Post("Re", "Body", "Alice", "STATEMENT", q1));
+
+        ArrayList<Post> all = db.getContextualThreadedPosts();
+        ArrayList<Post> byAlice = db.getPostsByAuthor("Alice");
+        byAlice.addAll(db.getRepliesForPost(q1));
+        assertEquals(3, all.size());
+        assertEquals(2, byAlice.size());
+
+        Post alice = null, bob = null;
+        for (Post p : all) {
+            if (p.getAuthorUsername().equals("Alice")) alice = p;
+            else bob = p;
+        }
+        for (Post p : byAlice) {
+            assertSame(alice.getAuthorUsername(), p.getAuthorUsername(), "One copy of each username");
+            assertSame(alice.getThread(), p.getThread(), "One copy of each thread name");
+            assertEquals(alice.getAuthorCode(), p.getAuthorCode());
+        }
+        assertSame(bob.getPostType(), db.getPostById(q1).getPostType());
+        assertNotEquals(alice.getAuthorCode(), bob.getAuthorCode());
+
+        assertTrue(alice.isAuthoredBy("Alice"));
+        assertFalse(alice.isAuthoredBy("Bob"));
+        assertFalse(alice.isAuthoredBy("NeverPosted" + System.nanoTime()));
+        assertFalse(alice.isAuthoredBy(null));
+        assertEquals("", alice.getStaffComment());
+    }
+
+    /**
+     * Method: testPostSummariesMatchFullPosts
+     * Description: Verifies each summary list query returns the same posts, in the same
+     * order and with the same list fields, as the full-post query it stands in for, and
+     * that the full post, body included, can still be read by id.
+     */
+    @Test
+    public void testPostSummariesMatchFullPosts() throws SQLException {
+        for (int i = 0; i < 7; i++)
+            db.createPost(new Post("Sorting T" + i, "Body " + i, i % 2 == 0 ? "Alice" : "Bob",
+                    i % 3 == 0 ? "STATEMENT" : "QUESTION", -1));
+        ArrayList<Post> top = db.getAllPosts();
+        db.createPost(new Post("Re", "Reply", "Charlie", "STATEMENT", top.get(0).getId()));
+        db.markPostResolved(top.get(1).getId(), true);
+        db.updateInstructorEndorsement(top.get(2).getId(), true);
+        db.softDeletePost(top.get(0).getId());     // deleted, but kept for its reply
+
+        assertSummariesMatch(db.getAllPosts(), db.getPostSummaries());
+        assertSummariesMatch(db.getPostsByAuthor("Alice"), db.getPostSummariesByAuthor("Alice"));
+        assertSummariesMatch(db.getPostsPage(0, 3), db.getPostSummariesPage(0, 3));
+        int last = db.getPostsPage(0, 3).get(2).getId();
+        assertSummariesMatch(db.getPostsPage(last, 3), db.getPostSummariesPage(last, 3));
+        assertSummariesMatch(db.getPostsByAuthorPage("Bob", 0, 2), db.getPostSummariesByAuthorPage("Bob", 0, 2));
+        assertSummariesMatch(db.searchPosts("sorting t3"), db.searchPostSummaries("sorting t3"));
+        assertSummariesMatch(db.searchPosts("sorting"), db.searchPostSummaries("sorting"));
+        assertSummariesMatch(db.searchPosts(""), db.searchPostSummaries(""));
+        assertTrue(db.searchPostSummaries("xyzzynosuchthing").isEmpty());
+
+        PostSummary summary = db.getPostSummaries().get(3);
+        assertEquals("Body " + (6 - 3), db.getPostById(summary.getId()).getBody(),
+                "The detail view reads the body by id.");
+    }
+
+    private static void assertSummariesMatch(List<Post> posts, List<PostSummary> summaries) {
+        assertFalse(posts.isEmpty(), "Each case should list some posts.");
+        assertEquals(posts.size(), summaries.size());
+        for (int i = 0; i < posts.size(); i++) {
+            Post p = posts.get(i);
+            PostSummary s = summaries.get(i);
+            assertEquals(p.getId(), s.getId());
+            assertEquals(p.getTitle(), s.getTitle());
+            assertSame(p.getAuthorUsername(), s.getAuthorUsername());
+            assertEquals(p.getTimestamp(), s.getTimestamp());
+            assertSame(p.getPostType(), s.getPostType());
+            assertSame(p.getThread(), s.getThread());
+            assertEquals(p.getParentPostId(), s.getParentPostId());
+            assertEquals(p.getRootPostId(), s.getRootPostId());
+            assertEquals(p.isResolved(), s.isResolved());
+            assertEquals(p.isDeleted(), s.isDeleted());
+            assertEquals(p.isInstructorEndorsed(), s.isInstructorEndorsed());
+        }
+    }
+
+    /**
+     * Method: testCachedPostsKeepThreadRoot
+     * Description: Verifies a nested reply read twice by id, the second time from the post
+     * cache, reports its thread's top-level post as its root both times, as do the cached
+     * reply lists. A nested reply that has not been saved yet has no root.
+     */
+    @Test
+    public void testCachedPostsKeepThreadRoot() throws SQLException {
+        db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+        int top = db.getAllPosts().get(0).getId();
+        db.createPost(new Post("Re", "Body", "Bob", "STATEMENT", top));
+        int reply = db.getRepliesForPost(top).get(0).getId();
+        Post unsaved = new Post("Re", "Body", "Charlie", "STATEMENT", reply);
+        assertEquals(0, unsaved.getRootPostId(), "Not its parent's id before it is saved");
+        db.createPost(unsaved);
+        int nested = db.getRepliesForPost(reply).get(0).getId();
+
+        assertEquals(top, db.getPostById(nested).getRootPostId(), "Read from the database");
+        assertEquals(top, db.getPostById(nested).getRootPostId(), "Read from the cache");
+        assertEquals(top, db.getRepliesForPost(reply).get(0).getRootPostId(), "Cached reply list");
+    }
+
+    private static ArrayList<Post> collectPages(java.util.function.IntFunction<ArrayList<Post>> pager) {
+        ArrayList<Post> all = new ArrayList<>();
+        ArrayList<Post> page = pager.apply(0);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            page = pager.apply(page.get(page.size() - 1).getId());
+        }
+        return all;
+    }
+
+    private static List<Integer> ids(List<Post> posts) {
+        List<Integer> ids = new ArrayList<>();
+        for (Post p : posts) ids.add(p.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,224 @@
+package testing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import database.Database;
+import entityClasses.PostSummary;
+import server.DiscussionServer;
+
+/**
+ * Title: TestDiscussionServer Class
+ *
+ * Description: A JUnit test suite for the headless server mode. Each test starts a
+ * DiscussionServer on a free loopback port over an isolated in-memory database and talks
+ * to it over HTTP, checking the API's answers against the database, the ownership rules,
+ * the request metrics and the graceful shutdown.
+ */
+public class TestDiscussionServer {
+
+    private Database db;
+    private DiscussionServer server;
+
+    /** A response: its status and body. */
+    private record Response(int status, String body) {}
+
+    /**
+     * Method: setUp
+     * Description: Starts a server on a fresh in-memory database before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        try {
+            db = new Database("jdbc:h2:mem:servertestdb;DB_CLOSE_DELAY=-1");
+            db.connectToDatabase();
+            db.dropAllPostTables();
+            db.connectToDatabase();
+            server = new DiscussionServer(db, 0);
+            server.start();
+        } catch (Exception e) {
+            fail("Server setup failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: tearDown
+     * Description: Stops the server, which also closes the database.
+     */
+    @AfterEach
+    public void tearDown() {
+        server.stop(1);
+    }
+
+    /**
+     * Method: testPostsRoundTrip
+     * Description: Creates posts and a reply through the API and checks the list, detail,
+     * search and statistics routes return what the database holds, that the list leaves
+     * out bodies, and that bad input gets the right error status.
+     */
+    @Test
+    public void testPostsRoundTrip() throws IOException {
+        assertEquals(201, post("/api/posts", "title", "Sorting question", "body", "How do I sort \"quoted\" text?",
+                "author", "Alice", "type", "QUESTION").status());
+        assertEquals(201, post("/api/posts", "title", "A statement", "body", "Notes",
+                "author", "Bob", "type", "STATEMENT").status());
+        int question = db.getPostSummariesByAuthor("Alice").get(0).getId();
+        assertEquals(201, post("/api/posts", "title", "Re", "body", "Use Collections.sort",
+                "author", "Bob", "type", "STATEMENT", "parent", Integer.toString(question)).status());
+
+        Response list = get("/api/posts?limit=1");
+        assertEquals(200, list.status());
+        assertTrue(list.body().contains("\"title\":\"A statement\""), list.body());
+        assertTrue(list.body().contains("\"more\":true"), "A full page means there may be more.");
+        assertFalse(list.body().contains("\"body\""), "List rows leave the body out.");
+        int newest = db.getPostSummariesPage(0, 1).get(0).getId();
+        assertTrue(get("/api/posts?limit=5&after=" + newest).body().contains("\"id\":" + question));
+        assertTrue(get("/api/posts?author=Alice").body().contains("\"more\":false"));
+
+        Response detail = get("/api/posts/" + question);
+        assertEquals(200, detail.status());
+        assertTrue(detail.body().contains("\"body\":\"How do I sort \\\"quoted\\\" text?\""), detail.body());
+        assertTrue(detail.body().contains("\"replies\":[{"), detail.body());
+        assertTrue(detail.body().contains("Use Collections.sort"));
+
+        assertTrue(get("/api/search?q=sorting").body().contains("\"id\":" + question));
+        assertTrue(get("/api/statistics").body().startsWith("{\"questions\":1,\"statements\":2,"));
+
+        assertEquals(400, post("/api/posts", "title", "", "body", "x", "author", "Alice").status());
+        assertEquals(400, post("/api/posts", "title", "T", "body", "x").status(), "author is required");
+        assertEquals(404, post("/api/posts", "title", "T", "body", "x", "author", "Alice",
+                "parent", "999999").status());
+        assertEquals(404, get("/api/posts/999999").status());
+        assertEquals(400, get("/api/posts?limit=0").status());
+        assertEquals(400, get("/api/posts/abc").status());
+        assertEquals(404, get("/api/postsandmore").status());
+        assertEquals(405, post("/api/statistics").status());
+    }
+
+    /**
+     * Method: testOwnershipAndActions
+     * Description: Only the author may edit, delete or resolve a post through the API, as
+     * on the desktop pages; reading marks the thread read for the given user.
+     */
+    @Test
+    public void testOwnershipAndActions() throws IOException {
+        post("/api/posts", "title", "Mine", "body", "Original", "author", "Alice", "type", "QUESTION");
+        int id = db.getPostSummariesByAuthor("Alice").get(0).getId();
+
+        assertEquals(403, post("/api/posts/" + id + "/edit", "user", "Bob", "title", "X", "body", "Y").status());
+        assertEquals(403, post("/api/posts/" + id + "/delete", "user", "Bob").status());
+        assertEquals(400, post("/api/posts/" + id + "/edit", "title", "X", "body", "Y").status(), "user is required");
+
+        Response edited = post("/api/posts/" + id + "/edit", "user", "Alice", "title", "Mine", "body", "Edited");
+        assertEquals(200, edited.status());
+        assertEquals("Edited", db.getPostById(id).getBody());
+
+        assertEquals(200, post("/api/posts/" + id + "/resolve", "user", "Alice").status());
+        assertTrue(db.getPostById(id).isResolved());
+
+        assertFalse(db.isPostRead(id, "Bob"));
+        assertEquals(200, post("/api/posts/" + id + "/read", "user", "Bob").status());
+        assertTrue(db.isPostRead(id, "Bob"));
+
+        assertEquals(200, post("/api/posts/" + id + "/delete", "user", "Alice").status());
+        assertTrue(db.getPostById(id).isDeleted());
+        assertEquals(400, post("/api/posts/" + id + "/edit", "user", "Alice", "title", "A", "body", "B").status(),
+                "A deleted post cannot be edited.");
+        assertEquals(404, post("/api/posts/" + id + "/archive", "user", "Alice").status());
+    }
+
+    /**
+     * Method: testConcurrentClientsAndMetrics
+     * Description: Many clients post at once; every post is stored, and the metrics count
+     * each request under its route, with methods the API does not use under one name, and
+     * no requests left in flight.
+     */
+    @Test
+    public void testConcurrentClientsAndMetrics() throws Exception {
+        int clients = 40;
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<Response>> results = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            String author = "student" + (i % 8);
+            String title = "Post " + i;
+            results.add(pool.submit(() -> post("/api/posts", "title", title, "body", "Body", "author", author)));
+        }
+        for (Future<Response> result : results) assertEquals(201, result.get().status());
+        pool.shutdown();
+
+        ArrayList<PostSummary> stored = db.getPostSummaries();
+        assertEquals(clients, stored.size());
+        get("/api/posts/" + stored.get(0).getId());
+        get("/api/posts/999999");
+        assertEquals(405, request("PUT", "/api/posts", "title=T").status());
+        assertEquals(405, request("DELETE", "/api/posts/" + stored.get(0).getId(), null).status());
+
+        assertEquals(clients, server.getMetrics().getCount("POST /api/posts"));
+        assertEquals(2, server.getMetrics().getCount("GET /api/posts/{id}"));
+        assertEquals(1, server.getMetrics().getCount("{other} /api/posts"), "Other methods share one name.");
+        assertEquals(1, server.getMetrics().getCount("{other} /api/posts/{id}"));
+        assertEquals(0, server.getMetrics().getCount("DELETE /api/posts/{id}"));
+        Response metrics = get("/metrics");
+        assertTrue(metrics.body().contains("\"GET /api/posts/{id}\":{\"count\":2,\"clientErrors\":1,\"serverErrors\":0"),
+                metrics.body());
+        assertEquals(0, server.getMetrics().getInFlight());
+    }
+
+    /**
+     * Method: testGracefulShutdown
+     * Description: Stopping the server closes the listener and the database; stopping it
+     * again does nothing.
+     */
+    @Test
+    public void testGracefulShutdown() throws IOException {
+        assertEquals(200, get("/api/posts").status());
+        server.stop(1);
+        assertThrows(ConnectException.class, () -> get("/api/posts"));
+        server.stop(1);
+    }
+
+    private Response get(String path) throws IOException {
+        return request("GET", path, null);
+    }
+
+    private Response post(String path, String... form) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i + 1 < form.length; i += 2) {
+            if (body.length() > 0) body.append('&');
+            body.append(URLEncoder.encode(form[i], StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(form[i + 1], StandardCharsets.UTF_8));
+        }
+        return request("POST", path, body.toString());
+    }
+
+    private Response request(String method, String path, String form) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) URI.create("http://127.0.0.1:" + server.getPort() + path)
+                .toURL().openConnection();
+        conn.setRequestMethod(method);
+        if (form != null) {
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = conn.getResponseCode();
+        try (InputStream in = status < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+            return new Response(status, in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } finally {
+            conn.disconnect();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package testing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import database.Database;
+
+/**
+ * Title: TestSchemaIndexes Class
+ *
+ * Description: A JUnit test suite for the versioned schema migrations in {@code Database}.
+ * It seeds an isolated in-memory database with 100,000 posts (20,000 threads with four
+ * replies each, spread over 500 authors) plus read watermarks, and then asks H2 to EXPLAIN each hot query, checking
+ * that the plan goes through the secondary index instead of scanning postDB.
+ */
+public class TestSchemaIndexes {
+
+    private static final int THREADS = 20_000;
+    private static final int REPLIES_PER_THREAD = 4;
+    private static final int AUTHORS = 500;
+
+    private static Database db;
+
+    /**
+     * Method: seed
+     * Description: Creates the database once for the whole class and bulk-loads the posts
+     * with JDBC batches, then some read watermarks and out-of-order read replies.
+     */
+    @BeforeAll
+    public static void seed() {
+        try {
+            db = new Database("jdbc:h2:mem:indextestdb;DB_CLOSE_DELAY=-1");
+            db.connectToDatabase();
+            db.dropAllPostTables();
+            db.connectToDatabase();
+
+            String insert = "INSERT INTO postDB (id, title, body, authorUsername, timestamp, "
+                    + "postType, parentPostId, rootPostId) VALUES (?, 'Title', 'Body', ?, '2026-10-18 12:00:00', ?, ?, ?)";
+            try (Connection conn = db.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(insert)) {
+                conn.setAutoCommit(false);
+                int id = 1;
+                for (int t = 0; t < THREADS; t++) {
+                    int root = id;
+                    addRow(pstmt, id++, "user" + (t % AUTHORS), t % 3 == 0 ? "STATEMENT" : "QUESTION", -1);
+                    for (int r = 0; r < REPLIES_PER_THREAD; r++)
+                        addRow(pstmt, id++, "user" + ((t + r + 1) % AUTHORS), "STATEMENT", root);
+                    if (t % 1000 == 999) pstmt.executeBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            }
+            db.rebuildPostCounters();   // the batch bypassed createPost()
+            try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO readWatermarkDB (username, threadId, postRead, lastReadReplyId, "
+                        + "readReplyCount) SELECT 'user' || MOD(id, " + AUTHORS + "), id, TRUE, id + "
+                        + REPLIES_PER_THREAD + ", " + REPLIES_PER_THREAD
+                        + " FROM postDB WHERE parentPostId = -1 AND MOD(id, 7) = 0");
+                stmt.execute("INSERT INTO readExceptionDB (username, postId, threadId) "
+                        + "SELECT 'user' || MOD(id, " + AUTHORS + "), id, parentPostId FROM postDB "
+                        + "WHERE parentPostId <> -1 AND MOD(id, 11) = 0");
+                stmt.execute("ANALYZE");
+            }
+        } catch (Exception e) {
+            fail("Database seeding failed: " + e.getMessage());
+        }
+    }
+
+    private static void addRow(PreparedStatement pstmt, int id, String author, String type, int parent)
+            throws SQLException {
+        pstmt.setInt(1, id);
+        pstmt.setString(2, author);
+        pstmt.setString(3, type);
+        pstmt.setInt(4, parent);
+        pstmt.setInt(5, parent == -1 ? id : parent);
+        pstmt.addBatch();
+    }
+
+    /**
+     * Method: release
+     * Description: Closes the pool once every test has run.
+     */
+    @AfterAll
+    public static void release() {
+        db.closeConnection();
+    }
+
+    /**
+     * Method: testMigrationsApplyOnce
+     * Description: Verifies the schema is at the latest version and that reconnecting, which
+     * runs createTables() again, does not re-run or re-record any migration step.
+     */
+    @Test
+    public void testMigrationsApplyOnce() {
+        try {
+            int version = db.getSchemaVersion();
+            assertTrue(version >= 1, "The index migration should have been applied.");
+            db.connectToDatabase();
+            assertEquals(version, db.getSchemaVersion(), "Reconnecting must not change the version.");
+            try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM schemaVersion")) {
+                rs.next();
+                assertEquals(version, rs.getInt(1), "Each migration should be recorded exactly once.");
+            }
+            assertEquals(THREADS, db.getAllPosts().size(), "Every seeded thread should be listed.");
+        } catch (SQLException e) {
+            fail("Migration test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testHotQueriesUseIndexes
+     * Description: EXPLAINs the reply, author, thread, unresolved, read-tracking and Rule of 3 queries
+     * and checks each plan names the index created for it.
+     */
+    @Test
+    public void testHotQueriesUseIndexes() {
+        assertPlanUses("SELECT * FROM postDB WHERE parentPostId = 5001 ORDER BY id ASC",
+                "IDX_POST_PARENT");
+        assertPlanUses("SELECT COUNT(*) FROM postDB WHERE parentPostId = 5001",
+                "IDX_POST_PARENT");
+        assertPlanUses("SELECT * FROM postDB WHERE authorUsername = 'user42' "
+                + "AND (isDeleted = FALSE OR parentPostId = -1) ORDER BY id DESC",
+                "IDX_POST_AUTHOR");
+        assertPlanUses("SELECT * FROM postDB WHERE authorUsername IN ('user42', 'user142') "
+                + "ORDER BY CASE WHEN parentPostId = -1 THEN id ELSE parentPostId END, id",
+                "IDX_POST_AUTHOR");
+        assertPlanUses("SELECT DISTINCT authorUsername FROM postDB", "IDX_POST_AUTHOR");
+        assertPlanUses("SELECT * FROM postDB ORDER BY rootPostId, id", "IDX_POST_ROOT");
+        assertPlanUses("SELECT DISTINCT rootPostId FROM postDB WHERE rootPostId > 5000 "
+                + "ORDER BY rootPostId LIMIT 25", "IDX_POST_ROOT");
+        assertPlanUses("SELECT * FROM postDB WHERE rootPostId > 5000 AND rootPostId <= 5250 "
+                + "ORDER BY rootPostId, id", "IDX_POST_ROOT");
+        assertPlanUses("SELECT * FROM postDB WHERE parentPostId = -1 AND postType = 'QUESTION' "
+                + "AND isDeleted = FALSE", "IDX_POST_");
+        assertPlanUses("SELECT postRead FROM readWatermarkDB WHERE username = 'user7' AND threadId = 7",
+                "READWATERMARKDB");
+        assertPlanUses("SELECT username FROM readWatermarkDB WHERE threadId = 7", "IDX_READ_WATERMARK_THREAD");
+        assertPlanUses("SELECT username FROM readExceptionDB WHERE postId = 7", "IDX_READ_EXCEPTION_POST");
+        assertPlanUses("SELECT postId FROM readExceptionDB WHERE username = 'user7' AND threadId = 6",
+                "IDX_READ_EXCEPTION_THREAD");
+        assertPlanUses("SELECT COUNT(DISTINCT parent.authorUsername) FROM postDB AS reply "
+                + "JOIN postDB AS parent ON reply.parentPostId = parent.id "
+                + "WHERE reply.authorUsername = 'user42' AND parent.authorUsername != 'user42'",
+                "IDX_POST_AUTHOR");
+    }
+
+    private static void assertPlanUses(String query, String index) {
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN " + query)) {
+            assertTrue(rs.next());
+            String plan = rs.getString(1).toUpperCase();
+            assertTrue(plan.contains(index), "Expected " + index + " in the plan for: " + query + "\n" + plan);
+            assertFalse(plan.contains("TABLESCAN"), "Query should not scan a table: " + query + "\n" + plan);
+        } catch (SQLException e) {
+            fail("EXPLAIN failed due to exception: " + e.getMessage());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.sql.SQLException;
 
 import database.Database;
 import entityClasses.Post;
+import entityClasses.User;
 
 /**
  * Title: TestSecurityDB Class
@@ -152,4 +153,38 @@ public class TestSecurityDB {
             fail("Access control test crashed: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Method: testFindUserByUsername
+     * Description: Verifies the single-query login lookup returns the same fully populated
+     * User as the getAllUsers() scan it replaced, and that unknown names and an injection
+     * attempt (CWE-89) find nobody.
+     */
+    @Test
+    public void testFindUserByUsername() {
+        try {
+            if (!db.doesUserExist("loginUser"))
+                db.register(new User("loginUser", "Pw1!pass", "Lena", "M", "Ng", "Len", "lena@asu.edu",
+                        false, true, true, false));
+
+            User found = db.findUserByUsername("loginUser");
+            assertNotNull(found, "A registered user should be found.");
+            User scanned = null;
+            for (User u : db.getAllUsers())
+                if (u.getUserName().equals("loginUser")) scanned = u;
+            assertEquals(scanned.getPassword(), found.getPassword());
+            assertEquals(scanned.getFirstName(), found.getFirstName());
+            assertEquals(scanned.getPreferredFirstName(), found.getPreferredFirstName());
+            assertEquals(scanned.getEmailAddress(), found.getEmailAddress());
+            assertEquals(scanned.getAdminRole(), found.getAdminRole());
+            assertEquals(scanned.getNewRole1(), found.getNewRole1());
+            assertEquals(scanned.getNewRole2(), found.getNewRole2());
+            assertEquals(scanned.getHasOTP(), found.getHasOTP());
+
+            assertNull(db.findUserByUsername("noSuchUser"), "Unknown users should not be found.");
+            assertNull(db.findUserByUsername("' OR '1'='1"), "Injection input must not match any user.");
+        } catch (SQLException e) {
+            fail("User lookup test failed due to exception: " + e.getMessage());
+        }
+    }
+}
@@ -2,10 +2,26 @@ package testing;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import database.Database;
+import database.PostSnapshot;
+import entityClasses.ActivityHistogram;
+import entityClasses.DiscussionStatistics;
 import entityClasses.Post;
+import entityClasses.User;
+import guiTools.KeyedRows;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import prototype.RuleOfThreeVerifier;
 
 /**
@@ -84,6 +100,110 @@ public class TestTP3Features {
         }
     }
 
+    /**
+     * Method: testBatchRuleOfThree
+     * Description: Epic 7. Validates {@code RuleOfThreeVerifier.getDistinctPeerCounts()} and
+     * {@code verifyAllStudents()} against the per-student check on the same scenario as
+     * testRuleOfThreeVerifier, and that the threshold parameter is honored. A snapshot
+     * taken before the replies is not used.
+     */
+    @Test
+    public void testBatchRuleOfThree() {
+        try {
+            db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+            db.createPost(new Post("Q2", "Body", "Bob", "QUESTION", -1));
+            db.createPost(new Post("Q3", "Body", "Charlie", "QUESTION", -1));
+            db.createPost(new Post("Q4", "Body", "Frank", "QUESTION", -1));
+            ArrayList<Post> allPosts = db.getAllPosts();
+            int p4 = allPosts.get(0).getId(), p3 = allPosts.get(1).getId();
+            int p2 = allPosts.get(2).getId(), p1 = allPosts.get(3).getId();
+
+            db.getAnalyticsSnapshot();  // a recent snapshot without the replies must not be used
+            for (int parent : new int[] { p1, p2, p3 })
+                db.createPost(new Post("Reply", "Body", "Dave", "STATEMENT", parent));
+            for (int i = 0; i < 3; i++)
+                db.createPost(new Post("Reply", "Body", "Eve", "STATEMENT", p1));
+            for (int parent : new int[] { p4, p1, p2 })
+                db.createPost(new Post("Reply", "Body", "Frank", "STATEMENT", parent));
+
+            java.util.HashMap<String, Integer> counts = verifier.getDistinctPeerCounts();
+            assertEquals(3, counts.get("Dave"), "Dave replied to 3 distinct peers.");
+            assertEquals(1, counts.get("Eve"), "Eve's repeat replies to Alice count once.");
+            assertEquals(2, counts.get("Frank"), "Frank's self-reply should not count.");
+            assertNull(counts.get("Alice"), "Alice never replied, so she has no entry.");
+
+            java.util.HashSet<String> passed = verifier.verifyAllStudents(RuleOfThreeVerifier.REQUIRED_PEERS);
+            for (String student : new String[] { "Alice", "Dave", "Eve", "Frank" })
+                assertEquals(verifier.verifyStudentInteraction(student), passed.contains(student),
+                        "Batch result should match the per-student check for " + student);
+            assertEquals(java.util.Set.of("Dave", "Frank"), verifier.verifyAllStudents(2),
+                    "A lower threshold should pass Frank too.");
+        } catch (Exception e) {
+            fail("Batch Rule of 3 test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testStudentReportExport
+     * Description: Epic 7. Exports the performance report as plain and gzip compressed CSV and
+     * checks the header, each student's status and peer count, CSV quoting of awkward names,
+     * that non-students are left out, that replies made after the last analytics snapshot
+     * are counted, and that the final progress report covers every row.
+     */
+    @Test
+    public void testStudentReportExport() {
+        try {
+            String[][] students = {
+                { "rptAlice", "Alice", "Smith" },
+                { "rptBob", "Bob", "O\"Brien, Jr." },
+                { "rptCarl", "Carl", "Jones" },
+                { "rptDave", "Dave", "Lee" } };
+            for (String[] st : students) {
+                if (!db.doesUserExist(st[0]))
+                    db.register(new User(st[0], "Pw1!pass", st[1], "", st[2], st[1], st[0] + "@asu.edu",
+                            false, true, false, false));
+            }
+            if (!db.doesUserExist("rptStaff"))
+                db.register(new User("rptStaff", "Pw1!pass", "Sam", "", "Staff", "Sam", "s@asu.edu",
+                        false, false, true, false));
+
+            for (int i = 0; i < 3; i++)
+                db.createPost(new Post("Q", "Body", students[i][0], "QUESTION", -1));
+            ArrayList<Post> top = db.getAllPosts();
+            db.getAnalyticsSnapshot();  // the export must not report from this older snapshot
+            for (Post p : top)
+                db.createPost(new Post("Re", "Body", "rptDave", "STATEMENT", p.getId()));
+            db.createPost(new Post("Re", "Body", "rptBob", "STATEMENT", top.get(2).getId()));
+
+            prototype.StudentReportExporter exporter = new prototype.StudentReportExporter(db);
+            long[] lastProgress = new long[2];
+            java.io.ByteArrayOutputStream plain = new java.io.ByteArrayOutputStream();
+            long written = exporter.export(plain, (done, total) -> { lastProgress[0] = done; lastProgress[1] = total; });
+            String csv = plain.toString(java.nio.charset.StandardCharsets.UTF_8);
+
+            String[] lines = csv.split("\n");
+            assertEquals(prototype.StudentReportExporter.HEADER, lines[0], "Header row mismatch.");
+            assertEquals(lines.length - 1, written, "Every student should be one line.");
+            assertEquals(written, lastProgress[0], "Final progress report should cover every row.");
+            assertEquals(lastProgress[0], lastProgress[1], "Final progress should be complete.");
+            assertTrue(csv.contains("rptDave,Dave,Lee,PASSED,3\n"), "Dave replied to 3 peers.");
+            assertTrue(csv.contains("rptBob,Bob,\"O\"\"Brien, Jr.\",FAILED,1\n"),
+                    "Names with commas and quotes must be quoted.");
+            assertTrue(csv.contains("rptCarl,Carl,Jones,FAILED,0\n"), "Students with no replies still appear.");
+            assertFalse(csv.contains("rptStaff"), "Staff users are not in the student report.");
+
+            java.io.File gz = java.io.File.createTempFile("report", ".csv.gz");
+            gz.deleteOnExit();
+            exporter.export(gz, null);
+            try (java.io.InputStream in = new java.util.zip.GZIPInputStream(new java.io.FileInputStream(gz))) {
+                assertEquals(csv, new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8),
+                        "Compressed export should hold the same CSV.");
+            }
+        } catch (Exception e) {
+            fail("Report export test failed due to exception: " + e.getMessage());
+        }
+    }
+
     /**
      * Method: testStaffMetadata
      * Description: Epic 3 and 6. Verifies that Instructor Endorsements and Staff Comments 
@@ -139,6 +259,313 @@ public class TestTP3Features {
         }
     }
 
+    /**
+     * Method: testActivityHistogram
+     * Description: Epic 4. Validates {@code Database.getActivityHistogram()} counts posts by
+     * hour of day and day of week, honours the date range, skips deleted posts, and that
+     * the peak activity time is taken from it.
+     */
+    @Test
+    public void testActivityHistogram() {
+        try {
+            // 2026-10-19 is a Monday and 2026-10-21 a Wednesday
+            String[] times = { "2026-10-19 14:05:00", "2026-10-19 14:55:00", "2026-10-21 14:30:00",
+                    "2026-10-21 09:00:00", "2026-10-21 23:59:59" };
+            for (String time : times)
+                db.createPost(new Post(0, "Title", "Body", "Alice", time, "QUESTION", "General", -1,
+                        false, false, false, ""));
+            db.createPost(new Post(0, "Gone", "Body", "Bob", "2026-10-21 09:10:00", "QUESTION", "General",
+                    -1, false, false, false, ""));
+            db.softDeletePost(db.getAllPosts().get(0).getId());
+
+            ActivityHistogram all = db.getActivityHistogram();
+            assertEquals(5, all.getTotal(), "Deleted posts are not counted.");
+            assertEquals(3, all.getHourCount(14));
+            assertEquals(1, all.getHourCount(9));
+            assertEquals(1, all.getHourCount(23));
+            assertEquals(2, all.getDayCount(DayOfWeek.MONDAY));
+            assertEquals(3, all.getDayCount(DayOfWeek.WEDNESDAY));
+            assertEquals(14, all.getPeakHour());
+            assertEquals(DayOfWeek.WEDNESDAY, all.getPeakDay());
+            assertEquals("2:00 PM", db.getPeakActivityTime());
+            assertEquals("2026-10-19 14:05:00", db.getPostById(db.getAllPosts().get(4).getId()).getTimestamp(),
+                    "Timestamps should read back in the Post format.");
+
+            ActivityHistogram wednesday = db.getActivityHistogram(LocalDateTime.of(2026, 10, 21, 0, 0),
+                    LocalDateTime.of(2026, 10, 22, 0, 0));
+            assertEquals(3, wednesday.getTotal());
+            assertEquals(0, wednesday.getDayCount(DayOfWeek.MONDAY));
+            assertEquals(0, db.getActivityHistogram(null, LocalDateTime.of(2026, 10, 19, 14, 5)).getTotal(),
+                    "The upper bound is exclusive.");
+
+            db.dropAllPostTables();
+            db.connectToDatabase();
+            assertEquals(-1, db.getActivityHistogram().getPeakHour());
+            assertEquals("N/A", db.getPeakActivityTime());
+        } catch (Exception e) {
+            fail("Activity histogram test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method: testStatisticsSnapshot
+     * Description: Epic 4 and 8. Seeds the dashboard statistics, then creates, replies to,
+     * endorses, soft-deletes and hard-deletes posts, and checks after every step that the
+     * incrementally maintained snapshot equals a fresh count from the database.
+     */
+    @Test
+    public void testStatisticsSnapshot() {
+        try {
+            db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+            assertSnapshotMatchesDatabase();   // seeds the counters
+
+            db.createPost(new Post("Q2", "Body", "Bob", "QUESTION", -1));
+            db.createPost(new Post("S1", "Body", "Charlie", "STATEMENT", -1));
+            ArrayList<Post> posts = db.getAllPosts();
+            int q1 = posts.get(2).getId();
+            int q2 = posts.get(1).getId();
+            assertSnapshotMatchesDatabase();
+
+            db.createPost(new Post("Re", "Answer", "Bob", "STATEMENT", q1));
+            assertEquals(1, db.getStatisticsSnapshot().getUnresolvedCount(), "Q1 is answered now.");
+            assertSnapshotMatchesDatabase();
+
+            int reply = db.getRepliesForPost(q1).get(0).getId();
+            db.updateInstructorEndorsement(reply, true);
+            db.updateInstructorEndorsement(q2, true);
+            assertEquals(2, db.getStatisticsSnapshot().getEndorsedCount());
+            db.updateInstructorEndorsement(q2, false);
+            assertSnapshotMatchesDatabase();
+
+            db.softDeletePost(q2);
+            assertEquals(0, db.getStatisticsSnapshot().getUnresolvedCount());
+            assertSnapshotMatchesDatabase();
+
+            db.deletePost(reply);
+            assertEquals(1, db.getStatisticsSnapshot().getUnresolvedCount(), "Q1 is unanswered again.");
+            assertEquals(0, db.getStatisticsSnapshot().getEndorsedCount());
+            assertSnapshotMatchesDatabase();
+            db.deletePost(q1);
+            assertSnapshotMatchesDatabase();
+
+            db.dropAllPostTables();
+            db.connectToDatabase();
+            assertEquals(0, db.getStatisticsSnapshot().getActivity().getTotal(), "Dropping the tables resets the counters.");
+        } catch (Exception e) {
+            fail("Statistics snapshot test failed due to exception: " + e.getMessage());
+        }
+    }
+
+    private void assertSnapshotMatchesDatabase() throws SQLException {
+        assertSnapshotMatchesDatabase(db.getStatisticsSnapshot());
+    }
+
+    private void assertSnapshotMatchesDatabase(DiscussionStatistics snapshot) throws SQLException {
+        int[] counts = db.getDiscussionStatistics();
+        assertEquals(counts[0], snapshot.getQuestionCount(), "Question count");
+        assertEquals(counts[1], snapshot.getStatementCount(), "Statement count");
+        assertEquals(db.getUnresolvedQuestions().size(), snapshot.getUnresolvedCount(), "Unresolved count");
+        ActivityHistogram fresh = db.getActivityHistogram();
+        for (int hour = 0; hour < 24; hour++)
+            assertEquals(fresh.getHourCount(hour), snapshot.getActivity().getHourCount(hour), "Hour " + hour);
+        for (DayOfWeek day : DayOfWeek.values())
+            assertEquals(fresh.getDayCount(day), snapshot.getActivity().getDayCount(day), day.toString());
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM postDB WHERE isDeleted = FALSE AND isInstructorEndorsed = TRUE")) {
+            rs.next();
+            assertEquals(rs.getInt(1), snapshot.getEndorsedCount(), "Endorsed count");
+        }
+    }
+
+    /**
+     * Method: testAnalyticsSnapshot
+     * Description: Epic 4, 7 and 8. Builds a board with repeat replies, a self-reply, an
+     * endorsement, a resolved question, a soft-deleted post and a reply whose parent was
+     * hard-deleted, then checks the columnar snapshot's peer counts, statistics and
+     * unresolved list equal the SQL queries, and that it is only re-read on refresh. The
+     * staff board's unresolved list follows the snapshot but drops questions answered since.
+     */
+    @Test
+    public void testAnalyticsSnapshot() throws SQLException {
+        db.createPost(new Post("Q1", "Body", "Alice", "QUESTION", -1));
+        db.createPost(new Post("Q2", "Body", "Bob", "QUESTION", -1));
+        db.createPost(new Post("Q3", "Body", "Charlie", "QUESTION", -1));
+        db.createPost(new Post("S1", "Body", "Frank", "STATEMENT", -1));
+        db.createPost(new Post("Q5", "Body", "Grace", "QUESTION", -1));
+        ArrayList<Post> allPosts = db.getAllPosts();
+        int q5 = allPosts.get(0).getId(), s1 = allPosts.get(1).getId(), q3 = allPosts.get(2).getId();
+        int q2 = allPosts.get(3).getId(), q1 = allPosts.get(4).getId();
+        for (int parent : new int[] { q1, q2, q3, q5 })
+            db.createPost(new Post("Reply", "Body", "Dave", "STATEMENT", parent));
+        for (int i = 0; i < 3; i++)
+            db.createPost(new Post("Reply", "Body", "Eve", "STATEMENT", q1));
+        for (int parent : new int[] { s1, q2 })
+            db.createPost(new Post("Reply", "Body", "Frank", "STATEMENT", parent));
+        db.updateInstructorEndorsement(q1, true);
+        db.markPostResolved(q1, true);
+        db.softDeletePost(q2);
+        db.createPost(new Post("Q6", "Body", "Alice", "QUESTION", -1));
+        db.deletePost(q5);  // Dave's reply to Grace is orphaned and no longer counts
+
+        // The roster check takes a fresh snapshot, which the reads below then reuse
+        assertEquals(verifier.verifyAllStudents(RuleOfThreeVerifier.REQUIRED_PEERS),
+                new java.util.HashSet<>(java.util.List.of("Dave")), "Only Dave reached three peers.");
+        PostSnapshot snapshot = db.getAnalyticsSnapshot();
+        assertEquals(verifier.getDistinctPeerCounts(), snapshot.getDistinctPeerCounts(),
+                "Peer counts should match the grouped SQL join.");
+        for (String student : new String[] { "Alice", "Dave", "Eve", "Frank", "Nobody" })
+            assertEquals(verifier.verifyStudentInteraction(student),
+                    snapshot.getDistinctPeers(student) >= RuleOfThreeVerifier.REQUIRED_PEERS, student);
+        assertSnapshotMatchesDatabase(snapshot.getStatistics());
+        assertArrayEquals(db.getUnresolvedQuestions().stream().mapToInt(Post::getId).toArray(),
+                snapshot.getUnresolvedQuestionIds(), "Unresolved questions, newest first");
+        assertEquals(1, snapshot.countResolvedQuestions());
+
+
+        db.createPost(new Post("Q7", "Body", "Heidi", "QUESTION", -1));
+        assertSame(snapshot, db.getAnalyticsSnapshot(), "A recent snapshot should be reused.");
+        int[] unresolved = snapshot.getUnresolvedQuestionIds();
+        assertArrayEquals(unresolved, db.getSnapshotUnresolvedQuestions().stream().mapToInt(Post::getId).toArray(),
+                "The board lists the snapshot's unresolved questions, not the one asked since.");
+        db.createPost(new Post("Reply", "Body", "Bob", "STATEMENT", unresolved[0]));
+        assertEquals(unresolved.length - 1, db.getSnapshotUnresolvedQuestions().size(),
+                "A question answered since the snapshot is left out.");
+        PostSnapshot refreshed = db.refreshAnalyticsSnapshot();
+        assertEquals(snapshot.size() + 2, refreshed.size(), "A refresh should see the new posts.");
+        assertSame(refreshed, db.getAnalyticsSnapshot());
+        assertEquals("Q7", db.getSnapshotUnresolvedQuestions().get(0).getTitle());
+    }
+
+    /**
+     * Method: testBoardRowsOnlyTouchChangedPosts
+     * Description: Staff board refresh. Verifies that diffing a re-read board against the
+     * rows on screen re-renders and replaces only the endorsed post, removes only the
+     * deleted one, and leaves the rows in the same order as a full rebuild would.
+     */
+    @Test
+    public void testBoardRowsOnlyTouchChangedPosts() throws SQLException {
+        for (int i = 0; i < 20; i++) {
+            db.createPost(new Post("Thread " + i, "Body " + i, "Author" + (i % 4), "QUESTION", -1));
+        }
+        ArrayList<Post> board = db.getContextualThreadedPosts();
+
+        AtomicInteger renders = new AtomicInteger();
+        ObservableList<String> items = FXCollections.observableArrayList();
+        KeyedRows<Post> rows = new KeyedRows<>(items, Post::getId,
+                (a, b) -> a.isInstructorEndorsed() == b.isInstructorEndorsed() && Objects.equals(a.getBody(), b.getBody()),
+                p -> {
+                    renders.incrementAndGet();
+                    return p.getId() + (p.isInstructorEndorsed() ? " [endorsed]" : "") + ": " + p.getBody();
+                });
+        rows.showAll(board);
+        assertEquals(20, items.size(), "Every post should get a row.");
+        assertEquals(20, renders.get(), "Each row should be rendered once.");
+
+        int endorsedId = board.get(7).getId();
+        int deletedId = board.get(12).getId();
+        db.updateInstructorEndorsement(endorsedId, true);
+        db.deletePost(deletedId);
+
+        ArrayList<String> changedRows = new ArrayList<>();
+        AtomicInteger removedRows = new AtomicInteger();
+        items.addListener((ListChangeListener<String>) change -> {
+            while (change.next()) {
+                if (change.wasAdded()) changedRows.addAll(change.getAddedSubList());
+                removedRows.addAndGet(change.getRemovedSize());
+            }
+        });
+        renders.set(0);
+        ArrayList<Post> refreshed = db.getContextualThreadedPosts();
+        rows.showAll(refreshed);
+
+        assertEquals(1, renders.get(), "Only the endorsed post should be re-rendered.");
+        assertEquals(1, changedRows.size(), "Only the endorsed row should be replaced.");
+        assertTrue(changedRows.get(0).contains("[endorsed]"), "The replaced row should show the endorsement.");
+        assertEquals(2, removedRows.get(), "The old endorsed row and the deleted row should be removed.");
+        assertEquals(-1, rows.indexOf(deletedId), "The deleted post should have no row.");
+        assertEquals(refreshed.size(), items.size(), "The board should have one row per post.");
+        for (int i = 0; i < refreshed.size(); i++) {
+            assertEquals(refreshed.get(i).getId(), rows.keyAt(i), "Rows should stay in board order.");
+        }
+    }
+
+    /**
+     * Method: testBoardRowsFollowMovedPosts
+     * Description: Staff board refresh. Verifies that when rows move, appear and disappear
+     * at once the rows end up in the new order, only new and moved rows are rendered again,
+     * and every row can still be found by its key after later removals and appends.
+     */
+    @Test
+    public void testBoardRowsFollowMovedPosts() {
+        AtomicInteger renders = new AtomicInteger();
+        ObservableList<String> items = FXCollections.observableArrayList();
+        KeyedRows<Integer> rows = new KeyedRows<>(items, i -> i, Objects::equals, i -> {
+            renders.incrementAndGet();
+            return "Row " + i;
+        });
+        rows.showAll(List.of(1, 2, 3, 4, 5, 6, 7, 8));
+        renders.set(0);
+
+        // 7 and 4 move up past other rows, 5 goes and 9 is new
+        List<Integer> next = List.of(1, 7, 2, 4, 3, 6, 8, 9);
+        rows.showAll(next);
+        assertEquals(3, renders.get(), "Only the two moved rows and the new one are rendered.");
+        assertEquals(next.stream().map(i -> "Row " + i).toList(), items);
+        for (int i = 0; i < next.size(); i++) {
+            assertEquals(next.get(i), rows.keyAt(i));
+            assertEquals(i, rows.indexOf(next.get(i)), "Row " + next.get(i) + " should be found where it is.");
+        }
+        assertEquals(-1, rows.indexOf(5));
+
+        rows.remove(7);
+        rows.append(List.of(10, 4));
+        assertEquals(List.of(1, 2, 4, 3, 6, 8, 9, 10),
+                java.util.stream.IntStream.range(0, rows.size()).mapToObj(rows::keyAt).toList());
+        for (int i = 0; i < rows.size(); i++) assertEquals(i, rows.indexOf(rows.keyAt(i)));
+    }
+
+    /**
+     * Method: testAuthorSearch
+     * Description: Epic 5. Verifies that the indexed author search finds usernames by
+     * substring (short and long fragments, any case) and by prefix, picks up authors who
+     * post after the index is built, and returns the same rows in the same threaded order
+     * as filtering the whole board did.
+     */
+    @Test
+    public void testAuthorSearch() throws SQLException {
+        String[] authors = {"Alice", "alicia", "Malik", "Bob", "Roberta"};
+        for (String author : authors) {
+            db.createPost(new Post("By " + author, "Body", author, "QUESTION", -1));
+        }
+        int thread = db.getAllPosts().get(0).getId();
+        db.createPost(new Post("Reply", "Body", "Roberta", "STATEMENT", thread));
+
+        assertEquals(List.of("Alice", "alicia", "Malik"), db.findAuthors("ALI", false),
+                "A three letter fragment should match anywhere in the name, ignoring case.");
+        assertEquals(List.of("Alice", "alicia"), db.findAuthors("ali", true),
+                "A prefix search should skip names that only contain the fragment.");
+        assertEquals(List.of("Bob", "Roberta"), db.findAuthors("b", false),
+                "A one letter fragment should be answered from the index.");
+        assertEquals(List.of("Roberta"), db.findAuthors("obert", false),
+                "A long fragment should be checked against the names its trigrams share.");
+        assertTrue(db.findAuthors("alx", false).isEmpty(), "An unmatched fragment should find no one.");
+
+        db.createPost(new Post("Late", "Body", "Salinger", "QUESTION", -1));
+        assertEquals(List.of("Alice", "alicia", "Malik", "Salinger"), db.findAuthors("ali", false),
+                "An author who posts after the first search should be found.");
+
+        for (String fragment : new String[] {"ali", "rob", "e", "roberta"}) {
+            ArrayList<Integer> expected = new ArrayList<>();
+            for (Post p : db.getContextualThreadedPosts()) {
+                if (p.getAuthorUsername().toLowerCase().contains(fragment)) expected.add(p.getId());
+            }
+            ArrayList<Integer> actual = new ArrayList<>();
+            for (Post p : db.getThreadedPostsByAuthor(fragment, false)) actual.add(p.getId());
+            assertEquals(expected, actual, "Search for '" + fragment + "' should match the filtered board.");
+        }
+    }
+
     /**
      * Method: testUnresolvedQuestions
      * Description: Epic 8. Verifies that ONLY active QUESTION type posts with 0 replies 